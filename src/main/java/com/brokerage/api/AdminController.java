@@ -1,6 +1,7 @@
 package com.brokerage.api;
 
 import com.brokerage.api.dto.request.AddAssetRequest;
+import com.brokerage.api.dto.request.BatchMatchOrderRequest;
 import com.brokerage.api.dto.request.CreateCustomerRequest;
 import com.brokerage.api.dto.request.MatchOrderRequest;
 import com.brokerage.api.dto.response.*;
@@ -10,10 +11,12 @@ import com.brokerage.api.mapper.OrderMapper;
 import com.brokerage.domain.Asset;
 import com.brokerage.domain.Customer;
 import com.brokerage.domain.Order;
+import com.brokerage.event.OutboxService;
 import com.brokerage.service.CustomerService;
-import com.brokerage.service.command.AssetCommandService;
-import com.brokerage.service.command.OrderCommandService;
+import com.brokerage.service.command.OrderBatchMatchService;
+import com.brokerage.service.command.OrderCommandGateway;
 import com.brokerage.service.query.OrderQueryService;
+import com.brokerage.service.reconciliation.BalanceReconciliationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -36,10 +39,12 @@ import java.util.List;
 public class AdminController {
 
     private final CustomerService customerService;
-    private final OrderCommandService orderCommandService;
+    private final OrderCommandGateway orderCommandGateway;
+    private final OrderBatchMatchService orderBatchMatchService;
     private final OrderQueryService orderQueryService;
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final OutboxService outboxService;
     private final CustomerMapper customerMapper;
-    private final AssetCommandService assetCommandService;
     private final OrderMapper orderMapper;
     private final AssetMapper assetMapper;
 
@@ -95,8 +100,7 @@ public class AdminController {
     public ResponseEntity<ApiResponse<OrderListResponse>> getPendingOrders() {
         log.info("Admin fetching all pending orders");
 
-        List<Order> pendingOrders = orderQueryService.getAllPendingOrders();
-        List<OrderResponse> orderResponses = orderMapper.toResponseList(pendingOrders);
+        List<OrderResponse> orderResponses = orderQueryService.getAllPendingOrders();
 
         OrderListResponse response = OrderListResponse.builder()
                 .orders(orderResponses)
@@ -111,12 +115,69 @@ public class AdminController {
     public ResponseEntity<ApiResponse<OrderResponse>> matchOrder(@Valid @RequestBody MatchOrderRequest request) {
         log.info("Admin matching order ID: {}", request.getOrderId());
 
-        Order matchedOrder = orderCommandService.matchOrder(request.getOrderId());
+        Order matchedOrder = orderCommandGateway.matchOrder(request.getOrderId());
         OrderResponse response = orderMapper.toResponse(matchedOrder);
 
         return ResponseEntity.ok(new ApiResponse<>(true, "Order matched successfully", response));
     }
 
+    @PostMapping("/orders/match/batch")
+    @Operation(summary = "Batch match orders", description = "Match many open orders by ID or by asset filter in chunked transactions (admin only)")
+    public ResponseEntity<ApiResponse<BatchMatchResponse>> matchOrders(@Valid @RequestBody BatchMatchOrderRequest request) {
+        log.info("Admin batch matching orders, ids: {}, asset: {}, status: {}",
+                request.getOrderIds() != null ? request.getOrderIds().size() : 0, request.getAssetName(), request.getStatus());
+
+        BatchMatchResponse response = orderBatchMatchService.matchOrders(request);
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Batch match completed", response));
+    }
+
+    @PostMapping("/reconciliation/balances")
+    @Operation(summary = "Reconcile balances", description = "Check every usable balance against the reservations of open orders, optionally repairing drift (admin only)")
+    public ResponseEntity<ApiResponse<ReconciliationResponse>> reconcileBalances(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        log.info("Admin reconciling balances, repair: {}", repair);
+
+        ReconciliationResponse response = balanceReconciliationService.reconcile(repair);
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Balance reconciliation completed", response));
+    }
+
+    @GetMapping("/outbox/dead-letters")
+    @Operation(summary = "List dead-lettered events", description = "List outbox events that exhausted their relay attempts, oldest first (admin only)")
+    public ResponseEntity<ApiResponse<List<OutboxDeadLetterResponse>>> getDeadLetters(
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Admin fetching dead-lettered outbox events, limit: {}", limit);
+
+        List<OutboxDeadLetterResponse> response = outboxService.getDeadLetters(limit);
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Dead-lettered events retrieved successfully", response));
+    }
+
+    @PostMapping("/outbox/dead-letters/requeue")
+    @Operation(summary = "Requeue dead-lettered events", description = "Move the given dead-lettered events back to the outbox with their attempts reset, or all of them with all=true (admin only)")
+    public ResponseEntity<ApiResponse<OutboxRequeueResponse>> requeueDeadLetters(
+            @RequestBody(required = false) List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean all) {
+        int requeued;
+        if (all) {
+            if (ids != null && !ids.isEmpty()) {
+                throw new IllegalArgumentException("Dead letter ids cannot be combined with all=true");
+            }
+            log.info("Admin requeueing all dead-lettered outbox events");
+            requeued = outboxService.requeueAllDeadLetters();
+        } else {
+            if (ids == null || ids.isEmpty()) {
+                throw new IllegalArgumentException("Dead letter ids are required unless all=true");
+            }
+            log.info("Admin requeueing {} dead-lettered outbox events", ids.size());
+            requeued = outboxService.requeueDeadLetters(ids);
+        }
+        OutboxRequeueResponse response = OutboxRequeueResponse.builder().requeued(requeued).build();
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Dead-lettered events requeued", response));
+    }
+
     @PostMapping("/customers/assets")
     @Operation(summary = "Add asset to customer", description = "Add a new asset to a specific customer's portfolio (admin only)")
     public ResponseEntity<ApiResponse<AssetResponse>> addAssetToCustomer(
@@ -126,7 +187,7 @@ public class AdminController {
         Customer customer = customerService.getCustomerById(customerId);
         log.info("Admin adding asset {} to customer ID: {}", request.getAssetName(), customerId);
 
-        Asset newAsset = assetCommandService.createOrUpdateAsset(
+        Asset newAsset = orderCommandGateway.depositAsset(
                 customer,
                 request.getAssetName(),
                 request.getInitialSize()
@@ -3,9 +3,11 @@ package com.brokerage.api;
 import com.brokerage.api.dto.response.ApiResponse;
 import com.brokerage.api.dto.response.AssetListResponse;
 import com.brokerage.api.dto.response.AssetResponse;
+import com.brokerage.api.dto.response.PortfolioValuationResponse;
 import com.brokerage.api.mapper.AssetMapper;
 import com.brokerage.domain.Asset;
 import com.brokerage.service.query.AssetQueryService;
+import com.brokerage.service.query.PortfolioValuationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,6 +31,7 @@ import java.util.stream.Collectors;
 public class AssetController {
 
     private final AssetQueryService assetQueryService;
+    private final PortfolioValuationService portfolioValuationService;
     private final CustomerHelper customerHelper;
     private final AssetMapper assetMapper;
 
@@ -53,6 +56,20 @@ public class AssetController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Assets retrieved successfully", response));
     }
 
+    @GetMapping("/valuation")
+    @Operation(summary = "Value portfolio", description = "Value every holding at its last traded price in TRY")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<PortfolioValuationResponse>> getValuation(
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        Long customerId = customerHelper.getCustomerIdFromUserDetails(userDetails);
+        log.info("Valuing portfolio for customer ID: {}", customerId);
+
+        PortfolioValuationResponse response = portfolioValuationService.valuePortfolio(customerId);
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Portfolio valued successfully", response));
+    }
+
     @GetMapping("/{assetName}")
     @Operation(summary = "Get asset", description = "Get a specific asset by name")
     @PreAuthorize("hasRole('USER')")
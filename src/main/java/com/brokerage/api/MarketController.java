@@ -0,0 +1,52 @@
+package com.brokerage.api;
+
+import com.brokerage.api.dto.response.ApiResponse;
+import com.brokerage.api.dto.response.AssetStatsResponse;
+import com.brokerage.service.stats.AssetStatsService;
+import com.brokerage.service.stats.CandleInterval;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/market")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Market", description = "Market statistics API")
+public class MarketController {
+
+    private final AssetStatsService assetStatsService;
+
+    @GetMapping("/stats")
+    @Operation(summary = "List asset statistics",
+            description = "Volume, VWAP, recent candles and open order counts of every traded asset")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<List<AssetStatsResponse>>> getAllStats(
+            @RequestParam(defaultValue = "MINUTE") CandleInterval interval) {
+
+        List<AssetStatsResponse> stats = assetStatsService.getAllStats(interval);
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Statistics retrieved successfully", stats));
+    }
+
+    @GetMapping("/stats/{assetName}")
+    @Operation(summary = "Get asset statistics",
+            description = "Volume, VWAP, recent candles and open order counts of one asset")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<AssetStatsResponse>> getStats(
+            @PathVariable String assetName,
+            @RequestParam(defaultValue = "MINUTE") CandleInterval interval) {
+
+        AssetStatsResponse stats = assetStatsService.getStats(assetName, interval);
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Statistics retrieved successfully", stats));
+    }
+}
@@ -7,19 +7,25 @@ import com.brokerage.api.dto.response.OrderListResponse;
 import com.brokerage.api.dto.response.OrderResponse;
 import com.brokerage.api.mapper.OrderMapper;
 import com.brokerage.domain.Order;
-import com.brokerage.service.command.OrderCommandService;
-import com.brokerage.service.query.OrderQueryService;
+import com.brokerage.service.command.OrderCommandGateway;
+import com.brokerage.service.query.OrderExportFormat;
+import com.brokerage.service.query.OrderExportService;
+import com.brokerage.service.query.OrderPage;
+import com.brokerage.service.query.OrderReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -31,8 +37,9 @@ import java.util.List;
 @Tag(name = "Orders", description = "Order management API")
 public class OrderController {
 
-    private final OrderCommandService orderCommandService;
-    private final OrderQueryService orderQueryService;
+    private final OrderCommandGateway orderCommandGateway;
+    private final OrderReader orderReader;
+    private final OrderExportService orderExportService;
     private final OrderMapper orderMapper;
     private final CustomerHelper customerHelper;
 
@@ -46,14 +53,14 @@ public class OrderController {
         Long customerId = customerHelper.getCustomerIdFromUserDetails(userDetails);
         log.info("Creating order for customer ID: {}", customerId);
 
-        Order order = orderCommandService.createOrder(customerId, request);
+        Order order = orderCommandGateway.createOrder(customerId, request);
         OrderResponse response = orderMapper.toResponse(order);
 
         return ResponseEntity.ok(new ApiResponse<>(true, "Order created successfully", response));
     }
 
     @GetMapping
-    @Operation(summary = "List orders", description = "List orders with optional filters")
+    @Operation(summary = "List orders", description = "List orders page by page in creation order with optional filters; pass nextCursor to get the next page")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ApiResponse<OrderListResponse>> getOrders(
             @Valid OrderFilterRequest filter,
@@ -62,38 +69,52 @@ public class OrderController {
         Long customerId = customerHelper.getCustomerIdFromUserDetails(userDetails);
         log.info("Fetching orders for customer ID: {} with filters: {}", customerId, filter);
 
-        List<Order> orders;
-        if (filter.getStartDate() != null) {
-            if (filter.getOrderStatus() != null) {
-                orders = orderQueryService.getOrdersByCustomerIdAndStatusAndDateRange(
-                        customerId,
-                        filter.getOrderStatus(),
-                        filter.getStartDate(),
-                        filter.getEndDate());
-            } else {
-                orders = orderQueryService.getOrdersByCustomerIdAndDateRange(
-                        customerId,
-                        filter.getStartDate(),
-                        filter.getEndDate());
-            }
-        } else if (filter.getOrderStatus() != null) {
-            orders = orderQueryService.getOrdersByCustomerIdAndStatus(
-                    customerId,
-                    filter.getOrderStatus());
-        } else {
-            orders = orderQueryService.getOrdersByCustomerId(customerId);
-        }
-
-        List<OrderResponse> orderResponses = orderMapper.toResponseList(orders);
+        OrderPage page = orderReader.getOrderPage(
+                customerId,
+                filter.getOrderStatus(),
+                filter.getStartDate(),
+                filter.getEndDate(),
+                filter.getCursor(),
+                filter.getEffectiveLimit(),
+                filter.isIncludeCount());
+
+        List<OrderResponse> orderResponses = page.getOrders();
 
         OrderListResponse response = OrderListResponse.builder()
                 .orders(orderResponses)
                 .count(orderResponses.size())
+                .nextCursor(page.getNextCursor())
+                .totalCount(page.getTotalCount())
                 .build();
 
         return ResponseEntity.ok(new ApiResponse<>(true, "Orders retrieved successfully", response));
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export orders", description = "Stream all orders matching the filters as NDJSON or CSV")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Valid OrderFilterRequest filter,
+            @RequestParam(defaultValue = "NDJSON") OrderExportFormat format,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        Long customerId = customerHelper.getCustomerIdFromUserDetails(userDetails);
+        log.info("Exporting orders for customer ID: {} as {} with filters: {}", customerId, format, filter);
+
+        StreamingResponseBody body = out -> orderExportService.export(
+                customerId,
+                filter.getOrderStatus(),
+                filter.getStartDate(),
+                filter.getEndDate(),
+                format,
+                out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order", description = "Get order by ID")
     @PreAuthorize("hasRole('USER')")
@@ -104,8 +125,7 @@ public class OrderController {
         Long customerId = customerHelper.getCustomerIdFromUserDetails(userDetails);
         log.info("Fetching order ID: {} for customer ID: {}", orderId, customerId);
 
-        Order order = orderQueryService.getOrderByIdAndCustomerId(orderId, customerId);
-        OrderResponse response = orderMapper.toResponse(order);
+        OrderResponse response = orderReader.getOrderResponse(orderId, customerId);
 
         return ResponseEntity.ok(new ApiResponse<>(true, "Order retrieved successfully", response));
     }
@@ -120,7 +140,7 @@ public class OrderController {
         Long customerId = customerHelper.getCustomerIdFromUserDetails(userDetails);
         log.info("Cancelling order ID: {} for customer ID: {}", orderId, customerId);
 
-        Order order = orderCommandService.cancelOrder(orderId, customerId);
+        Order order = orderCommandGateway.cancelOrder(orderId, customerId);
         OrderResponse response = orderMapper.toResponse(order);
 
         return ResponseEntity.ok(new ApiResponse<>(true, "Order cancelled successfully", response));
@@ -0,0 +1,65 @@
+package com.brokerage.api.dto.request;
+
+import com.brokerage.domain.OrderStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMatchOrderRequest {
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private List<Long> orderIds;
+
+    private String assetName;
+
+    private String status;
+
+    @Min(value = 1, message = "Chunk size must be at least 1")
+    @Max(value = 5000, message = "Chunk size must be at most 5000")
+    private Integer chunkSize;
+
+    /**
+     * Validates that either explicit order ids or an asset filter is provided
+     */
+    @AssertTrue(message = "Either orderIds or assetName must be provided")
+    public boolean isValidSelection() {
+        return (orderIds != null && !orderIds.isEmpty()) || (assetName != null && !assetName.isBlank());
+    }
+
+    /**
+     * Validates that the status filter, if provided, selects open orders
+     */
+    @AssertTrue(message = "Status must be one of: PENDING, PARTIALLY_FILLED")
+    public boolean isValidStatus() {
+        if (status == null || status.isEmpty()) {
+            return true;
+        }
+
+        try {
+            return OrderStatus.valueOf(status).isOpen();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Statuses to select when filtering by asset, defaulting to all open statuses
+     */
+    public List<OrderStatus> getOrderStatuses() {
+        return status != null && !status.isEmpty() ? List.of(OrderStatus.valueOf(status)) : OrderStatus.OPEN_STATUSES;
+    }
+
+    public int getEffectiveChunkSize() {
+        return chunkSize != null ? chunkSize : DEFAULT_CHUNK_SIZE;
+    }
+}
@@ -3,6 +3,8 @@ package com.brokerage.api.dto.request;
 import com.brokerage.domain.OrderStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +18,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderFilterRequest {
+    private static final int DEFAULT_LIMIT = 50;
 
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
@@ -27,6 +30,17 @@ public class OrderFilterRequest {
 
     private String status;
 
+    /**
+     * Opaque cursor from the previous page's nextCursor
+     */
+    private String cursor;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 500, message = "Limit must be at most 500")
+    private Integer limit;
+
+    private boolean includeCount;
+
     /**
      * Validates that if one date is provided, both are provided
      * and that startDate is before endDate
@@ -47,7 +61,7 @@ public class OrderFilterRequest {
     /**
      * Validates that the status value is valid if provided
      */
-    @AssertTrue(message = "Status must be one of: PENDING, MATCHED, CANCELED")
+    @AssertTrue(message = "Status must be one of: PENDING, PARTIALLY_FILLED, MATCHED, CANCELED")
     public boolean isValidStatus() {
         if (status == null || status.isEmpty()) {
             return true;
@@ -67,4 +81,8 @@ public class OrderFilterRequest {
     public OrderStatus getOrderStatus() {
         return status != null && !status.isEmpty() ? OrderStatus.valueOf(status) : null;
     }
+
+    public int getEffectiveLimit() {
+        return limit != null ? limit : DEFAULT_LIMIT;
+    }
 }
\ No newline at end of file
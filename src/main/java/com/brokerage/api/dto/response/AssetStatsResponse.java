@@ -0,0 +1,27 @@
+package com.brokerage.api.dto.response;
+
+import com.brokerage.service.stats.CandleInterval;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetStatsResponse {
+    private String assetName;
+    private long tradeCount;
+    private BigDecimal volume;
+    private BigDecimal vwap;
+    private BigDecimal lastPrice;
+    private boolean lastPriceApproximate;
+    private long pendingBuyOrders;
+    private long pendingSellOrders;
+    private CandleInterval interval;
+    private List<CandleResponse> candles;
+}
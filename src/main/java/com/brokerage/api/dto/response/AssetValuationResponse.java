@@ -0,0 +1,22 @@
+package com.brokerage.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetValuationResponse {
+    private String assetName;
+    private BigDecimal size;
+    private BigDecimal usableSize;
+    private BigDecimal price;
+    private BigDecimal value;
+    private boolean priced;
+    private boolean approximatePrice;
+}
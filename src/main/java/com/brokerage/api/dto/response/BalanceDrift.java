@@ -0,0 +1,22 @@
+package com.brokerage.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceDrift {
+    private Long customerId;
+    private String assetName;
+    private BigDecimal size;
+    private BigDecimal usableSize;
+    private BigDecimal reservedSize;
+    private BigDecimal expectedUsableSize;
+    private boolean repaired;
+}
@@ -0,0 +1,22 @@
+package com.brokerage.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMatchResponse {
+    private int requested;
+    private int matched;
+    private int failed;
+    private int chunks;
+    private long elapsedMillis;
+    private double ordersPerSecond;
+    private List<BatchMatchResult> results;
+}
@@ -0,0 +1,24 @@
+package com.brokerage.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMatchResult {
+    private Long orderId;
+    private boolean success;
+    private String message;
+
+    public static BatchMatchResult failure(Long orderId, String message) {
+        return BatchMatchResult.builder()
+                .orderId(orderId)
+                .success(false)
+                .message(message)
+                .build();
+    }
+}
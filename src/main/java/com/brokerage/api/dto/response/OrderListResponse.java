@@ -14,4 +14,6 @@ import java.util.List;
 public class OrderListResponse {
     private List<OrderResponse> orders;
     private int count;
+    private String nextCursor;
+    private Long totalCount;
 }
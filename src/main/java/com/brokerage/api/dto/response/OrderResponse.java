@@ -21,6 +21,9 @@ public class OrderResponse {
     private OrderSide orderSide;
     private BigDecimal size;
     private BigDecimal price;
+    private BigDecimal filledSize;
+    private BigDecimal remainingSize;
+    private BigDecimal averageFillPrice;
     private OrderStatus status;
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
@@ -0,0 +1,22 @@
+package com.brokerage.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxDeadLetterResponse {
+    private Long id;
+    private String eventId;
+    private String eventType;
+    private String topic;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime deadLetteredAt;
+}
@@ -0,0 +1,25 @@
+package com.brokerage.api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuationResponse {
+    private List<AssetValuationResponse> assets;
+    private BigDecimal totalValue;
+    private int unpricedAssets;
+    private int approximatelyPricedAssets;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime valuedAt;
+}
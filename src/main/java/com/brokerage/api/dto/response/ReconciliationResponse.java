@@ -0,0 +1,22 @@
+package com.brokerage.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationResponse {
+    private int customerRanges;
+    private long assetsChecked;
+    private long openOrders;
+    private long drifted;
+    private long repaired;
+    private long elapsedMillis;
+    private List<BalanceDrift> drifts;
+}
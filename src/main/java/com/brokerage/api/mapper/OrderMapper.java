@@ -7,17 +7,21 @@ import com.brokerage.domain.Order;
 import com.brokerage.domain.OrderStatus;
 import org.mapstruct.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper(componentModel = "spring", 
         unmappedTargetPolicy = ReportingPolicy.IGNORE,
-        imports = {OrderStatus.class, LocalDateTime.class})
+        imports = {OrderStatus.class, LocalDateTime.class, BigDecimal.class})
 public interface OrderMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "customer", source = "customer")
     @Mapping(target = "status", expression = "java(OrderStatus.PENDING)")
+    @Mapping(target = "filledSize", expression = "java(BigDecimal.ZERO)")
+    @Mapping(target = "remainingSize", source = "request.size")
+    @Mapping(target = "averageFillPrice", ignore = true)
     @Mapping(target = "createDate", expression = "java(LocalDateTime.now())")
     @Mapping(target = "updateDate", ignore = true)
     Order toEntity(CreateOrderRequest request, Customer customer);
@@ -27,6 +31,9 @@ public interface OrderMapper {
     @Mapping(target = "orderSide", source = "orderSide")
     @Mapping(target = "size", source = "size")
     @Mapping(target = "price", source = "price")
+    @Mapping(target = "filledSize", source = "filledSize")
+    @Mapping(target = "remainingSize", source = "remainingSize")
+    @Mapping(target = "averageFillPrice", source = "averageFillPrice")
     @Mapping(target = "status", source = "status")
     @Mapping(target = "createDate", source = "createDate")
     @Mapping(target = "updateDate", source = "updateDate")
@@ -0,0 +1,14 @@
+package com.brokerage.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine caches, bounded by spring.cache.caffeine.spec and reported under the cache.* metrics
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ORDERS = "orders";
+}
@@ -1,10 +1,18 @@
 package com.brokerage.config;
 
+import com.brokerage.event.Event;
+import com.brokerage.event.EventCodec;
+import com.brokerage.event.EventSerializer;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
 
 @Configuration
 public class KafkaConfig {
@@ -12,11 +20,36 @@ public class KafkaConfig {
     @Value("${brokerage.order.events.topic}")
     private String orderEventsTopic;
 
+    @Value("${brokerage.order.events.partitions:3}")
+    private int orderEventsPartitions;
+
+    @Value("${brokerage.order.events.replicas:1}")
+    private int orderEventsReplicas;
+
+    /**
+     * Order events topic. The partition count bounds how many consumer threads of a group share the topic;
+     * it can be raised on an existing topic but not lowered, and raising it moves keys to other partitions,
+     * so events published around the change may be consumed out of order.
+     */
     @Bean
     public NewTopic orderEventsTopic() {
         return TopicBuilder.name(orderEventsTopic)
-                .partitions(3)
-                .replicas(1)
+                .partitions(orderEventsPartitions)
+                .replicas(orderEventsReplicas)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Producer for events, with values written by the {@link EventCodec} in brokerage.order.events.format
+     */
+    @Bean
+    public ProducerFactory<String, Event> producerFactory(KafkaProperties kafkaProperties, EventCodec eventCodec) {
+        return new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(null),
+                new StringSerializer(), new EventSerializer(eventCodec));
+    }
+
+    @Bean
+    public KafkaTemplate<String, Event> kafkaTemplate(ProducerFactory<String, Event> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+}
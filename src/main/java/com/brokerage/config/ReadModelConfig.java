@@ -0,0 +1,30 @@
+package com.brokerage.config;
+
+import com.brokerage.event.PartitionedEventContainerFactory;
+import com.brokerage.service.readmodel.OrderEventProjector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+
+import java.util.UUID;
+
+/**
+ * Consumer for the order read model. Every instance joins its own group and starts from the
+ * earliest offset, so it receives all partitions and rebuilds the full model on startup, with
+ * one consumer thread per partition up to the configured concurrency.
+ */
+@Configuration
+@ConditionalOnProperty(name = "brokerage.read-model.enabled", havingValue = "true")
+public class ReadModelConfig {
+
+    @Bean
+    public ConcurrentMessageListenerContainer<String, byte[]> readModelListenerContainer(
+            PartitionedEventContainerFactory containerFactory,
+            OrderEventProjector projector,
+            @Value("${brokerage.read-model.group-id-prefix:brokerage-read-model}") String groupIdPrefix,
+            @Value("${brokerage.read-model.concurrency:3}") int concurrency) {
+        return containerFactory.create(groupIdPrefix + "-" + UUID.randomUUID(), "earliest", concurrency, projector);
+    }
+}
@@ -0,0 +1,15 @@
+package com.brokerage.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled jobs: outbox relay and purge, ledger flush and snapshot, and order archiving.
+ *
+ * They share Spring Boot's scheduler, sized by spring.task.scheduling.pool.size to give each job its
+ * own thread. The default single thread would let a relay blocked on Kafka stall the ledger write-behind.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
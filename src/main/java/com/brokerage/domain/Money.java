@@ -0,0 +1,128 @@
+package com.brokerage.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amount with four decimal places stored as a scaled long, matching the decimal(19,4) columns.
+ *
+ * Used for sizes, prices and balances on the matching and settlement paths, where it replaces
+ * BigDecimal arithmetic with long arithmetic. Values are converted from and to BigDecimal only
+ * at the API and persistence boundaries. Arithmetic throws {@link ArithmeticException} on overflow.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 4;
+    public static final Money ZERO = new Money(0);
+
+    private static final long UNITS_PER_WHOLE = 10_000L;
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    /**
+     * Converts a decimal, rounding half up to four decimal places
+     */
+    public static Money of(BigDecimal value) {
+        return ofUnits(value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public static Money of(long wholeUnits) {
+        return ofUnits(Math.multiplyExact(wholeUnits, UNITS_PER_WHOLE));
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    /**
+     * The amount in ten-thousandths
+     */
+    public long units() {
+        return units;
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Money negate() {
+        return ofUnits(Math.negateExact(units));
+    }
+
+    /**
+     * Multiplies two amounts, e.g. size by price, rounding half up to four decimal places
+     */
+    public Money times(Money other) {
+        return ofUnits(multiplyUnits(units, other.units));
+    }
+
+    public Money min(Money other) {
+        return units <= other.units ? this : other;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public boolean isZero() {
+        return units == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Multiplies two scaled values, falling back to exact arithmetic when the intermediate
+     * product does not fit in a long and failing only if the result does not
+     */
+    public static long multiplyUnits(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideRoundingHalfUp(low);
+        }
+        return BigDecimal.valueOf(a, SCALE)
+                .multiply(BigDecimal.valueOf(b, SCALE))
+                .setScale(SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    private static long divideRoundingHalfUp(long scaledProduct) {
+        long quotient = scaledProduct / UNITS_PER_WHOLE;
+        long remainder = scaledProduct % UNITS_PER_WHOLE;
+        if (Math.abs(remainder) * 2 >= UNITS_PER_WHOLE) {
+            quotient += Long.signum(scaledProduct);
+        }
+        return quotient;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof Money money && units == money.units);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.brokerage.domain;
 
+import com.brokerage.journal.ReplayContext;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 @Entity
@@ -38,6 +40,15 @@ public class Order {
     @Column(nullable = false)
     private BigDecimal price;
 
+    @Builder.Default
+    @Column(nullable = false)
+    private BigDecimal filledSize = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private BigDecimal remainingSize;
+
+    private BigDecimal averageFillPrice;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OrderStatus status;
@@ -47,13 +58,42 @@ public class Order {
 
     private LocalDateTime updateDate;
 
+    @Version
+    private Long version;
+
+    /**
+     * Records an execution of part or all of the remaining size and updates the status accordingly
+     */
+    public void applyFill(BigDecimal fillSize, BigDecimal fillPrice) {
+        if (fillSize.signum() <= 0 || fillSize.compareTo(remainingSize) > 0) {
+            throw new IllegalArgumentException("Fill size " + fillSize + " exceeds remaining size " + remainingSize);
+        }
+
+        BigDecimal previousNotional = averageFillPrice == null
+                ? BigDecimal.ZERO
+                : averageFillPrice.multiply(filledSize);
+        BigDecimal newFilledSize = filledSize.add(fillSize);
+
+        this.averageFillPrice = previousNotional.add(fillSize.multiply(fillPrice))
+                .divide(newFilledSize, 4, RoundingMode.HALF_UP);
+        this.filledSize = newFilledSize;
+        this.remainingSize = remainingSize.subtract(fillSize);
+        this.status = remainingSize.signum() == 0 ? OrderStatus.MATCHED : OrderStatus.PARTIALLY_FILLED;
+    }
+
     @PrePersist
     protected void onCreate() {
-        this.createDate = LocalDateTime.now();
+        this.createDate = ReplayContext.now();
+        if (this.filledSize == null) {
+            this.filledSize = BigDecimal.ZERO;
+        }
+        if (this.remainingSize == null) {
+            this.remainingSize = this.size.subtract(this.filledSize);
+        }
     }
 
     @PreUpdate
     protected void onUpdate() {
-        this.updateDate = LocalDateTime.now();
+        this.updateDate = ReplayContext.now();
     }
 }
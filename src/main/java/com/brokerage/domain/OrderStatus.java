@@ -1,5 +1,16 @@
 package com.brokerage.domain;
 
+import java.util.List;
+
 public enum OrderStatus {
-    PENDING, MATCHED, CANCELED
+    PENDING, PARTIALLY_FILLED, MATCHED, CANCELED;
+
+    /**
+     * Statuses of orders that still rest in the book and hold reserved assets
+     */
+    public static final List<OrderStatus> OPEN_STATUSES = List.of(PENDING, PARTIALLY_FILLED);
+
+    public boolean isOpen() {
+        return OPEN_STATUSES.contains(this);
+    }
 }
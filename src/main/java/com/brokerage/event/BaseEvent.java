@@ -15,6 +15,14 @@ public abstract class BaseEvent implements Event {
         this.timestamp = LocalDateTime.now();
     }
 
+    /**
+     * Restores the identity of an event read back by the {@link EventCodec}
+     */
+    protected BaseEvent(String eventId, LocalDateTime timestamp) {
+        this.eventId = eventId;
+        this.timestamp = timestamp;
+    }
+
     @Override
     public String getEventId() {
         return eventId;
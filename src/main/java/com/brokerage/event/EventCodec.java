@@ -0,0 +1,221 @@
+package com.brokerage.event;
+
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Encodes events for the outbox and the order events topic, in the configured format.
+ *
+ * A binary payload is laid out as {@code [version][type id][event id][timestamp][fields]}: the event id as
+ * the two longs of its UUID, the timestamp as UTC epoch seconds and nanos, then the order fields of the
+ * type in declaration order. Decimals are written as the length and bytes of the unscaled value followed
+ * by the scale, a zero length for null, and enums by ordinal, so new constants must only be appended. A change to the layout needs a new version, and decoding keeps
+ * accepting the old ones. Either format is recognized on decode, since a JSON payload starts with a brace.
+ */
+@Component
+public class EventCodec {
+
+    static final byte VERSION = 1;
+    private static final byte JSON_START = '{';
+    private static final byte NULL_ENUM = -1;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader jsonReader;
+    private final EventFormat format;
+
+    public EventCodec(ObjectMapper objectMapper,
+                      @Value("${brokerage.order.events.format:BINARY}") EventFormat format) {
+        this.objectMapper = objectMapper;
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.format = format;
+    }
+
+    public EventFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Encodes an event in the configured format
+     */
+    public byte[] encode(Event event) {
+        return encode(event, format);
+    }
+
+    public byte[] encode(Event event, EventFormat format) {
+        try {
+            return format == EventFormat.JSON ? objectMapper.writeValueAsBytes(event) : encodeBinary(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode event: " + event.getEventId(), e);
+        }
+    }
+
+    /**
+     * Decodes an event from a payload in either format
+     *
+     * @throws IllegalArgumentException if the payload has an unknown version or event type
+     */
+    public Event decode(byte[] payload) {
+        try {
+            return payload.length > 0 && payload[0] == JSON_START ? decodeJson(payload) : decodeBinary(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode event payload of " + payload.length + " bytes", e);
+        }
+    }
+
+    /**
+     * Returns a stored payload in the configured format, re-encoding it only if it was written in another one
+     */
+    public byte[] transcode(byte[] payload, EventFormat payloadFormat) {
+        return payloadFormat == format ? payload : encode(decode(payload));
+    }
+
+    private byte[] encodeBinary(Event event) throws IOException {
+        EventType type = EventType.fromName(event.getEventType());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(type.getId());
+            UUID eventId = UUID.fromString(event.getEventId());
+            out.writeLong(eventId.getMostSignificantBits());
+            out.writeLong(eventId.getLeastSignificantBits());
+            out.writeLong(event.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(event.getTimestamp().getNano());
+            switch (type) {
+                case ORDER_CREATED -> {
+                    OrderCreatedEvent created = (OrderCreatedEvent) event;
+                    writeOrder(out, created.getOrderId(), created.getCustomerId(), created.getAssetName(),
+                            created.getOrderSide(), created.getSize(), created.getPrice());
+                }
+                case ORDER_CANCELLED -> {
+                    OrderCancelledEvent cancelled = (OrderCancelledEvent) event;
+                    writeOrder(out, cancelled.getOrderId(), cancelled.getCustomerId(), cancelled.getAssetName(),
+                            cancelled.getOrderSide(), cancelled.getSize(), cancelled.getPrice());
+                }
+                case ORDER_MATCHED -> {
+                    OrderMatchedEvent matched = (OrderMatchedEvent) event;
+                    writeOrder(out, matched.getOrderId(), matched.getCustomerId(), matched.getAssetName(),
+                            matched.getOrderSide(), matched.getSize(), matched.getPrice());
+                    writeDecimal(out, matched.getTotalValue());
+                    writeDecimal(out, matched.getRemainingSize());
+                    writeEnum(out, matched.getStatus());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private Event decodeBinary(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported event payload version: " + version);
+            }
+            EventType type = EventType.fromId(in.readByte());
+            String eventId = new UUID(in.readLong(), in.readLong()).toString();
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            Long orderId = in.readLong();
+            Long customerId = in.readLong();
+            String assetName = in.readUTF();
+            OrderSide orderSide = readEnum(in, OrderSide.values());
+            BigDecimal size = readDecimal(in);
+            BigDecimal price = readDecimal(in);
+            return switch (type) {
+                case ORDER_CREATED -> new OrderCreatedEvent(eventId, timestamp, orderId, customerId, assetName,
+                        orderSide, size, price);
+                case ORDER_CANCELLED -> new OrderCancelledEvent(eventId, timestamp, orderId, customerId, assetName,
+                        orderSide, size, price);
+                case ORDER_MATCHED -> new OrderMatchedEvent(eventId, timestamp, orderId, customerId, assetName,
+                        orderSide, size, price, readDecimal(in), readDecimal(in), readEnum(in, OrderStatus.values()));
+            };
+        }
+    }
+
+    private Event decodeJson(byte[] payload) throws IOException {
+        JsonNode node = jsonReader.readTree(payload);
+        EventType type = EventType.fromName(node.path("eventType").asText());
+        String eventId = node.path("eventId").asText();
+        LocalDateTime timestamp = objectMapper.treeToValue(node.get("timestamp"), LocalDateTime.class);
+        Long orderId = node.hasNonNull("orderId") ? node.get("orderId").asLong() : null;
+        Long customerId = node.hasNonNull("customerId") ? node.get("customerId").asLong() : null;
+        String assetName = node.hasNonNull("assetName") ? node.get("assetName").asText() : null;
+        OrderSide orderSide = node.hasNonNull("orderSide") ? OrderSide.valueOf(node.get("orderSide").asText()) : null;
+        return switch (type) {
+            case ORDER_CREATED -> new OrderCreatedEvent(eventId, timestamp, orderId, customerId, assetName,
+                    orderSide, decimal(node, "size"), decimal(node, "price"));
+            case ORDER_CANCELLED -> new OrderCancelledEvent(eventId, timestamp, orderId, customerId, assetName,
+                    orderSide, decimal(node, "size"), decimal(node, "price"));
+            case ORDER_MATCHED -> new OrderMatchedEvent(eventId, timestamp, orderId, customerId, assetName,
+                    orderSide, decimal(node, "size"), decimal(node, "price"),
+                    decimal(node, "totalValue"), decimal(node, "remainingSize"),
+                    node.hasNonNull("status") ? OrderStatus.valueOf(node.get("status").asText()) : null);
+        };
+    }
+
+    private static void writeOrder(DataOutputStream out, Long orderId, Long customerId, String assetName,
+                                   OrderSide orderSide, BigDecimal size, BigDecimal price) throws IOException {
+        out.writeLong(orderId);
+        out.writeLong(customerId);
+        out.writeUTF(assetName);
+        writeEnum(out, orderSide);
+        writeDecimal(out, size);
+        writeDecimal(out, price);
+    }
+
+    /**
+     * Writes {@code [length][unscaled bytes][scale]}, with a zero length for null
+     */
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > Byte.MAX_VALUE || value.scale() != (byte) value.scale()) {
+            throw new IllegalArgumentException("Decimal out of range for event payload: " + value);
+        }
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+        out.writeByte(value.scale());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int length = in.readByte();
+        if (length == 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readByte());
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        out.writeByte(value != null ? value.ordinal() : NULL_ENUM);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        byte ordinal = in.readByte();
+        return ordinal == NULL_ENUM ? null : values[ordinal];
+    }
+
+    private static BigDecimal decimal(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).decimalValue() : null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.brokerage.event;
+
+/**
+ * Wire and outbox format of events
+ */
+public enum EventFormat {
+    /** Versioned binary layout written by the {@link EventCodec} */
+    BINARY,
+    /** JSON as written by the application's ObjectMapper */
+    JSON
+}
@@ -0,0 +1,29 @@
+package com.brokerage.event;
+
+/**
+ * How order events are keyed on the topic. Kafka assigns records with the same key to the same
+ * partition, so the key decides which events keep their relative order and can be consumed on one thread.
+ */
+public enum EventKeyStrategy {
+    /** All events of a customer in order, the default since balances are per customer */
+    CUSTOMER,
+    /** Events of each order in order, spreads a busy customer over partitions */
+    ORDER,
+    /** Events of each order book in order, concentrates load on busy assets */
+    ASSET;
+
+    /**
+     * Record key for an event, falling back to the event id for events without the keyed field
+     */
+    public String keyOf(Event event) {
+        Object key = null;
+        if (event instanceof OrderEvent orderEvent) {
+            key = switch (this) {
+                case CUSTOMER -> orderEvent.getCustomerId();
+                case ORDER -> orderEvent.getOrderId();
+                case ASSET -> orderEvent.getAssetName();
+            };
+        }
+        return key != null ? key.toString() : event.getEventId();
+    }
+}
@@ -16,9 +16,12 @@ public class EventPublisher {
     @Value("${brokerage.order.events.topic}")
     private String orderEventsTopic;
 
+    @Value("${brokerage.order.events.key:CUSTOMER}")
+    private EventKeyStrategy keyStrategy;
+
     public void publishOrderEvent(Event event) {
         try {
-            kafkaTemplate.send(orderEventsTopic, event.getEventId(), event);
+            kafkaTemplate.send(orderEventsTopic, keyStrategy.keyOf(event), event);
             log.info("Published event: {}, type: {}", event.getEventId(), event.getEventType());
         } catch (Exception e) {
             log.error("Failed to publish event: {}", event.getEventId(), e);
@@ -0,0 +1,27 @@
+package com.brokerage.event;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer for events in the format of the {@link EventCodec}. Events relayed from the
+ * outbox are sent as stored, unless they were stored in another format than the one configured.
+ */
+public class EventSerializer implements Serializer<Event> {
+
+    private final EventCodec codec;
+
+    public EventSerializer(EventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Event event) {
+        if (event == null) {
+            return null;
+        }
+        if (event instanceof StoredEvent stored) {
+            return codec.transcode(stored.getPayload(), stored.getFormat());
+        }
+        return codec.encode(event);
+    }
+}
@@ -0,0 +1,42 @@
+package com.brokerage.event;
+
+/**
+ * Registry of the event types that can be encoded, with the id written in binary payloads.
+ * Ids are part of the wire format and must never be reused or renumbered.
+ */
+public enum EventType {
+    ORDER_CREATED(1),
+    ORDER_CANCELLED(2),
+    ORDER_MATCHED(3);
+
+    private final byte id;
+
+    EventType(int id) {
+        this.id = (byte) id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    public static EventType fromId(byte id) {
+        for (EventType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event type id: " + id);
+    }
+
+    /**
+     * Looks up the type of an event by its {@link Event#getEventType()} name
+     */
+    public static EventType fromName(String name) {
+        for (EventType type : values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event type: " + name);
+    }
+}
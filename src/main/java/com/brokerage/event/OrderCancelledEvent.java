@@ -7,10 +7,11 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
-public class OrderCancelledEvent extends BaseEvent {
+public class OrderCancelledEvent extends BaseEvent implements OrderEvent {
     private final Long orderId;
     private final Long customerId;
     private final String assetName;
@@ -30,6 +31,17 @@ public class OrderCancelledEvent extends BaseEvent {
         this.price = price;
     }
 
+    OrderCancelledEvent(String eventId, LocalDateTime timestamp, Long orderId, Long customerId, String assetName,
+                        OrderSide orderSide, BigDecimal size, BigDecimal price) {
+        super(eventId, timestamp);
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.assetName = assetName;
+        this.orderSide = orderSide;
+        this.size = size;
+        this.price = price;
+    }
+
     public static OrderCancelledEvent fromOrder(Order order) {
         return OrderCancelledEvent.builder()
                 .orderId(order.getId())
@@ -7,10 +7,11 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
-public class OrderCreatedEvent extends BaseEvent {
+public class OrderCreatedEvent extends BaseEvent implements OrderEvent {
     private final Long orderId;
     private final Long customerId;
     private final String assetName;
@@ -30,6 +31,17 @@ public class OrderCreatedEvent extends BaseEvent {
         this.price = price;
     }
 
+    OrderCreatedEvent(String eventId, LocalDateTime timestamp, Long orderId, Long customerId, String assetName,
+                      OrderSide orderSide, BigDecimal size, BigDecimal price) {
+        super(eventId, timestamp);
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.assetName = assetName;
+        this.orderSide = orderSide;
+        this.size = size;
+        this.price = price;
+    }
+
     public static OrderCreatedEvent fromOrder(Order order) {
         return OrderCreatedEvent.builder()
                 .orderId(order.getId())
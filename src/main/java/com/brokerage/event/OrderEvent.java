@@ -0,0 +1,10 @@
+package com.brokerage.event;
+
+/**
+ * An event about a single order, keyed by the order and its customer
+ */
+public interface OrderEvent extends Event {
+    Long getOrderId();
+    Long getCustomerId();
+    String getAssetName();
+}
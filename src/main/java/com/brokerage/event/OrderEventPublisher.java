@@ -0,0 +1,13 @@
+package com.brokerage.event;
+
+/**
+ * Publishes order events to the order events topic, through the transactional outbox by default
+ * or directly to Kafka when the outbox is switched off
+ */
+public interface OrderEventPublisher {
+
+    /**
+     * Publishes an order event as part of the current order change
+     */
+    void publishOrderEvent(Event event);
+}
@@ -2,15 +2,17 @@ package com.brokerage.event;
 
 import com.brokerage.domain.Order;
 import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
-public class OrderMatchedEvent extends BaseEvent {
+public class OrderMatchedEvent extends BaseEvent implements OrderEvent {
     private final Long orderId;
     private final Long customerId;
     private final String assetName;
@@ -18,11 +20,13 @@ public class OrderMatchedEvent extends BaseEvent {
     private final BigDecimal size;
     private final BigDecimal price;
     private final BigDecimal totalValue;
+    private final BigDecimal remainingSize;
+    private final OrderStatus status;
 
     @Builder
     public OrderMatchedEvent(Long orderId, Long customerId, String assetName, 
                              OrderSide orderSide, BigDecimal size, BigDecimal price,
-                             BigDecimal totalValue) {
+                             BigDecimal totalValue, BigDecimal remainingSize, OrderStatus status) {
         super();
         this.orderId = orderId;
         this.customerId = customerId;
@@ -31,17 +35,44 @@ public class OrderMatchedEvent extends BaseEvent {
         this.size = size;
         this.price = price;
         this.totalValue = totalValue;
+        this.remainingSize = remainingSize;
+        this.status = status;
+    }
+
+    OrderMatchedEvent(String eventId, LocalDateTime timestamp, Long orderId, Long customerId, String assetName,
+                      OrderSide orderSide, BigDecimal size, BigDecimal price,
+                      BigDecimal totalValue, BigDecimal remainingSize, OrderStatus status) {
+        super(eventId, timestamp);
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.assetName = assetName;
+        this.orderSide = orderSide;
+        this.size = size;
+        this.price = price;
+        this.totalValue = totalValue;
+        this.remainingSize = remainingSize;
+        this.status = status;
     }
 
     public static OrderMatchedEvent fromOrder(Order order) {
+        return fromFill(order, order.getSize(), order.getPrice());
+    }
+
+    /**
+     * Builds the event for a single execution of an order; size and price describe the fill,
+     * while remaining size and status describe the order after it
+     */
+    public static OrderMatchedEvent fromFill(Order order, BigDecimal fillSize, BigDecimal fillPrice) {
         return OrderMatchedEvent.builder()
                 .orderId(order.getId())
                 .customerId(order.getCustomer().getId())
                 .assetName(order.getAssetName())
                 .orderSide(order.getOrderSide())
-                .size(order.getSize())
-                .price(order.getPrice())
-                .totalValue(order.getSize().multiply(order.getPrice()))
+                .size(fillSize)
+                .price(fillPrice)
+                .totalValue(fillSize.multiply(fillPrice))
+                .remainingSize(order.getRemainingSize())
+                .status(order.getStatus())
                 .build();
     }
 
@@ -0,0 +1,112 @@
+package com.brokerage.event;
+
+import com.brokerage.api.dto.response.OutboxDeadLetterResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC access to outbox events that exhausted their attempts. Rows are moved between the outbox and
+ * the dead-letter table with one INSERT...SELECT and one DELETE in a single transaction, so an event
+ * is always in exactly one of them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDeadLetterStore {
+
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO outbox_dead_letters (event_id, event_type, topic, message_key, format, payload, payload_bytes, " +
+            "attempts, created_at, dead_lettered_at) SELECT event_id, event_type, topic, message_key, format, payload, " +
+            "payload_bytes, attempts + 1, created_at, ? FROM outbox_events WHERE id IN (%s)";
+    private static final String DELETE_OUTBOX_SQL = "DELETE FROM outbox_events WHERE id IN (%s)";
+    private static final String REQUEUE_SQL =
+            "INSERT INTO outbox_events (event_id, event_type, topic, message_key, format, payload, payload_bytes, " +
+            "attempts, processed, created_at, next_attempt_at) SELECT event_id, event_type, topic, message_key, " +
+            "format, payload, payload_bytes, 0, FALSE, created_at, ? FROM outbox_dead_letters";
+    private static final String DELETE_DEAD_LETTERS_SQL = "DELETE FROM outbox_dead_letters";
+    private static final String FIND_SQL =
+            "SELECT id, event_id, event_type, topic, attempts, created_at, dead_lettered_at " +
+            "FROM outbox_dead_letters ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves outbox rows to the dead-letter table, counting the attempt that just failed
+     */
+    @Transactional
+    public int deadLetter(List<Long> outboxIds) {
+        if (outboxIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(outboxIds.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(outboxIds);
+        int moved = jdbcTemplate.update(String.format(DEAD_LETTER_SQL, placeholders(outboxIds.size())), args.toArray());
+        jdbcTemplate.update(String.format(DELETE_OUTBOX_SQL, placeholders(outboxIds.size())), outboxIds.toArray());
+        log.warn("Moved {} outbox events to the dead-letter table", moved);
+        return moved;
+    }
+
+    /**
+     * Moves the given dead letters back to the outbox with their attempts reset, due immediately
+     *
+     * @param ids the dead letters to requeue, never empty
+     * @return the number of events requeued
+     */
+    @Transactional
+    public int requeue(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Dead letter ids are required");
+        }
+        return move(String.format(" WHERE id IN (%s)", placeholders(ids.size())), ids);
+    }
+
+    /**
+     * Moves every dead letter back to the outbox with its attempts reset, due immediately
+     *
+     * @return the number of events requeued
+     */
+    @Transactional
+    public int requeueAll() {
+        return move("", List.of());
+    }
+
+    private int move(String filter, List<Long> ids) {
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+        int requeued = jdbcTemplate.update(REQUEUE_SQL + filter, args.toArray());
+        jdbcTemplate.update(DELETE_DEAD_LETTERS_SQL + filter, ids.toArray());
+        log.info("Requeued {} dead-lettered outbox events", requeued);
+        return requeued;
+    }
+
+    /**
+     * Lists dead letters oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<OutboxDeadLetterResponse> findAll(int limit) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> OutboxDeadLetterResponse.builder()
+                .id(rs.getLong("id"))
+                .eventId(rs.getString("event_id"))
+                .eventType(rs.getString("event_type"))
+                .topic(rs.getString("topic"))
+                .attempts(rs.getInt("attempts"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .deadLetteredAt(rs.getTimestamp("dead_lettered_at").toLocalDateTime())
+                .build(), limit);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -30,9 +30,20 @@ public class OutboxEvent {
     @Column(nullable = false)
     private String topic;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EventFormat format;
+
+    @Column(columnDefinition = "TEXT")
     private String payload;
 
+    @Lob
+    @Column(name = "payload_bytes")
+    private byte[] payloadBytes;
+
     @Column(nullable = false)
     private int attempts;
 
@@ -45,6 +56,9 @@ public class OutboxEvent {
     @Column
     private LocalDateTime processedAt;
 
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
     public void incrementAttempts() {
         this.attempts += 1;
     }
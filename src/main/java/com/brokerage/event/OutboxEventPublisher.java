@@ -0,0 +1,33 @@
+package com.brokerage.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes order events to the outbox in the transaction that changes the order, leaving the send to
+ * the outbox relay. Order latency does not depend on the broker, and events of rolled back orders
+ * are never published.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "brokerage.outbox.transactional", havingValue = "true", matchIfMissing = true)
+public class OutboxEventPublisher implements OrderEventPublisher {
+
+    private final OutboxService outboxService;
+
+    @Value("${brokerage.order.events.topic}")
+    private String orderEventsTopic;
+
+    @Value("${brokerage.order.events.key:CUSTOMER}")
+    private EventKeyStrategy keyStrategy;
+
+    @Override
+    public void publishOrderEvent(Event event) {
+        outboxService.enqueue(orderEventsTopic, keyStrategy.keyOf(event), event);
+        log.debug("Enqueued event: {}, type: {}", event.getEventId(), event.getEventType());
+    }
+}
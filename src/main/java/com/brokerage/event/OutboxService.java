@@ -1,47 +1,167 @@
 package com.brokerage.event;
 
-import com.brokerage.repository.OutboxRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.brokerage.api.dto.response.OutboxDeadLetterResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Holds order events in the outbox table and relays them to Kafka.
+ *
+ * Events are normally appended by {@link #enqueue} in the transaction of the order change they describe;
+ * with the transactional outbox switched off only events that could not be sent directly are stored.
+ *
+ * The relay reads bounded batches of pending rows through the pending index, sends the whole batch
+ * without waiting in between and then awaits all broker acknowledgements together. Payloads are stored
+ * in the configured {@link EventFormat}, JSON in the payload column and binary in payload_bytes, and sent
+ * as stored, so rows are only decoded if the format was changed since they were written. Rows are marked
+ * processed with one UPDATE only after their send was acknowledged. Rows whose send failed or timed
+ * out are rescheduled with exponential backoff through next_attempt_at, and the relay only reads rows
+ * that are due, so a failing event does not crowd out the others. Rows that exhaust their attempts move
+ * to the dead-letter table until they are requeued. A crash between the acknowledgement and the UPDATE
+ * re-sends the row, so delivery is at least once.
+ *
+ * Rows are sent with the record key they were stored with, so they land on the same partition as events
+ * sent directly, and events of one key are relayed in commit order. Enqueued events are inserted just before
+ * their transaction commits, in key order, taking the next numbers of each key from outbox_key_sequences; the
+ * key's row stays locked until commit, so a key's sequence numbers and row ids both follow commit order even
+ * when its events come from different command lanes. The relay sends a batch in id order and skips every
+ * event that has an earlier failed event of the same key, so a rescheduled event is not overtaken. When a
+ * send fails, the later events of its key in the batch are left pending without an attempt counted, to be
+ * sent again after it; they may then be delivered twice.
+ */
 @Slf4j
 @Service
 public class OutboxService {
 
-    private final OutboxRepository outboxRepository;
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_id, event_type, topic, message_key, key_sequence, format, payload, " +
+            "payload_bytes, attempts, processed, created_at, next_attempt_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, FALSE, ?, ?)";
+    private static final String ADVANCE_KEY_SEQUENCE_SQL =
+            "UPDATE outbox_key_sequences SET last_sequence = last_sequence + ? WHERE message_key = ?";
+    private static final String INSERT_KEY_SEQUENCE_SQL =
+            "INSERT INTO outbox_key_sequences (message_key, last_sequence) VALUES (?, ?)";
+    private static final String LAST_KEY_SEQUENCE_SQL =
+            "SELECT last_sequence FROM outbox_key_sequences WHERE message_key = ?";
+    private static final String PENDING_SQL =
+            "SELECT o.id, o.event_id, o.event_type, o.topic, o.message_key, o.format, o.payload, o.payload_bytes, " +
+            "o.attempts FROM outbox_events o WHERE o.processed = FALSE AND o.next_attempt_at <= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_events e WHERE e.message_key = o.message_key " +
+            "AND e.processed = FALSE AND e.key_sequence < o.key_sequence AND e.attempts > 0) " +
+            "ORDER BY o.next_attempt_at, o.id LIMIT ?";
+    private static final String MARK_PROCESSED_SQL =
+            "UPDATE outbox_events SET processed = TRUE, processed_at = ? WHERE id IN (%s)";
+    private static final String RESCHEDULE_SQL =
+            "UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = ? WHERE id IN (%s)";
+    private static final String PURGE_SQL =
+            "DELETE FROM outbox_events WHERE processed = TRUE AND processed_at < ?";
+
     private final KafkaTemplate<String, Event> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final EventCodec eventCodec;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxDeadLetterStore deadLetterStore;
+    private final TransactionTemplate savepoint;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final long sendTimeoutMs;
+    private final int retentionHours;
+    private final long backoffInitialMs;
+    private final long backoffMaxMs;
 
-    public OutboxService(OutboxRepository outboxRepository, KafkaTemplate<String, Event> kafkaTemplate, ObjectMapper objectMapper) {
-        this.outboxRepository = outboxRepository;
+    public OutboxService(KafkaTemplate<String, Event> kafkaTemplate,
+                         EventCodec eventCodec,
+                         JdbcTemplate jdbcTemplate,
+                         OutboxDeadLetterStore deadLetterStore,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${brokerage.outbox.enabled:true}") boolean enabled,
+                         @Value("${brokerage.outbox.batch-size:500}") int batchSize,
+                         @Value("${brokerage.outbox.max-batches-per-run:100}") int maxBatchesPerRun,
+                         @Value("${brokerage.outbox.max-attempts:10}") int maxAttempts,
+                         @Value("${brokerage.outbox.send-timeout-ms:30000}") long sendTimeoutMs,
+                         @Value("${brokerage.outbox.retention-hours:24}") int retentionHours,
+                         @Value("${brokerage.outbox.backoff-initial-ms:1000}") long backoffInitialMs,
+                         @Value("${brokerage.outbox.backoff-max-ms:300000}") long backoffMaxMs) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.eventCodec = eventCodec;
+        this.jdbcTemplate = jdbcTemplate;
+        this.deadLetterStore = deadLetterStore;
+        this.savepoint = new TransactionTemplate(transactionManager);
+        this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retentionHours = retentionHours;
+        this.backoffInitialMs = backoffInitialMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+
+    /**
+     * Appends an event to the outbox in the caller's transaction, so it is relayed only if that transaction commits.
+     * The event is encoded right away but only inserted just before the transaction commits.
+     *
+     * @param key the record key the event is sent with
+     * @throws java.io.UncheckedIOException if the event cannot be encoded
+     */
+    @Transactional
+    public void enqueue(String topic, String key, Event event) {
+        EventFormat format = eventCodec.getFormat();
+        QueuedEvent queued = new QueuedEvent(topic, key, event, format, eventCodec.encode(event, format));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(queued));
+            return;
+        }
+
+        QueuedEvents events = (QueuedEvents) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            events = new QueuedEvents();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(events);
+        }
+        events.events.add(queued);
     }
 
     /**
      * Store event in outbox for later processing
      */
     @Transactional
-    public void storeEvent(String topic, Event event) {
+    public void storeEvent(String topic, String key, Event event) {
         try {
-            OutboxEvent outboxEvent = OutboxEvent.builder()
-                    .eventId(event.getEventId())
-                    .eventType(event.getEventType())
-                    .topic(topic)
-                    .payload(objectMapper.writeValueAsString(event))
-                    .attempts(0)
-                    .processed(false)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            
-            outboxRepository.save(outboxEvent);
+            enqueue(topic, key, event);
             log.info("Stored event in outbox: {}", event.getEventId());
         } catch (Exception e) {
             log.error("Failed to store event in outbox: {}", event.getEventId(), e);
@@ -49,33 +169,332 @@ public class OutboxService {
     }
 
     /**
-     * Process pending events from the outbox
-     * Runs every minute
+     * Relays pending events in batches until the outbox is drained, a batch fails or the per-run limit is reached
+     *
+     * @return the number of events relayed
      */
-    @Scheduled(fixedDelayString = "${brokerage.outbox.retry-interval:60000}")
-    @Transactional
-    public void processOutbox() {
-        List<OutboxEvent> pendingEvents = outboxRepository.findPendingEvents();
-        
-        log.info("Processing {} pending events from outbox", pendingEvents.size());
-        
-        for (OutboxEvent event : pendingEvents) {
+    @Scheduled(fixedDelayString = "${brokerage.outbox.interval-ms:100}")
+    public long processOutbox() {
+        if (!enabled) {
+            return 0;
+        }
+
+        long startTime = System.nanoTime();
+        long relayed = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            BatchResult result;
             try {
-                Event originalEvent = objectMapper.readValue(event.getPayload(),
-                        objectMapper.getTypeFactory().constructType(Class.forName(event.getEventType())));
-                
-                kafkaTemplate.send(event.getTopic(), event.getEventId(), originalEvent);
-                
-                event.setProcessed(true);
-                event.setProcessedAt(LocalDateTime.now());
-                outboxRepository.save(event);
-                
-                log.info("Successfully processed outbox event: {}", event.getEventId());
+                result = relayBatch();
             } catch (Exception e) {
-                log.error("Failed to process outbox event: {}", event.getEventId(), e);
-                event.incrementAttempts();
-                outboxRepository.save(event);
+                log.error("Outbox relay batch failed after {} events, retrying next run", relayed, e);
+                break;
             }
+            relayed += result.sent;
+            // Failures mean the broker is unhealthy, leave the rest for the next run
+            if (result.fetched < batchSize || result.failed > 0) {
+                break;
+            }
+        }
+
+        if (relayed > 0) {
+            log.info("Relayed {} outbox events in {} ms", relayed, (System.nanoTime() - startTime) / 1_000_000);
+        }
+        return relayed;
+    }
+
+    /**
+     * Lists events that exhausted their attempts, oldest first
+     */
+    public List<OutboxDeadLetterResponse> getDeadLetters(int limit) {
+        return deadLetterStore.findAll(limit);
+    }
+
+    /**
+     * Moves dead-lettered events back to the outbox to be relayed on the next run
+     *
+     * @param ids the dead letters to requeue, never empty
+     * @return the number of events requeued
+     */
+    public int requeueDeadLetters(List<Long> ids) {
+        return deadLetterStore.requeue(ids);
+    }
+
+    /**
+     * Moves every dead-lettered event back to the outbox to be relayed on the next run
+     *
+     * @return the number of events requeued
+     */
+    public int requeueAllDeadLetters() {
+        return deadLetterStore.requeueAll();
+    }
+
+    /**
+     * Deletes relayed events once they are older than the retention, keeping the outbox bounded by
+     * what is pending plus a short history
+     *
+     * @return the number of events deleted
+     */
+    @Scheduled(fixedDelayString = "${brokerage.outbox.purge-interval-ms:60000}")
+    public int purgeProcessed() {
+        if (!enabled) {
+            return 0;
+        }
+        int deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted > 0) {
+            log.info("Purged {} relayed outbox events", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Inserts events in key order with the next sequence numbers of their keys, in one JDBC batch
+     */
+    private void insert(List<QueuedEvent> events) {
+        List<QueuedEvent> ordered = new ArrayList<>(events);
+        // A stable sort keeps the events of a key in enqueue order, and taking the key rows
+        // in one order keeps transactions with events of several keys from deadlocking
+        ordered.sort(Comparator.comparing((QueuedEvent queued) -> queued.key,
+                Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ordered.size());
+        int from = 0;
+        while (from < ordered.size()) {
+            String key = ordered.get(from).key;
+            int to = from + 1;
+            while (to < ordered.size() && Objects.equals(ordered.get(to).key, key)) {
+                to++;
+            }
+            long firstSequence = key != null ? reserveKeySequences(key, to - from) - (to - from) + 1 : 0;
+            for (int i = from; i < to; i++) {
+                rows.add(ordered.get(i).row(key != null ? firstSequence + i - from : null, now));
+            }
+            from = to;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Advances the sequence of a key by count, locking its row until the transaction ends
+     *
+     * @return the last sequence number reserved
+     */
+    private long reserveKeySequences(String key, int count) {
+        if (jdbcTemplate.update(ADVANCE_KEY_SEQUENCE_SQL, count, key) == 0) {
+            if (insertKeySequence(key, count)) {
+                return count;
+            }
+            // Another transaction created the key's row first
+            jdbcTemplate.update(ADVANCE_KEY_SEQUENCE_SQL, count, key);
+        }
+        return jdbcTemplate.queryForObject(LAST_KEY_SEQUENCE_SQL, Long.class, key);
+    }
+
+    /**
+     * Inserts the sequence row of a new key under a savepoint, so that losing the race to insert it rolls back
+     * only the insert; on PostgreSQL a failed statement would otherwise abort the caller's transaction
+     *
+     * @return false if another transaction inserted the row first
+     */
+    private boolean insertKeySequence(String key, int count) {
+        try {
+            savepoint.executeWithoutResult(status -> jdbcTemplate.update(INSERT_KEY_SEQUENCE_SQL, key, count));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private BatchResult relayBatch() throws InterruptedException {
+        List<PendingEvent> pending = new ArrayList<>(jdbcTemplate.query(PENDING_SQL, (rs, rowNum) -> new PendingEvent(
+                rs.getLong("id"),
+                rs.getString("topic"),
+                rs.getString("message_key"),
+                storedEvent(rs),
+                rs.getInt("attempts")), Timestamp.valueOf(LocalDateTime.now()), batchSize));
+        if (pending.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        // Ids of one key follow its sequence, the due order may not after a clock adjustment
+        pending.sort(Comparator.comparingLong((PendingEvent event) -> event.id));
+
+        List<PendingEvent> failed = new ArrayList<>();
+        List<PendingEvent> inFlight = new ArrayList<>(pending.size());
+        List<CompletableFuture<?>> futures = new ArrayList<>(pending.size());
+        for (PendingEvent event : pending) {
+            try {
+                futures.add(kafkaTemplate.send(event.topic, event.key, event.event));
+                inFlight.add(event);
+            } catch (Exception e) {
+                // A send that throws synchronously has usually waited out the metadata timeout,
+                // the rows not yet sent stay pending without an attempt counted against them
+                log.error("Failed to send outbox event: {}", event.event.getEventId(), e);
+                failed.add(event);
+                break;
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Some outbox events failed or were not acknowledged within {} ms", sendTimeoutMs);
+        }
+
+        // Keys whose order broke in this batch, their later events are left pending to follow the failed one
+        Set<String> failedKeys = new HashSet<>();
+        failed.forEach(event -> failedKeys.add(event.key));
+        List<Long> sentIds = new ArrayList<>(inFlight.size());
+        for (int i = 0; i < inFlight.size(); i++) {
+            PendingEvent event = inFlight.get(i);
+            CompletableFuture<?> future = futures.get(i);
+            if (failedKeys.contains(event.key)) {
+                continue;
+            }
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                sentIds.add(event.id);
+            } else {
+                failed.add(event);
+                failedKeys.add(event.key);
+            }
+        }
+
+        updateByIds(MARK_PROCESSED_SQL, sentIds, Timestamp.valueOf(LocalDateTime.now()));
+        if (!failed.isEmpty()) {
+            reschedule(failed);
+            log.warn("Failed to relay {} of {} outbox events", failed.size(), pending.size());
+        }
+        return new BatchResult(pending.size(), sentIds.size(), failed.size());
+    }
+
+    /**
+     * Moves failed events that used their last attempt to the dead-letter table and pushes back the others,
+     * with one UPDATE per distinct attempt count since rows with the same count share their next attempt time
+     */
+    private void reschedule(List<PendingEvent> failed) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> exhaustedIds = new ArrayList<>();
+        Map<Integer, List<Long>> idsByAttempts = new TreeMap<>();
+        for (PendingEvent event : failed) {
+            int attempts = event.attempts + 1;
+            if (attempts >= maxAttempts) {
+                exhaustedIds.add(event.id);
+            } else {
+                idsByAttempts.computeIfAbsent(attempts, key -> new ArrayList<>()).add(event.id);
+            }
+        }
+
+        idsByAttempts.forEach((attempts, ids) -> updateByIds(RESCHEDULE_SQL, ids,
+                Timestamp.valueOf(now.plus(backoffMs(attempts), ChronoUnit.MILLIS))));
+        if (!exhaustedIds.isEmpty()) {
+            deadLetterStore.deadLetter(exhaustedIds);
+        }
+    }
+
+    /**
+     * Backoff before the next attempt after the given number of failed attempts, doubling from the initial backoff
+     */
+    long backoffMs(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        return Math.min(backoffMaxMs, backoffInitialMs << doublings);
+    }
+
+    private static StoredEvent storedEvent(ResultSet rs) throws SQLException {
+        EventFormat format = EventFormat.valueOf(rs.getString("format"));
+        byte[] payload = format == EventFormat.JSON
+                ? rs.getString("payload").getBytes(StandardCharsets.UTF_8)
+                : rs.getBytes("payload_bytes");
+        return new StoredEvent(rs.getString("event_id"), rs.getString("event_type"), format, payload);
+    }
+
+    private void updateByIds(String sql, List<Long> ids, Object... leadingArgs) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(leadingArgs.length + ids.size());
+        Collections.addAll(args, leadingArgs);
+        args.addAll(ids);
+        jdbcTemplate.update(String.format(sql, String.join(", ", Collections.nCopies(ids.size(), "?"))),
+                args.toArray());
+    }
+
+    private static final class PendingEvent {
+        private final long id;
+        private final String topic;
+        private final String key;
+        private final StoredEvent event;
+        private final int attempts;
+
+        private PendingEvent(long id, String topic, String key, StoredEvent event, int attempts) {
+            this.id = id;
+            this.topic = topic;
+            // Rows stored before keys were recorded keep the event id key they would have been sent with
+            this.key = key != null ? key : event.getEventId();
+            this.event = event;
+            this.attempts = attempts;
+        }
+    }
+
+    private static final class QueuedEvent {
+        private final String topic;
+        private final String key;
+        private final String eventId;
+        private final String eventType;
+        private final EventFormat format;
+        private final byte[] payload;
+
+        private QueuedEvent(String topic, String key, Event event, EventFormat format, byte[] payload) {
+            this.topic = topic;
+            this.key = key;
+            this.eventId = event.getEventId();
+            this.eventType = event.getEventType();
+            this.format = format;
+            this.payload = payload;
+        }
+
+        private Object[] row(Long keySequence, Timestamp now) {
+            boolean json = format == EventFormat.JSON;
+            return new Object[]{eventId, eventType, topic, key, keySequence, format.name(),
+                    json ? new String(payload, StandardCharsets.UTF_8) : null, json ? null : payload, now, now};
+        }
+    }
+
+    /**
+     * The events enqueued by one transaction, inserted just before it commits
+     */
+    private final class QueuedEvents implements TransactionSynchronization {
+        private final List<QueuedEvent> events = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(OutboxService.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(OutboxService.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+        }
+    }
+
+    private static final class BatchResult {
+        private final int fetched;
+        private final int sent;
+        private final int failed;
+
+        private BatchResult(int fetched, int sent, int failed) {
+            this.fetched = fetched;
+            this.sent = sent;
+            this.failed = failed;
         }
     }
 }
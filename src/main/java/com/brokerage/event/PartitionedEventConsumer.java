@@ -0,0 +1,38 @@
+package com.brokerage.event;
+
+import java.util.Set;
+
+/**
+ * A consumer of the order events topic that scales out by partition.
+ *
+ * Events are keyed by brokerage.order.events.key, so all events of one customer (or order, or asset) are on
+ * one partition in the order they were published. Within a consumer group each partition is read by a single
+ * thread of a single instance, so an implementation sees the events of a key in order and on one thread, and
+ * can keep per-key state without coordinating with other threads or instances. Partitions move between
+ * threads and instances when the group rebalances: state built for a revoked partition must be dropped or
+ * handed off, and a newly assigned partition resumes from its last committed offset. Delivery is at least
+ * once, so events may be seen again after a rebalance.
+ *
+ * @see PartitionedEventContainerFactory
+ */
+public interface PartitionedEventConsumer {
+
+    /**
+     * Handles an event on the thread that owns its partition
+     *
+     * @param key the record key the event was published with
+     */
+    void onEvent(String key, Event event, int partition);
+
+    /**
+     * Called on the owning thread before the first event of newly assigned partitions
+     */
+    default void onPartitionsAssigned(Set<Integer> partitions) {
+    }
+
+    /**
+     * Called on the owning thread once partitions are revoked or lost, their events now go to another owner
+     */
+    default void onPartitionsRevoked(Set<Integer> partitions) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.brokerage.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Builds listener containers that feed the order events topic to a {@link PartitionedEventConsumer}.
+ *
+ * Records are read as raw bytes and decoded by the {@link EventCodec} in whichever format they were
+ * written. A container runs up to one consumer thread per partition, and Kafka assigns every partition
+ * to exactly one of them, so partitions are processed in parallel while the events of a key stay in order.
+ */
+@Slf4j
+@Component
+public class PartitionedEventContainerFactory {
+
+    private final KafkaProperties kafkaProperties;
+    private final EventCodec eventCodec;
+    private final String topic;
+    private final int partitions;
+
+    public PartitionedEventContainerFactory(KafkaProperties kafkaProperties,
+                                            EventCodec eventCodec,
+                                            @Value("${brokerage.order.events.topic}") String topic,
+                                            @Value("${brokerage.order.events.partitions:3}") int partitions) {
+        this.kafkaProperties = kafkaProperties;
+        this.eventCodec = eventCodec;
+        this.topic = topic;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Creates a container for the consumer, started with the application context when declared as a bean
+     *
+     * @param groupId instances in the same group split the partitions between them, every group receives all events
+     * @param autoOffsetReset where a new group starts reading, earliest or latest
+     * @param concurrency consumer threads, capped at the partition count since further threads would stay idle
+     */
+    public ConcurrentMessageListenerContainer<String, byte[]> create(String groupId, String autoOffsetReset,
+                                                                    int concurrency, PartitionedEventConsumer consumer) {
+        Map<String, Object> properties = kafkaProperties.buildConsumerProperties(null);
+        properties.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        containerProperties.setMessageListener((MessageListener<String, byte[]>) record -> dispatch(record, consumer));
+        containerProperties.setConsumerRebalanceListener(new RebalanceForwarder(consumer));
+
+        ConcurrentMessageListenerContainer<String, byte[]> container = new ConcurrentMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(properties, new StringDeserializer(), new ByteArrayDeserializer()),
+                containerProperties);
+        container.setConcurrency(Math.max(1, Math.min(concurrency, partitions)));
+        return container;
+    }
+
+    private void dispatch(ConsumerRecord<String, byte[]> record, PartitionedEventConsumer consumer) {
+        Event event;
+        try {
+            event = eventCodec.decode(record.value());
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            log.error("Skipping unreadable order event at partition {} offset {}", record.partition(), record.offset(), e);
+            return;
+        }
+        consumer.onEvent(record.key(), event, record.partition());
+    }
+
+    private static Set<Integer> partitionNumbers(Collection<TopicPartition> partitions) {
+        return partitions.stream().map(TopicPartition::partition).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Passes the partitions of each consumer thread to the consumer, revocation after offsets were committed
+     */
+    private static final class RebalanceForwarder implements ConsumerAwareRebalanceListener {
+
+        private final PartitionedEventConsumer consumer;
+
+        private RebalanceForwarder(PartitionedEventConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onPartitionsAssigned(Consumer<?, ?> kafkaConsumer, Collection<TopicPartition> partitions) {
+            if (!partitions.isEmpty()) {
+                consumer.onPartitionsAssigned(partitionNumbers(partitions));
+            }
+        }
+
+        @Override
+        public void onPartitionsRevokedAfterCommit(Consumer<?, ?> kafkaConsumer, Collection<TopicPartition> partitions) {
+            if (!partitions.isEmpty()) {
+                consumer.onPartitionsRevoked(partitionNumbers(partitions));
+            }
+        }
+
+        @Override
+        public void onPartitionsLost(Consumer<?, ?> kafkaConsumer, Collection<TopicPartition> partitions) {
+            if (!partitions.isEmpty()) {
+                consumer.onPartitionsRevoked(partitionNumbers(partitions));
+            }
+        }
+    }
+}
@@ -5,13 +5,19 @@ import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+/**
+ * Sends order events to Kafka from within the order transaction, falling back to the outbox when the
+ * broker is unavailable. Only used with brokerage.outbox.transactional switched off.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class ResilientEventPublisher {
+@ConditionalOnProperty(name = "brokerage.outbox.transactional", havingValue = "false")
+public class ResilientEventPublisher implements OrderEventPublisher {
 
     private final KafkaTemplate<String, Event> kafkaTemplate;
     private final OutboxService outboxService;
@@ -19,14 +25,18 @@ public class ResilientEventPublisher {
     @Value("${brokerage.order.events.topic}")
     private String orderEventsTopic;
 
+    @Value("${brokerage.order.events.key:CUSTOMER}")
+    private EventKeyStrategy keyStrategy;
+
     /**
      * Publishes an order event with circuit breaker and retry patterns
      */
+    @Override
     @CircuitBreaker(name = "kafkaPublisher", fallbackMethod = "fallbackPublish")
     @Retry(name = "kafkaPublishRetry")
     public void publishOrderEvent(Event event) {
         try {
-            kafkaTemplate.send(orderEventsTopic, event.getEventId(), event);
+            kafkaTemplate.send(orderEventsTopic, keyStrategy.keyOf(event), event);
             log.info("Published event: {}, type: {}", event.getEventId(), event.getEventType());
         } catch (Exception e) {
             log.error("Failed to publish event: {}", event.getEventId(), e);
@@ -39,6 +49,6 @@ public class ResilientEventPublisher {
      */
     public void fallbackPublish(Event event, Exception e) {
         log.warn("Circuit open or retries exhausted for event: {}, storing in outbox", event.getEventId());
-        outboxService.storeEvent(orderEventsTopic, event);
+        outboxService.storeEvent(orderEventsTopic, keyStrategy.keyOf(event), event);
     }
 }
\ No newline at end of file
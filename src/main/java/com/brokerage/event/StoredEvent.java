@@ -0,0 +1,45 @@
+package com.brokerage.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event read back from the outbox, sent as the payload it was stored with instead of being
+ * rebuilt as its original class
+ */
+class StoredEvent implements Event {
+
+    private final String eventId;
+    private final String eventType;
+    private final EventFormat format;
+    private final byte[] payload;
+
+    StoredEvent(String eventId, String eventType, EventFormat format, byte[] payload) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.format = format;
+        this.payload = payload;
+    }
+
+    @Override
+    public String getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public String getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public LocalDateTime getTimestamp() {
+        return null;
+    }
+
+    EventFormat getFormat() {
+        return format;
+    }
+
+    byte[] getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,7 @@
+package com.brokerage.exception;
+
+public class OrderCommandRejectedException extends RuntimeException {
+    public OrderCommandRejectedException(String message) {
+        super(message);
+    }
+}
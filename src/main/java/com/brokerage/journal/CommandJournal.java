@@ -0,0 +1,276 @@
+package com.brokerage.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of committed commands written through memory-mapped segment files.
+ *
+ * Each record is laid out as {@code [length][sequence][timestamp][type][payload][crc32]},
+ * where length covers sequence to payload. A zero length marks the end of written data,
+ * and a record whose checksum does not match (a torn write) is treated as the end as well.
+ * Appends only copy into the mapped buffer; the buffer is forced to disk every
+ * {@code fsync-batch-size} records and at least every {@code fsync-interval-ms}.
+ */
+@Slf4j
+@Component
+public class CommandJournal {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Byte.BYTES;
+    private static final int TRAILER_SIZE = Integer.BYTES;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentSize;
+    private final int fsyncBatchSize;
+    private final long fsyncIntervalMillis;
+
+    private MappedByteBuffer segment;
+    private long nextSequence = 1;
+    private int unsyncedRecords;
+    private ScheduledExecutorService flusher;
+
+    public CommandJournal(
+            @Value("${brokerage.journal.enabled:false}") boolean enabled,
+            @Value("${brokerage.journal.directory:./data/journal}") String directory,
+            @Value("${brokerage.journal.segment-size-bytes:67108864}") long segmentSize,
+            @Value("${brokerage.journal.fsync-batch-size:64}") int fsyncBatchSize,
+            @Value("${brokerage.journal.fsync-interval-ms:10}") long fsyncIntervalMillis) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            segment = map(last);
+            long lastSequence = scan(segment, null);
+            nextSequence = lastSequence > 0 ? lastSequence + 1 : firstSequenceOf(last);
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+
+        log.info("Opened command journal in {} at sequence {}", directory.toAbsolutePath(), nextSequence);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Appends a command and returns its sequence number, or 0 if journaling is disabled
+     */
+    public synchronized long append(JournalCommand command) {
+        if (!enabled) {
+            return 0;
+        }
+
+        byte[] payload = command.encodePayload();
+        int recordSize = HEADER_SIZE + payload.length + TRAILER_SIZE;
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + recordSize + " bytes exceeds segment size");
+        }
+        if (segment.remaining() < recordSize + Integer.BYTES) {
+            segment.force();
+            openSegment(nextSequence);
+        }
+
+        long sequence = nextSequence++;
+        int start = segment.position();
+        segment.putInt(recordSize - Integer.BYTES - TRAILER_SIZE);
+        segment.putLong(sequence);
+        segment.putLong(System.currentTimeMillis());
+        segment.put(command.getType().getId());
+        segment.put(payload);
+        segment.putInt(checksum(segment, start + Integer.BYTES, recordSize - Integer.BYTES - TRAILER_SIZE));
+        segment.putInt(segment.position(), 0);
+
+        if (++unsyncedRecords >= fsyncBatchSize) {
+            segment.force();
+            unsyncedRecords = 0;
+        }
+        return sequence;
+    }
+
+    /**
+     * Appends a command once the surrounding transaction has committed, or right away outside of one.
+     *
+     * Only committed commands are journaled, and the record is written before the caller is answered
+     * and before any other after-commit callback (such as ledger credits) makes the command's effects
+     * visible to other lanes, so journal order matches the order in which commands could observe
+     * each other.
+     */
+    public void appendAfterCommit(JournalCommand command) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(command);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                append(command);
+            }
+        });
+    }
+
+    /**
+     * Forces appended records to disk if any are pending
+     */
+    public synchronized void flush() {
+        if (segment != null && unsyncedRecords > 0) {
+            segment.force();
+            unsyncedRecords = 0;
+        }
+    }
+
+    /**
+     * Reads every intact record of every segment in sequence order
+     */
+    public synchronized long replay(Consumer<JournalRecord> consumer) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+
+        long lastSequence = 0;
+        for (Path path : listSegments()) {
+            MappedByteBuffer buffer = map(path);
+            lastSequence = Math.max(lastSequence, scan(buffer, consumer));
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Walks the records of a segment from the start, leaving the buffer positioned after
+     * the last intact record, and returns the last sequence seen
+     */
+    private long scan(MappedByteBuffer buffer, Consumer<JournalRecord> consumer) {
+        long lastSequence = 0;
+        buffer.position(0);
+        while (buffer.remaining() >= HEADER_SIZE + TRAILER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+            int payloadLength = length - Long.BYTES - Long.BYTES - Byte.BYTES;
+            if (payloadLength < 0 || start + Integer.BYTES + length + TRAILER_SIZE > buffer.limit()) {
+                break;
+            }
+            int storedChecksum = buffer.getInt(start + Integer.BYTES + length);
+            if (storedChecksum != checksum(buffer, start + Integer.BYTES, length)) {
+                log.warn("Journal record at offset {} is torn, treating it as the end of the journal", start);
+                break;
+            }
+
+            buffer.position(start + Integer.BYTES);
+            long sequence = buffer.getLong();
+            long timestamp = buffer.getLong();
+            JournalCommandType type = JournalCommandType.fromId(buffer.get());
+            byte[] payload = new byte[payloadLength];
+            buffer.get(payload);
+            buffer.getInt();
+
+            lastSequence = sequence;
+            if (consumer != null) {
+                consumer.accept(new JournalRecord(sequence, timestamp, JournalCommand.decodePayload(type, payload)));
+            }
+        }
+        return lastSequence;
+    }
+
+    private void openSegment(long firstSequence) {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        try {
+            segment = map(path);
+            segment.position(0);
+            log.info("Opened journal segment {}", path.getFileName());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment " + path, e);
+        }
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .toList());
+            segments.sort((a, b) -> Long.compare(firstSequenceOf(a), firstSequenceOf(b)));
+            return segments;
+        }
+    }
+
+    private static long firstSequenceOf(Path segmentPath) {
+        String name = segmentPath.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
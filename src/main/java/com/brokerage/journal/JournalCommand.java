@@ -0,0 +1,214 @@
+package com.brokerage.journal;
+
+import com.brokerage.api.dto.request.CreateOrderRequest;
+import com.brokerage.domain.Customer;
+import com.brokerage.domain.Order;
+import com.brokerage.domain.OrderSide;
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A committed command as written to the {@link CommandJournal}, with a compact binary payload per type.
+ *
+ * Commands that create an entity carry the id it was assigned, so that later commands referring
+ * to that id can be mapped onto the entity recreated on replay.
+ */
+@Value
+@Builder
+public class JournalCommand {
+    JournalCommandType type;
+    Long orderId;
+    Long customerId;
+    String assetName;
+    OrderSide orderSide;
+    BigDecimal size;
+    BigDecimal price;
+    List<Long> orderIds;
+    String username;
+    String passwordHash;
+    String email;
+    String fullName;
+    boolean admin;
+
+    public static JournalCommand createOrder(Order order) {
+        return JournalCommand.builder()
+                .type(JournalCommandType.CREATE_ORDER)
+                .orderId(order.getId())
+                .customerId(order.getCustomer().getId())
+                .assetName(order.getAssetName())
+                .orderSide(order.getOrderSide())
+                .size(order.getSize())
+                .price(order.getPrice())
+                .build();
+    }
+
+    public static JournalCommand cancelOrder(Long orderId, Long customerId) {
+        return JournalCommand.builder()
+                .type(JournalCommandType.CANCEL_ORDER)
+                .orderId(orderId)
+                .customerId(customerId)
+                .build();
+    }
+
+    public static JournalCommand matchOrder(Long orderId) {
+        return JournalCommand.builder()
+                .type(JournalCommandType.MATCH_ORDER)
+                .orderId(orderId)
+                .build();
+    }
+
+    /**
+     * A batch match chunk, recording only the orders that were matched
+     */
+    public static JournalCommand matchOrders(List<Long> orderIds) {
+        return JournalCommand.builder()
+                .type(JournalCommandType.MATCH_ORDERS)
+                .orderIds(List.copyOf(orderIds))
+                .build();
+    }
+
+    public static JournalCommand deposit(Long customerId, String assetName, BigDecimal size) {
+        return JournalCommand.builder()
+                .type(JournalCommandType.DEPOSIT)
+                .customerId(customerId)
+                .assetName(assetName)
+                .size(size)
+                .build();
+    }
+
+    /**
+     * A created customer, with the already encoded password so replay does not need the plain one
+     */
+    public static JournalCommand createCustomer(Customer customer) {
+        return JournalCommand.builder()
+                .type(JournalCommandType.CREATE_CUSTOMER)
+                .customerId(customer.getId())
+                .username(customer.getUsername())
+                .passwordHash(customer.getPassword())
+                .email(customer.getEmail())
+                .fullName(customer.getFullName())
+                .admin(customer.isAdmin())
+                .build();
+    }
+
+    public CreateOrderRequest toCreateOrderRequest() {
+        return CreateOrderRequest.builder()
+                .assetName(assetName)
+                .orderSide(orderSide)
+                .size(size)
+                .price(price)
+                .build();
+    }
+
+    byte[] encodePayload() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            switch (type) {
+                case CREATE_ORDER -> {
+                    out.writeLong(orderId);
+                    out.writeLong(customerId);
+                    out.writeUTF(assetName);
+                    out.writeByte(orderSide.ordinal());
+                    out.writeUTF(size.toPlainString());
+                    out.writeUTF(price.toPlainString());
+                }
+                case CANCEL_ORDER -> {
+                    out.writeLong(orderId);
+                    out.writeLong(customerId);
+                }
+                case MATCH_ORDER -> out.writeLong(orderId);
+                case DEPOSIT -> {
+                    out.writeLong(customerId);
+                    out.writeUTF(assetName);
+                    out.writeUTF(size.toPlainString());
+                }
+                case MATCH_ORDERS -> {
+                    out.writeInt(orderIds.size());
+                    for (Long id : orderIds) {
+                        out.writeLong(id);
+                    }
+                }
+                case CREATE_CUSTOMER -> {
+                    out.writeLong(customerId);
+                    out.writeUTF(username);
+                    out.writeUTF(passwordHash);
+                    writeNullableUTF(out, email);
+                    writeNullableUTF(out, fullName);
+                    out.writeBoolean(admin);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode journal command", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalCommand decodePayload(JournalCommandType type, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return switch (type) {
+                case CREATE_ORDER -> JournalCommand.builder()
+                        .type(type)
+                        .orderId(in.readLong())
+                        .customerId(in.readLong())
+                        .assetName(in.readUTF())
+                        .orderSide(OrderSide.values()[in.readByte()])
+                        .size(new BigDecimal(in.readUTF()))
+                        .price(new BigDecimal(in.readUTF()))
+                        .build();
+                case CANCEL_ORDER -> JournalCommand.builder()
+                        .type(type)
+                        .orderId(in.readLong())
+                        .customerId(in.readLong())
+                        .build();
+                case MATCH_ORDER -> JournalCommand.builder()
+                        .type(type)
+                        .orderId(in.readLong())
+                        .build();
+                case DEPOSIT -> JournalCommand.builder()
+                        .type(type)
+                        .customerId(in.readLong())
+                        .assetName(in.readUTF())
+                        .size(new BigDecimal(in.readUTF()))
+                        .build();
+                case MATCH_ORDERS -> {
+                    int count = in.readInt();
+                    List<Long> ids = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        ids.add(in.readLong());
+                    }
+                    yield JournalCommand.builder()
+                            .type(type)
+                            .orderIds(ids)
+                            .build();
+                }
+                case CREATE_CUSTOMER -> JournalCommand.builder()
+                        .type(type)
+                        .customerId(in.readLong())
+                        .username(in.readUTF())
+                        .passwordHash(in.readUTF())
+                        .email(readNullableUTF(in))
+                        .fullName(readNullableUTF(in))
+                        .admin(in.readBoolean())
+                        .build();
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode journal command of type " + type, e);
+        }
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
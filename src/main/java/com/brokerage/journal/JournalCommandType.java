@@ -0,0 +1,29 @@
+package com.brokerage.journal;
+
+public enum JournalCommandType {
+    CREATE_ORDER(1),
+    CANCEL_ORDER(2),
+    MATCH_ORDER(3),
+    DEPOSIT(4),
+    MATCH_ORDERS(5),
+    CREATE_CUSTOMER(6);
+
+    private final byte id;
+
+    JournalCommandType(int id) {
+        this.id = (byte) id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    public static JournalCommandType fromId(byte id) {
+        for (JournalCommandType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown journal command type: " + id);
+    }
+}
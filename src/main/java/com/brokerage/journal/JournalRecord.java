@@ -0,0 +1,13 @@
+package com.brokerage.journal;
+
+import lombok.Value;
+
+/**
+ * A command read back from the journal together with its position and append time
+ */
+@Value
+public class JournalRecord {
+    long sequence;
+    long timestamp;
+    JournalCommand command;
+}
@@ -0,0 +1,138 @@
+package com.brokerage.journal;
+
+import com.brokerage.domain.Customer;
+import com.brokerage.domain.Order;
+import com.brokerage.exception.CustomerNotFoundException;
+import com.brokerage.repository.CustomerRepository;
+import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.command.AssetCommandService;
+import com.brokerage.service.command.OrderCommandService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds order and asset state from the {@link CommandJournal} at startup.
+ *
+ * Replay re-executes the journaled commands in sequence order through the command services,
+ * which also repopulates the in-memory order books. The journal holds committed commands only,
+ * in commit order, and records the ids that creating commands were assigned; ids referred to by
+ * later commands are mapped onto the ids assigned on replay, so replay does not depend on the
+ * database generating the same ids again. Commands for one order book are committed in book
+ * order when the sequencer routes by asset; with customer routing, matches of different
+ * customers' orders on the same book may be journaled in a different order than they ran.
+ *
+ * Each command runs in a {@link ReplayContext} as of its journaled time: the recreated orders, customers
+ * and postings carry that time, and no order or trade events are published again, so the outbox, the
+ * read model and the market statistics do not see the history twice.
+ *
+ * It only runs against an empty orders table (the in-memory H2 setup, which starts from the
+ * Liquibase seed data every time), and before the web server starts, so no new commands
+ * interleave with it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JournalReplayService implements SmartInitializingSingleton {
+
+    private final CommandJournal journal;
+    private final OrderCommandService orderCommandService;
+    private final AssetCommandService assetCommandService;
+    private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
+
+    @Value("${brokerage.journal.replay-on-startup:true}")
+    private boolean replayOnStartup;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!journal.isEnabled() || !replayOnStartup) {
+            return;
+        }
+        if (orderRepository.count() > 0) {
+            log.warn("Skipping journal replay because the orders table is not empty");
+            return;
+        }
+        replay();
+    }
+
+    public void replay() {
+        long startTime = System.currentTimeMillis();
+        AtomicLong applied = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Map<Long, Long> orderIds = new HashMap<>();
+        Map<Long, Long> customerIds = new HashMap<>();
+
+        try {
+            long lastSequence = journal.replay(record -> {
+                try {
+                    ReplayContext.run(record.getTimestamp(), () -> apply(record.getCommand(), orderIds, customerIds));
+                    applied.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // Only committed commands are journaled, so a failure here means the state diverged
+                    failed.incrementAndGet();
+                    log.warn("Journal record {} of type {} failed on replay: {}",
+                            record.getSequence(), record.getCommand().getType(), e.getMessage());
+                }
+            });
+
+            log.info("Replayed command journal up to sequence {}: {} applied, {} failed, {} ms",
+                    lastSequence, applied.get(), failed.get(), System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay command journal", e);
+        }
+    }
+
+    /**
+     * Applies a command, mapping the ids it refers to onto the entities recreated so far.
+     * Ids that were not created by a journaled command (seed data) map onto themselves.
+     */
+    private void apply(JournalCommand command, Map<Long, Long> orderIds, Map<Long, Long> customerIds) {
+        switch (command.getType()) {
+            case CREATE_CUSTOMER -> {
+                Customer customer = customerRepository.save(Customer.builder()
+                        .username(command.getUsername())
+                        .password(command.getPasswordHash())
+                        .email(command.getEmail())
+                        .fullName(command.getFullName())
+                        .isAdmin(command.isAdmin())
+                        .build());
+                customerIds.put(command.getCustomerId(), customer.getId());
+            }
+            case CREATE_ORDER -> {
+                Order order = orderCommandService.createOrder(
+                        mapped(customerIds, command.getCustomerId()), command.toCreateOrderRequest());
+                orderIds.put(command.getOrderId(), order.getId());
+            }
+            case CANCEL_ORDER -> orderCommandService.cancelOrder(
+                    mapped(orderIds, command.getOrderId()), mapped(customerIds, command.getCustomerId()));
+            case MATCH_ORDER -> orderCommandService.matchOrder(mapped(orderIds, command.getOrderId()));
+            case MATCH_ORDERS -> {
+                List<Long> ids = command.getOrderIds().stream().map(id -> mapped(orderIds, id)).toList();
+                long failures = orderCommandService.matchOrders(ids).stream().filter(result -> !result.isSuccess()).count();
+                if (failures > 0) {
+                    throw new IllegalStateException(failures + " of " + ids.size() + " batch matched orders failed");
+                }
+            }
+            case DEPOSIT -> {
+                Long customerId = mapped(customerIds, command.getCustomerId());
+                Customer customer = customerRepository.findById(customerId)
+                        .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + customerId));
+                assetCommandService.createOrUpdateAsset(customer, command.getAssetName(), command.getSize());
+            }
+        }
+    }
+
+    private static Long mapped(Map<Long, Long> ids, Long id) {
+        return ids.getOrDefault(id, id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.brokerage.journal;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Marks the current thread as replaying a journal record.
+ *
+ * While a record is replayed, entity and posting timestamps take the time the command was journaled
+ * instead of the current time, and the command services publish no order or trade events: those were
+ * published when the command first ran, and publishing them again would hand consumers duplicates
+ * under new event ids.
+ */
+public final class ReplayContext {
+
+    private static final ThreadLocal<LocalDateTime> REPLAY_TIME = new ThreadLocal<>();
+
+    private ReplayContext() {
+    }
+
+    /**
+     * Runs a replayed command as of the time it was journaled
+     *
+     * @param epochMillis the journal record's append time
+     */
+    public static void run(long epochMillis, Runnable command) {
+        REPLAY_TIME.set(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+        try {
+            command.run();
+        } finally {
+            REPLAY_TIME.remove();
+        }
+    }
+
+    public static boolean isReplaying() {
+        return REPLAY_TIME.get() != null;
+    }
+
+    /**
+     * The journaled time of the command being replayed, or the current time outside replay
+     */
+    public static LocalDateTime now() {
+        LocalDateTime replayTime = REPLAY_TIME.get();
+        return replayTime != null ? replayTime : LocalDateTime.now();
+    }
+}
@@ -1,18 +1,27 @@
 package com.brokerage.repository;
 
+import com.brokerage.api.dto.response.OrderResponse;
 import com.brokerage.domain.Order;
 import com.brokerage.domain.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Constructor expression selecting an order straight into its response, without a managed entity
+     */
+    String RESPONSE_COLUMNS = "new com.brokerage.api.dto.response.OrderResponse(o.id, o.assetName, o.orderSide, " +
+            "o.size, o.price, o.filledSize, o.remainingSize, o.averageFillPrice, o.status, o.createDate, o.updateDate)";
     
     List<Order> findByCustomerId(Long customerId);
     
@@ -31,10 +40,63 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Returns the next orders after a (createDate, id) position, in that order, selected straight into responses
+     */
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Order o WHERE o.customer.id = :customerId AND o.status IN :statuses " +
+            "AND o.createDate BETWEEN :startDate AND :endDate " +
+            "AND (o.createDate > :afterDate OR (o.createDate = :afterDate AND o.id > :afterId)) " +
+            "ORDER BY o.createDate, o.id")
+    List<OrderResponse> findResponsePageByCustomerId(
+            @Param("customerId") Long customerId,
+            @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId AND o.status IN :statuses " +
+            "AND o.createDate BETWEEN :startDate AND :endDate")
+    long countByCustomerId(
+            @Param("customerId") Long customerId,
+            @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
     @Query("SELECT o FROM Order o WHERE o.id = :orderId AND o.customer.id = :customerId")
     Optional<Order> findByIdAndCustomerId(
             @Param("orderId") Long orderId,
             @Param("customerId") Long customerId);
     
     List<Order> findByStatus(OrderStatus status);
+
+    @Query("SELECT o.assetName FROM Order o WHERE o.id = :orderId")
+    Optional<String> findAssetNameById(@Param("orderId") Long orderId);
+
+    @Query("SELECT o.customer.id FROM Order o WHERE o.id = :orderId")
+    Optional<Long> findCustomerIdById(@Param("orderId") Long orderId);
+
+    /**
+     * Id, asset name and customer id of each existing order, the fields command lanes are routed by
+     */
+    @Query("SELECT o.id, o.assetName, o.customer.id FROM Order o WHERE o.id IN :orderIds")
+    List<Object[]> findRoutingFieldsByIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Order o WHERE o.id = :orderId AND o.customer.id = :customerId")
+    Optional<OrderResponse> findResponseByIdAndCustomerId(
+            @Param("orderId") Long orderId,
+            @Param("customerId") Long customerId);
+
+    List<Order> findByStatusIn(Collection<OrderStatus> statuses);
+
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Order o WHERE o.status IN :statuses ORDER BY o.id")
+    List<OrderResponse> findResponsesByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    List<Order> findByAssetNameAndStatusInOrderByIdAsc(String assetName, Collection<OrderStatus> statuses);
+
+    @Query("SELECT o.id FROM Order o WHERE o.assetName = :assetName AND o.status IN :statuses ORDER BY o.id")
+    List<Long> findIdsByAssetNameAndStatusIn(
+            @Param("assetName") String assetName,
+            @Param("statuses") Collection<OrderStatus> statuses);
 }
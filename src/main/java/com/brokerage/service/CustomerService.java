@@ -2,6 +2,8 @@ package com.brokerage.service;
 
 import com.brokerage.domain.Customer;
 import com.brokerage.exception.CustomerNotFoundException;
+import com.brokerage.journal.CommandJournal;
+import com.brokerage.journal.JournalCommand;
 import com.brokerage.repository.CustomerRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -18,9 +20,10 @@ public class CustomerService {
 
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CommandJournal journal;
 
     /**
-     * Creates a new customer
+     * Creates a new customer, journaling it once committed so that replay recreates it before its orders
      */
     @Transactional
     public Customer createCustomer(String username, String password, String email, String fullName, boolean isAdmin) {
@@ -37,6 +40,7 @@ public class CustomerService {
                 .build();
 
         Customer savedCustomer = customerRepository.save(customer);
+        journal.appendAfterCommit(JournalCommand.createCustomer(savedCustomer));
 
         log.info("Created new customer: {}, isAdmin: {}", username, isAdmin);
 
@@ -0,0 +1,264 @@
+package com.brokerage.service.archive;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.service.query.OrderRows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access to the monthly order archive tables.
+ *
+ * Terminal orders are moved out of the orders table into orders_archive_yyyyMM by the month of their
+ * create date, so the orders table only holds open and recently closed orders. The archive tables that
+ * exist are recorded in order_archive_tables; reads whose date range reaches an archived month union
+ * the orders table with the archive tables of those months. Each instance caches the registry and reloads
+ * it once the cache is older than the refresh interval, and before creating a month it does not know, so
+ * tables archived by another instance become readable within the interval.
+ */
+@Slf4j
+@Component
+public class OrderArchiveStore {
+
+    /**
+     * Statuses of orders that no longer change and can be archived
+     */
+    public static final List<OrderStatus> ARCHIVED_STATUSES = List.of(OrderStatus.MATCHED, OrderStatus.CANCELED);
+
+    private static final String ORDERS_TABLE = "orders";
+    private static final String TABLE_PREFIX = "orders_archive_";
+    private static final DateTimeFormatter TABLE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String MOVED_COLUMNS = "id, customer_id, asset_name, order_side, size, price, filled_size, " +
+            "remaining_size, average_fill_price, status, create_date, update_date, version";
+    private static final String CANDIDATES_SQL =
+            "SELECT id, create_date FROM orders WHERE status IN (" + ARCHIVED_STATUSES.stream()
+                    .map(status -> "'" + status.name() + "'")
+                    .collect(Collectors.joining(", ")) + ") " +
+            "AND create_date < ? AND (update_date IS NULL OR update_date < ?) ORDER BY id LIMIT ?";
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS %s (id BIGINT NOT NULL PRIMARY KEY, customer_id BIGINT NOT NULL, " +
+            "asset_name VARCHAR(50) NOT NULL, order_side VARCHAR(10) NOT NULL, size DECIMAL(19,4) NOT NULL, " +
+            "price DECIMAL(19,4) NOT NULL, filled_size DECIMAL(19,4) NOT NULL, remaining_size DECIMAL(19,4) NOT NULL, " +
+            "average_fill_price DECIMAL(19,4), status VARCHAR(20) NOT NULL, create_date TIMESTAMP NOT NULL, " +
+            "update_date TIMESTAMP, version BIGINT)";
+    private static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_%1$s_customer_date ON %1$s (customer_id, create_date, id)";
+    private static final String UPDATE_REGISTRY_SQL =
+            "UPDATE order_archive_tables SET order_count = order_count + ?, updated_at = ? WHERE archive_month = ?";
+    private static final String INSERT_REGISTRY_SQL =
+            "INSERT INTO order_archive_tables (order_count, updated_at, archive_month, table_name) VALUES (?, ?, ?, ?)";
+    private static final String PAGE_FILTER_SQL =
+            " WHERE customer_id = ? AND status IN (%s) AND create_date BETWEEN ? AND ? " +
+            "AND (create_date > ? OR (create_date = ? AND id > ?))";
+    private static final String COUNT_FILTER_SQL =
+            " WHERE customer_id = ? AND status IN (%s) AND create_date BETWEEN ? AND ?";
+    private static final String ORDER_BY_SQL = " ORDER BY create_date, id";
+    private static final String REGISTRY_SQL = "SELECT archive_month, table_name FROM order_archive_tables";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long registryRefreshMs;
+
+    private volatile NavigableMap<YearMonth, String> tables;
+    private volatile long tablesLoadedAt;
+
+    public OrderArchiveStore(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${brokerage.archive.registry-refresh-ms:60000}") long registryRefreshMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.registryRefreshMs = registryRefreshMs;
+    }
+
+    /**
+     * Archive tables of the months between the two dates, in month order
+     */
+    public List<String> tablesBetween(LocalDateTime from, LocalDateTime to) {
+        return new ArrayList<>(tables().subMap(YearMonth.from(from), true, YearMonth.from(to), true).values());
+    }
+
+    /**
+     * Moves up to batchSize terminal orders closed before the cutoff into their archive tables,
+     * in one transaction
+     *
+     * @return the number of orders moved
+     */
+    public int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        Map<YearMonth, List<Long>> idsByMonth = new TreeMap<>();
+        jdbcTemplate.query(CANDIDATES_SQL, rs -> {
+            YearMonth month = YearMonth.from(rs.getTimestamp("create_date").toLocalDateTime());
+            idsByMonth.computeIfAbsent(month, key -> new ArrayList<>()).add(rs.getLong("id"));
+        }, before, before, batchSize);
+
+        if (idsByMonth.isEmpty()) {
+            return 0;
+        }
+
+        // Created and made visible to readers before any row moves, some databases commit DDL implicitly
+        idsByMonth.keySet().forEach(this::ensureTable);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer moved = transactionTemplate.execute(status -> {
+            int total = 0;
+            for (Map.Entry<YearMonth, List<Long>> month : idsByMonth.entrySet()) {
+                String table = tableName(month.getKey());
+                Object[] ids = month.getValue().toArray();
+                String idList = placeholders(ids.length);
+
+                int inserted = jdbcTemplate.update("INSERT INTO " + table + " (" + MOVED_COLUMNS + ") SELECT " +
+                        MOVED_COLUMNS + " FROM orders WHERE id IN (" + idList + ")", ids);
+                int deleted = jdbcTemplate.update("DELETE FROM orders WHERE id IN (" + idList + ")", ids);
+                if (inserted != deleted) {
+                    throw new IllegalStateException("Archived " + inserted + " orders into " + table +
+                            " but deleted " + deleted);
+                }
+
+                String archiveMonth = month.getKey().toString();
+                if (jdbcTemplate.update(UPDATE_REGISTRY_SQL, inserted, now, archiveMonth) == 0) {
+                    jdbcTemplate.update(INSERT_REGISTRY_SQL, inserted, now, archiveMonth, table);
+                }
+                total += inserted;
+            }
+            return total;
+        });
+
+        log.debug("Archived {} orders into {} monthly tables", moved, idsByMonth.size());
+        return moved != null ? moved : 0;
+    }
+
+    /**
+     * Reads a page of a customer's orders in (createDate, id) order over the orders table and the given archive tables
+     */
+    public List<OrderResponse> findPage(Long customerId, Collection<OrderStatus> statuses, LocalDateTime from,
+                                        LocalDateTime to, LocalDateTime afterDate, Long afterId, int limit,
+                                        List<String> archiveTables) {
+        String filter = String.format(PAGE_FILTER_SQL, placeholders(statuses.size()));
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM (");
+        for (String table : withOrdersTable(archiveTables)) {
+            if (!args.isEmpty()) {
+                sql.append(" UNION ALL ");
+            }
+            // Each branch is bounded on its own index so only limit rows per table are merged
+            sql.append("(SELECT ").append(OrderRows.RESPONSE_COLUMNS).append(" FROM ").append(table)
+                    .append(filter).append(ORDER_BY_SQL).append(" LIMIT ?)");
+            args.add(customerId);
+            statuses.forEach(status -> args.add(status.name()));
+            args.add(Timestamp.valueOf(from));
+            args.add(Timestamp.valueOf(to));
+            args.add(Timestamp.valueOf(afterDate));
+            args.add(Timestamp.valueOf(afterDate));
+            args.add(afterId);
+            args.add(limit);
+        }
+        sql.append(") orders_page").append(ORDER_BY_SQL).append(" LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> OrderRows.toResponse(rs), args.toArray());
+    }
+
+    /**
+     * Counts a customer's orders over the orders table and the given archive tables
+     */
+    public long count(Long customerId, Collection<OrderStatus> statuses, LocalDateTime from, LocalDateTime to,
+                      List<String> archiveTables) {
+        String filter = String.format(COUNT_FILTER_SQL, placeholders(statuses.size()));
+        List<Object> args = new ArrayList<>();
+        List<String> branches = new ArrayList<>();
+        for (String table : withOrdersTable(archiveTables)) {
+            branches.add("SELECT COUNT(*) AS order_count FROM " + table + filter);
+            args.add(customerId);
+            statuses.forEach(status -> args.add(status.name()));
+            args.add(Timestamp.valueOf(from));
+            args.add(Timestamp.valueOf(to));
+        }
+        Long count = jdbcTemplate.queryForObject("SELECT SUM(order_count) FROM (" +
+                String.join(" UNION ALL ", branches) + ") counts", Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Looks an order of a customer up in all archive tables
+     */
+    public Optional<OrderResponse> findById(Long orderId, Long customerId) {
+        List<String> archiveTables = new ArrayList<>(tables().values());
+        if (archiveTables.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Object> args = new ArrayList<>();
+        List<String> branches = new ArrayList<>();
+        for (String table : archiveTables) {
+            branches.add("SELECT " + OrderRows.RESPONSE_COLUMNS + " FROM " + table + " WHERE id = ? AND customer_id = ?");
+            args.add(orderId);
+            args.add(customerId);
+        }
+        return jdbcTemplate.query(String.join(" UNION ALL ", branches),
+                (rs, rowNum) -> OrderRows.toResponse(rs), args.toArray()).stream().findFirst();
+    }
+
+    private void ensureTable(YearMonth month) {
+        if (tables().containsKey(month) || reloadTables().containsKey(month)) {
+            return;
+        }
+        String table = tableName(month);
+        jdbcTemplate.execute(String.format(CREATE_TABLE_SQL, table));
+        jdbcTemplate.execute(String.format(CREATE_INDEX_SQL, table));
+        tables.put(month, table);
+        log.info("Created order archive table {}", table);
+    }
+
+    private NavigableMap<YearMonth, String> tables() {
+        NavigableMap<YearMonth, String> current = tables;
+        if (current == null || System.currentTimeMillis() - tablesLoadedAt >= registryRefreshMs) {
+            return reloadTables();
+        }
+        return current;
+    }
+
+    /**
+     * Replaces the cached registry with the committed one, readers keep the map they already hold
+     */
+    private synchronized NavigableMap<YearMonth, String> reloadTables() {
+        NavigableMap<YearMonth, String> loaded = new ConcurrentSkipListMap<>();
+        jdbcTemplate.query(REGISTRY_SQL, rs -> {
+            loaded.put(YearMonth.parse(rs.getString("archive_month")), rs.getString("table_name"));
+        });
+        tables = loaded;
+        tablesLoadedAt = System.currentTimeMillis();
+        return loaded;
+    }
+
+    private static List<String> withOrdersTable(List<String> archiveTables) {
+        List<String> all = new ArrayList<>(archiveTables.size() + 1);
+        all.add(ORDERS_TABLE);
+        all.addAll(archiveTables);
+        return all;
+    }
+
+    private static String tableName(YearMonth month) {
+        return TABLE_PREFIX + month.format(TABLE_SUFFIX);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.brokerage.service.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically moves matched and canceled orders older than the configured age out of the orders table,
+ * keeping it bounded by the open and recently closed orders
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+    private final OrderArchiveStore archiveStore;
+    private final boolean enabled;
+    private final int maxAgeDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OrderArchiver(OrderArchiveStore archiveStore,
+                         @Value("${brokerage.archive.enabled:true}") boolean enabled,
+                         @Value("${brokerage.archive.max-age-days:90}") int maxAgeDays,
+                         @Value("${brokerage.archive.batch-size:1000}") int batchSize,
+                         @Value("${brokerage.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.archiveStore = archiveStore;
+        this.enabled = enabled;
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Archives in batches until no old terminal orders are left or the per-run limit is reached
+     *
+     * @return the number of orders archived
+     */
+    @Scheduled(fixedDelayString = "${brokerage.archive.interval-ms:3600000}",
+            initialDelayString = "${brokerage.archive.interval-ms:3600000}")
+    public long archive() {
+        if (!enabled) {
+            return 0;
+        }
+
+        long startTime = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        long archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved;
+            try {
+                moved = archiveStore.archiveBatch(cutoff, batchSize);
+            } catch (Exception e) {
+                log.error("Order archive batch failed after {} orders, retrying next run", archived, e);
+                break;
+            }
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} terminal orders closed before {} in {} ms",
+                    archived, cutoff, (System.nanoTime() - startTime) / 1_000_000);
+        }
+        return archived;
+    }
+}
@@ -2,22 +2,30 @@ package com.brokerage.service.command;
 
 import com.brokerage.domain.Asset;
 import com.brokerage.domain.Customer;
+import com.brokerage.domain.Money;
+import com.brokerage.domain.Order;
 import com.brokerage.domain.OrderSide;
 import com.brokerage.exception.AssetNotFoundException;
 import com.brokerage.exception.InsufficientAssetsException;
-import com.brokerage.repository.AssetRepository;
+import com.brokerage.service.ledger.BalanceLedger;
+import com.brokerage.service.ledger.LedgerResult;
+import com.brokerage.service.ledger.PostingReason;
+import com.brokerage.service.matching.Trade;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AssetCommandService {
-    private final AssetRepository assetRepository;
+    private final BalanceLedger ledger;
     private static final String TRY_ASSET = "TRY";
 
     /**
@@ -25,21 +33,7 @@ public class AssetCommandService {
      */
     @Transactional
     public Asset createOrUpdateAsset(Customer customer, String assetName, BigDecimal size) {
-        return assetRepository.findByCustomerAndAssetName(customer, assetName)
-                .map(existingAsset -> {
-                    existingAsset.setSize(existingAsset.getSize().add(size));
-                    existingAsset.setUsableSize(existingAsset.getUsableSize().add(size));
-                    return assetRepository.save(existingAsset);
-                })
-                .orElseGet(() -> {
-                    Asset newAsset = Asset.builder()
-                            .customer(customer)
-                            .assetName(assetName)
-                            .size(size)
-                            .usableSize(size)
-                            .build();
-                    return assetRepository.save(newAsset);
-                });
+        return ledger.credit(customer.getId(), assetName, Money.of(size), PostingReason.DEPOSIT, null);
     }
 
     /**
@@ -54,12 +48,12 @@ public class AssetCommandService {
      * Reserves assets for a new order
      */
     @Transactional
-    public void reserveAssetsForOrder(Long customerId, String assetName, OrderSide side,
-                                      BigDecimal size, BigDecimal price) {
+    public void reserveAssetsForOrder(Long orderId, Long customerId, String assetName, OrderSide side,
+                                      Money size, Money price) {
         if (OrderSide.BUY.equals(side)) {
-            reserveTryForBuyOrder(customerId, size, price);
+            reserveTryForBuyOrder(orderId, customerId, size, price);
         } else if (OrderSide.SELL.equals(side)) {
-            reserveAssetForSellOrder(customerId, assetName, size);
+            reserveAssetForSellOrder(orderId, customerId, assetName, size);
         }
     }
 
@@ -67,12 +61,12 @@ public class AssetCommandService {
      * Releases reserved assets when an order is cancelled
      */
     @Transactional
-    public void releaseReservedAssets(Long customerId, String assetName, OrderSide side,
-                                      BigDecimal size, BigDecimal price) {
+    public void releaseReservedAssets(Long orderId, Long customerId, String assetName, OrderSide side,
+                                      Money size, Money price) {
         if (OrderSide.BUY.equals(side)) {
-            releaseTryForBuyOrder(customerId, size, price);
+            releaseTryForBuyOrder(orderId, customerId, size, price);
         } else if (OrderSide.SELL.equals(side)) {
-            releaseAssetForSellOrder(customerId, assetName, size);
+            releaseAssetForSellOrder(orderId, customerId, assetName, size);
         }
     }
 
@@ -80,31 +74,87 @@ public class AssetCommandService {
      * Updates assets when an order is matched
      */
     @Transactional
-    public void updateAssetsForMatchedOrder(Long customerId, String assetName, OrderSide side,
-                                            BigDecimal size, BigDecimal price) {
+    public void updateAssetsForMatchedOrder(Long orderId, Long customerId, String assetName, OrderSide side,
+                                            Money size, Money price) {
         if (OrderSide.BUY.equals(side)) {
-            finalizeBuyOrder(customerId, assetName, size, price);
+            finalizeBuyOrder(orderId, customerId, assetName, size, price);
         } else if (OrderSide.SELL.equals(side)) {
-            finalizeSellOrder(customerId, assetName, size, price);
+            finalizeSellOrder(orderId, customerId, assetName, size, price);
         }
     }
 
     /**
-     * Reserves TRY for a buy order
+     * Updates assets for a batch of orders matched at their limit price for their remaining size.
+     * Each order moves its balances on the ledger, which writes them back in batches.
+     *
+     * @return the reason for each order that could not be settled, keyed by order ID
      */
     @Transactional
-    public void reserveTryForBuyOrder(Long customerId, BigDecimal size, BigDecimal price) {
-        BigDecimal totalCost = size.multiply(price);
+    public Map<Long, String> updateAssetsForMatchedOrders(List<Order> orders) {
+        Map<Long, String> failures = new LinkedHashMap<>();
+        for (Order order : orders) {
+            Long customerId = order.getCustomer().getId();
+            Money size = Money.of(order.getRemainingSize());
+            Money totalValue = size.times(Money.of(order.getPrice()));
+
+            if (!ledger.contains(customerId, TRY_ASSET)) {
+                failures.put(order.getId(), "Customer does not have TRY asset");
+                continue;
+            }
+
+            if (OrderSide.BUY.equals(order.getOrderSide())) {
+                LedgerResult result = ledger.adjustBalance(customerId, TRY_ASSET, totalValue.negate(), Money.ZERO,
+                        PostingReason.SETTLE, order.getId());
+                if (result != LedgerResult.APPLIED) {
+                    failures.put(order.getId(), "Insufficient TRY balance");
+                    continue;
+                }
+                ledger.credit(customerId, order.getAssetName(), size, PostingReason.SETTLE, order.getId());
+            } else {
+                LedgerResult result = ledger.adjustBalance(customerId, order.getAssetName(), size.negate(), Money.ZERO,
+                        PostingReason.SETTLE, order.getId());
+                if (result != LedgerResult.APPLIED) {
+                    failures.put(order.getId(), result == LedgerResult.NOT_FOUND
+                            ? "Customer does not have " + order.getAssetName() + " asset"
+                            : "Insufficient " + order.getAssetName() + " balance");
+                    continue;
+                }
+                ledger.adjustBalance(customerId, TRY_ASSET, totalValue, totalValue, PostingReason.SETTLE, order.getId());
+            }
+        }
+
+        log.debug("Applied matched order deltas for {} orders, {} failed", orders.size(), failures.size());
+
+        return failures;
+    }
 
-        Asset tryAsset = assetRepository.findByCustomerIdAndAssetName(customerId, TRY_ASSET)
-                .orElseThrow(() -> new AssetNotFoundException("Customer does not have TRY asset"));
+    /**
+     * Settles both sides of a trade produced by the matching engine.
+     * The buyer reserved TRY at its limit price, so any price improvement is released back.
+     */
+    @Transactional
+    public void settleTrade(Trade trade) {
+        finalizeBuyOrder(trade.getBuyOrderId(), trade.getBuyCustomerId(), trade.getAssetName(),
+                trade.getSize(), trade.getPrice());
 
-        if (tryAsset.getUsableSize().compareTo(totalCost) < 0) {
-            throw new InsufficientAssetsException("Insufficient TRY balance for buy order");
+        Money priceImprovement = trade.getBuyLimitPrice().minus(trade.getPrice());
+        if (priceImprovement.signum() > 0) {
+            releaseTryForBuyOrder(trade.getBuyOrderId(), trade.getBuyCustomerId(), trade.getSize(), priceImprovement);
         }
 
-        tryAsset.setUsableSize(tryAsset.getUsableSize().subtract(totalCost));
-        assetRepository.save(tryAsset);
+        finalizeSellOrder(trade.getSellOrderId(), trade.getSellCustomerId(), trade.getAssetName(),
+                trade.getSize(), trade.getPrice());
+    }
+
+    /**
+     * Reserves TRY for a buy order
+     */
+    @Transactional
+    public void reserveTryForBuyOrder(Long orderId, Long customerId, Money size, Money price) {
+        Money totalCost = size.times(price);
+
+        requireApplied(ledger.reserveUsableSize(customerId, TRY_ASSET, totalCost, orderId),
+                TRY_ASSET, "Insufficient TRY balance for buy order");
 
         log.debug("Reserved {} TRY for customer ID {}", totalCost, customerId);
     }
@@ -112,7 +162,7 @@ public class AssetCommandService {
     /**
      * Fallback method for TRY reservation
      */
-    public void fallbackReserveTryForBuyOrder(Long customerId, BigDecimal size, BigDecimal price, Exception e) {
+    public void fallbackReserveTryForBuyOrder(Long orderId, Long customerId, Money size, Money price, Exception e) {
         log.error("Failed to reserve TRY after retries", e);
         throw new RuntimeException("Unable to reserve TRY for buy order", e);
     }
@@ -121,16 +171,9 @@ public class AssetCommandService {
      * Reserves asset for a sell order
      */
     @Transactional
-    public void reserveAssetForSellOrder(Long customerId, String assetName, BigDecimal size) {
-        Asset asset = assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
-                .orElseThrow(() -> new AssetNotFoundException("Customer does not have " + assetName + " asset"));
-
-        if (asset.getUsableSize().compareTo(size) < 0) {
-            throw new InsufficientAssetsException("Insufficient " + assetName + " balance for sell order");
-        }
-
-        asset.setUsableSize(asset.getUsableSize().subtract(size));
-        assetRepository.save(asset);
+    public void reserveAssetForSellOrder(Long orderId, Long customerId, String assetName, Money size) {
+        requireApplied(ledger.reserveUsableSize(customerId, assetName, size, orderId),
+                assetName, "Insufficient " + assetName + " balance for sell order");
 
         log.debug("Reserved {} {} for customer ID {}", size, assetName, customerId);
     }
@@ -139,14 +182,10 @@ public class AssetCommandService {
      * Releases TRY for a cancelled buy order
      */
     @Transactional
-    public void releaseTryForBuyOrder(Long customerId, BigDecimal size, BigDecimal price) {
-        BigDecimal totalCost = size.multiply(price);
-
-        Asset tryAsset = assetRepository.findByCustomerIdAndAssetName(customerId, TRY_ASSET)
-                .orElseThrow(() -> new AssetNotFoundException("Customer does not have TRY asset"));
+    public void releaseTryForBuyOrder(Long orderId, Long customerId, Money size, Money price) {
+        Money totalCost = size.times(price);
 
-        tryAsset.setUsableSize(tryAsset.getUsableSize().add(totalCost));
-        assetRepository.save(tryAsset);
+        adjustBalance(customerId, TRY_ASSET, Money.ZERO, totalCost, PostingReason.RELEASE, orderId);
 
         log.debug("Released {} TRY for customer ID {}", totalCost, customerId);
     }
@@ -155,12 +194,8 @@ public class AssetCommandService {
      * Releases asset for a cancelled sell order
      */
     @Transactional
-    public void releaseAssetForSellOrder(Long customerId, String assetName, BigDecimal size) {
-        Asset asset = assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
-                .orElseThrow(() -> new AssetNotFoundException("Customer does not have " + assetName + " asset"));
-
-        asset.setUsableSize(asset.getUsableSize().add(size));
-        assetRepository.save(asset);
+    public void releaseAssetForSellOrder(Long orderId, Long customerId, String assetName, Money size) {
+        adjustBalance(customerId, assetName, Money.ZERO, size, PostingReason.RELEASE, orderId);
 
         log.debug("Released {} {} for customer ID {}", size, assetName, customerId);
     }
@@ -169,29 +204,11 @@ public class AssetCommandService {
      * Finalizes a buy order by adding the bought asset to customer's portfolio
      */
     @Transactional
-    public void finalizeBuyOrder(Long customerId, String assetName, BigDecimal size, BigDecimal price) {
-        BigDecimal totalCost = size.multiply(price);
-
-        Asset tryAsset = assetRepository.findByCustomerIdAndAssetName(customerId, TRY_ASSET)
-                .orElseThrow(() -> new AssetNotFoundException("Customer does not have TRY asset"));
-
-        tryAsset.setSize(tryAsset.getSize().subtract(totalCost));
-        assetRepository.save(tryAsset);
-
-        Asset asset = assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
-                .orElseGet(() -> {
-                    Asset newAsset = Asset.builder()
-                            .customer(Customer.builder().id(customerId).build())
-                            .assetName(assetName)
-                            .size(BigDecimal.ZERO)
-                            .usableSize(BigDecimal.ZERO)
-                            .build();
-                    return assetRepository.save(newAsset);
-                });
-
-        asset.setSize(asset.getSize().add(size));
-        asset.setUsableSize(asset.getUsableSize().add(size));
-        assetRepository.save(asset);
+    public void finalizeBuyOrder(Long orderId, Long customerId, String assetName, Money size, Money price) {
+        Money totalCost = size.times(price);
+
+        adjustBalance(customerId, TRY_ASSET, totalCost.negate(), Money.ZERO, PostingReason.SETTLE, orderId);
+        ledger.credit(customerId, assetName, size, PostingReason.SETTLE, orderId);
 
         log.debug("Finalized buy order of {} {} for customer ID {}", size, assetName, customerId);
     }
@@ -200,23 +217,28 @@ public class AssetCommandService {
      * Finalizes a sell order by adding TRY to customer's account
      */
     @Transactional
-    public void finalizeSellOrder(Long customerId, String assetName, BigDecimal size, BigDecimal price) {
-        BigDecimal totalValue = size.multiply(price);
-
-        Asset asset = assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
-                .orElseThrow(() -> new AssetNotFoundException("Customer does not have " + assetName + " asset"));
+    public void finalizeSellOrder(Long orderId, Long customerId, String assetName, Money size, Money price) {
+        Money totalValue = size.times(price);
 
-        asset.setSize(asset.getSize().subtract(size));
-        assetRepository.save(asset);
-
-        Asset tryAsset = assetRepository.findByCustomerIdAndAssetName(customerId, TRY_ASSET)
-                .orElseThrow(() -> new AssetNotFoundException("Customer does not have TRY asset"));
-
-        tryAsset.setSize(tryAsset.getSize().add(totalValue));
-        tryAsset.setUsableSize(tryAsset.getUsableSize().add(totalValue));
-        assetRepository.save(tryAsset);
+        adjustBalance(customerId, assetName, size.negate(), Money.ZERO, PostingReason.SETTLE, orderId);
+        adjustBalance(customerId, TRY_ASSET, totalValue, totalValue, PostingReason.SETTLE, orderId);
 
         log.debug("Finalized sell order of {} {} for {} TRY for customer ID {}",
                 size, assetName, totalValue, customerId);
     }
-}
\ No newline at end of file
+
+    private void adjustBalance(Long customerId, String assetName, Money sizeDelta, Money usableDelta,
+                               PostingReason reason, Long orderId) {
+        requireApplied(ledger.adjustBalance(customerId, assetName, sizeDelta, usableDelta, reason, orderId),
+                assetName, "Insufficient " + assetName + " balance");
+    }
+
+    private static void requireApplied(LedgerResult result, String assetName, String insufficientMessage) {
+        switch (result) {
+            case NOT_FOUND -> throw new AssetNotFoundException("Customer does not have " + assetName + " asset");
+            case INSUFFICIENT -> throw new InsufficientAssetsException(insufficientMessage);
+            case APPLIED -> {
+            }
+        }
+    }
+}
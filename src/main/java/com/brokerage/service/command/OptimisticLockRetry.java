@@ -0,0 +1,97 @@
+package com.brokerage.service.command;
+
+import com.brokerage.service.sequencer.OrderCommandSequencer;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Retries commands that lost an optimistic locking race on a versioned entity.
+ *
+ * Each attempt must run in its own transaction, so this wraps calls into the transactional
+ * command services from outside. Waits grow exponentially with random jitter so that
+ * colliding writers do not retry in lockstep. On a sequencer lane the retry is immediate:
+ * the conflicting writer is on another lane and has already committed, while sleeping would
+ * stall every command queued behind this one. Executions, conflicts and exhausted retries are
+ * counted per command in Micrometer, so the conflict rate is conflicts over executions.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+
+    private static final String EXECUTIONS_METRIC = "brokerage.orders.commands";
+    private static final String CONFLICTS_METRIC = "brokerage.orders.optimistic_lock.conflicts";
+    private static final String EXHAUSTED_METRIC = "brokerage.orders.optimistic_lock.exhausted";
+
+    private final RetryConfig retryConfig;
+    private final RetryConfig laneRetryConfig;
+    private final MeterRegistry meterRegistry;
+    private final OrderCommandSequencer sequencer;
+    private final Map<String, Retry> retries = new ConcurrentHashMap<>();
+    private final Map<String, Retry> laneRetries = new ConcurrentHashMap<>();
+
+    public OptimisticLockRetry(
+            MeterRegistry meterRegistry,
+            OrderCommandSequencer sequencer,
+            @Value("${brokerage.retry.optimistic-lock.max-attempts:3}") int maxAttempts,
+            @Value("${brokerage.retry.optimistic-lock.initial-wait-ms:20}") long initialWaitMillis,
+            @Value("${brokerage.retry.optimistic-lock.multiplier:2.0}") double multiplier,
+            @Value("${brokerage.retry.optimistic-lock.randomization-factor:0.5}") double randomizationFactor) {
+        this.meterRegistry = meterRegistry;
+        this.sequencer = sequencer;
+        this.retryConfig = RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                        initialWaitMillis, multiplier, randomizationFactor))
+                .retryExceptions(OptimisticLockingFailureException.class, OptimisticLockException.class)
+                .build();
+        // IntervalFunction.of rejects intervals below 1 ms, a zero wait needs its own function
+        this.laneRetryConfig = RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalFunction(attempt -> 0L)
+                .retryExceptions(OptimisticLockingFailureException.class, OptimisticLockException.class)
+                .build();
+    }
+
+    /**
+     * Runs the command, retrying it on optimistic locking failures
+     */
+    public <T> T execute(String command, Supplier<T> supplier) {
+        meterRegistry.counter(EXECUTIONS_METRIC, "command", command).increment();
+        Retry retry = sequencer.isLaneThread()
+                ? laneRetries.computeIfAbsent(command, name -> createRetry(name, laneRetryConfig))
+                : retries.computeIfAbsent(command, name -> createRetry(name, retryConfig));
+        return retry.executeSupplier(supplier);
+    }
+
+    private Retry createRetry(String command, RetryConfig config) {
+        Retry retry = Retry.of(command, config);
+        Counter conflicts = meterRegistry.counter(CONFLICTS_METRIC, "command", command);
+        Counter exhausted = meterRegistry.counter(EXHAUSTED_METRIC, "command", command);
+
+        retry.getEventPublisher()
+                .onRetry(event -> {
+                    conflicts.increment();
+                    log.debug("Optimistic lock conflict on {}, retry {} in {}",
+                            command, event.getNumberOfRetryAttempts(), event.getWaitInterval());
+                })
+                .onError(event -> {
+                    conflicts.increment();
+                    exhausted.increment();
+                    log.warn("Optimistic lock conflict on {} persisted after {} attempts",
+                            command, event.getNumberOfRetryAttempts());
+                });
+        return retry;
+    }
+}
@@ -0,0 +1,73 @@
+package com.brokerage.service.command;
+
+import com.brokerage.api.dto.request.BatchMatchOrderRequest;
+import com.brokerage.api.dto.response.BatchMatchResponse;
+import com.brokerage.api.dto.response.BatchMatchResult;
+import com.brokerage.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchMatchService {
+
+    private final OrderRepository orderRepository;
+    private final OrderCommandGateway orderCommandGateway;
+
+    /**
+     * Matches many open orders at their limit price, one transaction per chunk.
+     *
+     * Orders are grouped by the command lane they route to and each chunk runs on that lane through the
+     * {@link OrderCommandGateway}, so batch matching is serialized with the other commands on the same
+     * order books. A failing order is reported and skipped; a chunk that fails to commit reports all of
+     * its orders as failed without affecting the other chunks. Results are returned in the order the
+     * ids were requested in, whatever lane their chunk ran on.
+     */
+    public BatchMatchResponse matchOrders(BatchMatchOrderRequest request) {
+        long startTime = System.nanoTime();
+
+        List<Long> orderIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty()
+                ? new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()))
+                : orderRepository.findIdsByAssetNameAndStatusIn(request.getAssetName(), request.getOrderStatuses());
+
+        int chunkSize = request.getEffectiveChunkSize();
+        Map<Long, BatchMatchResult> resultsById = new HashMap<>();
+        int chunks = 0;
+
+        for (Map.Entry<Object, List<Long>> group : orderCommandGateway.groupByRoutingKey(orderIds).entrySet()) {
+            List<Long> groupIds = group.getValue();
+            for (int from = 0; from < groupIds.size(); from += chunkSize) {
+                List<Long> chunk = groupIds.subList(from, Math.min(from + chunkSize, groupIds.size()));
+                chunks++;
+                try {
+                    orderCommandGateway.matchOrders(group.getKey(), chunk)
+                            .forEach(result -> resultsById.put(result.getOrderId(), result));
+                } catch (Exception e) {
+                    log.error("Batch match chunk of {} orders starting at {} failed", chunk.size(), chunk.get(0), e);
+                    chunk.forEach(orderId ->
+                            resultsById.put(orderId, BatchMatchResult.failure(orderId, "Chunk rolled back: " + e.getMessage())));
+                }
+            }
+        }
+        List<BatchMatchResult> results = orderIds.stream().map(resultsById::get).toList();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        int matched = (int) results.stream().filter(BatchMatchResult::isSuccess).count();
+
+        log.info("Batch matched {} of {} orders in {} chunks, {} ms", matched, orderIds.size(), chunks, elapsedMillis);
+
+        return BatchMatchResponse.builder()
+                .requested(orderIds.size())
+                .matched(matched)
+                .failed(results.size() - matched)
+                .chunks(chunks)
+                .elapsedMillis(elapsedMillis)
+                .ordersPerSecond(matched * 1000.0 / elapsedMillis)
+                .results(results)
+                .build();
+    }
+}
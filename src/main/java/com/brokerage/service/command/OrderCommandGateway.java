@@ -0,0 +1,153 @@
+package com.brokerage.service.command;
+
+import com.brokerage.api.dto.request.CreateOrderRequest;
+import com.brokerage.api.dto.response.BatchMatchResult;
+import com.brokerage.domain.Asset;
+import com.brokerage.domain.Customer;
+import com.brokerage.domain.Order;
+import com.brokerage.journal.CommandJournal;
+import com.brokerage.journal.JournalCommand;
+import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.sequencer.OrderCommandSequencer;
+import com.brokerage.service.sequencer.SequencerRouting;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for order commands from the API.
+ *
+ * Commands are routed through the {@link OrderCommandSequencer} by asset or by customer,
+ * so all commands for the same key are executed by one writer thread and the request
+ * thread only waits for the result. Each command runs in a transaction of its own and is
+ * retried in a new one by {@link OptimisticLockRetry} if it loses an optimistic locking race.
+ * Once it commits, its outcome (including any id it assigned) is appended to the
+ * {@link CommandJournal} before the lane moves on to the next command.
+ */
+@Slf4j
+@Service
+public class OrderCommandGateway {
+
+    private final OrderCommandService orderCommandService;
+    private final AssetCommandService assetCommandService;
+    private final OrderRepository orderRepository;
+    private final CommandJournal journal;
+    private final OptimisticLockRetry retry;
+    private final OrderCommandSequencer sequencer;
+    private final SequencerRouting routing;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderCommandGateway(OrderCommandService orderCommandService,
+                               AssetCommandService assetCommandService,
+                               OrderRepository orderRepository,
+                               CommandJournal journal,
+                               OptimisticLockRetry retry,
+                               OrderCommandSequencer sequencer,
+                               @Value("${brokerage.sequencer.routing:ASSET}") SequencerRouting routing,
+                               TransactionTemplate transactionTemplate) {
+        this.orderCommandService = orderCommandService;
+        this.assetCommandService = assetCommandService;
+        this.orderRepository = orderRepository;
+        this.journal = journal;
+        this.retry = retry;
+        this.sequencer = sequencer;
+        this.routing = routing;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public Order createOrder(Long customerId, CreateOrderRequest request) {
+        Object routingKey = routing == SequencerRouting.ASSET ? request.getAssetName() : customerId;
+        return execute(routingKey, "createOrder",
+                () -> orderCommandService.createOrder(customerId, request),
+                JournalCommand::createOrder);
+    }
+
+    public Order cancelOrder(Long orderId, Long customerId) {
+        Object routingKey = routing == SequencerRouting.ASSET ? assetRoutingKey(orderId) : customerId;
+        return execute(routingKey, "cancelOrder",
+                () -> orderCommandService.cancelOrder(orderId, customerId),
+                order -> JournalCommand.cancelOrder(orderId, customerId));
+    }
+
+    public Order matchOrder(Long orderId) {
+        Object routingKey = routing == SequencerRouting.ASSET
+                ? assetRoutingKey(orderId)
+                : orderRepository.findCustomerIdById(orderId).map(Object.class::cast).orElse(orderId);
+        return execute(routingKey, "matchOrder",
+                () -> orderCommandService.matchOrder(orderId),
+                order -> JournalCommand.matchOrder(orderId));
+    }
+
+    /**
+     * Matches a chunk of orders sharing a routing key on their lane, in one transaction
+     *
+     * @param routingKey a key returned by {@link #groupByRoutingKey}
+     */
+    public List<BatchMatchResult> matchOrders(Object routingKey, List<Long> orderIds) {
+        return execute(routingKey, "matchOrders",
+                () -> orderCommandService.matchOrders(orderIds),
+                results -> {
+                    List<Long> matched = results.stream()
+                            .filter(BatchMatchResult::isSuccess)
+                            .map(BatchMatchResult::getOrderId)
+                            .toList();
+                    return matched.isEmpty() ? null : JournalCommand.matchOrders(matched);
+                });
+    }
+
+    /**
+     * Groups orders by the routing key their commands run under, keeping the given order within each group.
+     * Unknown orders are keyed by their own id like single commands, and fail with not found on that lane.
+     */
+    public Map<Object, List<Long>> groupByRoutingKey(List<Long> orderIds) {
+        Map<Long, Object> keyById = new HashMap<>(orderIds.size() * 2);
+        for (Object[] row : orderRepository.findRoutingFieldsByIdIn(orderIds)) {
+            keyById.put((Long) row[0], routing == SequencerRouting.ASSET ? row[1] : row[2]);
+        }
+
+        Map<Object, List<Long>> groups = new LinkedHashMap<>();
+        for (Long orderId : orderIds) {
+            groups.computeIfAbsent(keyById.getOrDefault(orderId, orderId), key -> new ArrayList<>()).add(orderId);
+        }
+        return groups;
+    }
+
+    public Asset depositAsset(Customer customer, String assetName, BigDecimal size) {
+        Object routingKey = routing == SequencerRouting.ASSET ? assetName : customer.getId();
+        return execute(routingKey, "depositAsset",
+                () -> assetCommandService.createOrUpdateAsset(customer, assetName, size),
+                asset -> JournalCommand.deposit(customer.getId(), assetName, size));
+    }
+
+    /**
+     * Runs a command on its lane in a transaction of its own per attempt, journaling its outcome once it commits.
+     * A command whose outcome changed nothing may map to a null journal entry.
+     */
+    private <T> T execute(Object routingKey, String name, Supplier<T> command, Function<T, JournalCommand> journalEntry) {
+        return sequencer.execute(routingKey, () -> retry.execute(name, () -> transactionTemplate.execute(status -> {
+            T result = command.get();
+            JournalCommand entry = journalEntry.apply(result);
+            if (entry != null) {
+                journal.appendAfterCommit(entry);
+            }
+            return result;
+        })));
+    }
+
+    /**
+     * Unknown orders fall back to their own id as key; the command then fails with not found on its lane
+     */
+    private Object assetRoutingKey(Long orderId) {
+        return orderRepository.findAssetNameById(orderId).map(Object.class::cast).orElse(orderId);
+    }
+}
@@ -1,21 +1,37 @@
 package com.brokerage.service.command;
 
 import com.brokerage.api.dto.request.CreateOrderRequest;
+import com.brokerage.api.dto.response.BatchMatchResult;
 import com.brokerage.api.mapper.OrderMapper;
 import com.brokerage.domain.Customer;
+import com.brokerage.domain.Money;
 import com.brokerage.domain.Order;
+import com.brokerage.domain.OrderSide;
 import com.brokerage.domain.OrderStatus;
 import com.brokerage.event.*;
 import com.brokerage.exception.CustomerNotFoundException;
 import com.brokerage.exception.OrderNotFoundException;
 import com.brokerage.exception.OrderStatusException;
+import com.brokerage.journal.ReplayContext;
 import com.brokerage.repository.CustomerRepository;
 import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.matching.MatchingEngine;
+import com.brokerage.service.matching.Trade;
+import com.brokerage.service.stats.TradeExecutedEvent;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -24,8 +40,10 @@ public class OrderCommandService {
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final AssetCommandService assetCommandService;
-    private final ResilientEventPublisher eventPublisher;
+    private final OrderEventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private final OrderMapper orderMapper;
+    private final MatchingEngine matchingEngine;
 
     /**
      * Creates a new order with retry mechanism
@@ -42,24 +60,84 @@ public class OrderCommandService {
 
         Order order = orderMapper.toEntity(request, customer);
 
+        // Saved first so the reservation postings carry the order id; a failed reservation rolls it back
+        Order savedOrder = orderRepository.save(order);
+
         assetCommandService.reserveAssetsForOrder(
+                savedOrder.getId(),
                 customerId,
                 order.getAssetName(),
                 order.getOrderSide(),
-                order.getSize(),
-                order.getPrice()
+                Money.of(order.getSize()),
+                Money.of(order.getPrice())
         );
 
-        Order savedOrder = orderRepository.save(order);
-
-        eventPublisher.publishOrderEvent(OrderCreatedEvent.fromOrder(savedOrder));
+        publish(OrderCreatedEvent.fromOrder(savedOrder));
 
         log.info("Created {} order for {} {}, price: {}, customer: {}",
                 order.getOrderSide(), order.getSize(), order.getAssetName(), order.getPrice(), customerId);
 
+        for (Trade trade : matchingEngine.submit(savedOrder)) {
+            settleTrade(trade, savedOrder);
+        }
+
         return savedOrder;
     }
 
+    /**
+     * Settles a trade between the incoming order and a resting order from the book,
+     * moving both customers' assets for the filled quantity and recording the fill on both orders
+     */
+    private void settleTrade(Trade trade, Order incomingOrder) {
+        Long restingOrderId = OrderSide.BUY.equals(incomingOrder.getOrderSide())
+                ? trade.getSellOrderId()
+                : trade.getBuyOrderId();
+
+        Order restingOrder = orderRepository.findById(restingOrderId)
+                .orElseThrow(() -> new OrderNotFoundException("Resting order not found: " + restingOrderId));
+
+        if (!restingOrder.getStatus().isOpen()) {
+            throw new OrderStatusException("Resting order " + restingOrderId + " is no longer open");
+        }
+
+        assetCommandService.settleTrade(trade);
+        publishTrade(trade.getAssetName(), trade.getSize(), trade.getPrice());
+
+        recordFill(restingOrder, trade.getSize(), trade.getPrice());
+        recordFill(incomingOrder, trade.getSize(), trade.getPrice());
+
+        log.info("Matched buy order {} with sell order {} for {} {} at {}",
+                trade.getBuyOrderId(), trade.getSellOrderId(), trade.getSize(), trade.getAssetName(), trade.getPrice());
+    }
+
+    private void recordFill(Order order, Money fillSize, Money fillPrice) {
+        order.applyFill(fillSize.toBigDecimal(), fillPrice.toBigDecimal());
+        Order filledOrder = orderRepository.save(order);
+        publish(OrderMatchedEvent.fromFill(
+                filledOrder, fillSize.toBigDecimal(), fillPrice.toBigDecimal()));
+    }
+
+    /**
+     * Publishes an order event to Kafka and in-process, where listeners such as cache invalidation see it.
+     * Nothing is published while the journal is replayed, the events went out when the command first ran.
+     */
+    private void publish(OrderEvent event) {
+        if (ReplayContext.isReplaying()) {
+            return;
+        }
+        eventPublisher.publishOrderEvent(event);
+        applicationEventPublisher.publishEvent(event);
+    }
+
+    /**
+     * Publishes an executed trade in-process for the market statistics, except during journal replay
+     */
+    private void publishTrade(String assetName, Money size, Money price) {
+        if (!ReplayContext.isReplaying()) {
+            applicationEventPublisher.publishEvent(new TradeExecutedEvent(assetName, size, price));
+        }
+    }
+
     /**
      * Fallback method for order creation
      */
@@ -69,31 +147,35 @@ public class OrderCommandService {
     }
 
     /**
-     * Cancels a pending order with retry mechanism
+     * Cancels an open order with retry mechanism, releasing only the unfilled remainder
      */
     @Transactional
     public Order cancelOrder(Long orderId, Long customerId) {
         Order order = orderRepository.findByIdAndCustomerId(orderId, customerId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found"));
 
-        if (!OrderStatus.PENDING.equals(order.getStatus())) {
-            throw new OrderStatusException("Only pending orders can be cancelled");
+        if (!order.getStatus().isOpen()) {
+            throw new OrderStatusException("Only pending or partially filled orders can be cancelled");
         }
 
+        matchingEngine.remove(order);
+
         assetCommandService.releaseReservedAssets(
+                orderId,
                 customerId,
                 order.getAssetName(),
                 order.getOrderSide(),
-                order.getSize(),
-                order.getPrice()
+                Money.of(order.getRemainingSize()),
+                Money.of(order.getPrice())
         );
 
         order.setStatus(OrderStatus.CANCELED);
         Order cancelledOrder = orderRepository.save(order);
 
-        eventPublisher.publishOrderEvent(OrderCancelledEvent.fromOrder(cancelledOrder));
+        publish(OrderCancelledEvent.fromOrder(cancelledOrder));
 
-        log.info("Cancelled order {}, customer: {}", orderId, customerId);
+        log.info("Cancelled order {}, customer: {}, released remaining size: {}",
+                orderId, customerId, order.getRemainingSize());
 
         return cancelledOrder;
     }
@@ -107,35 +189,91 @@ public class OrderCommandService {
     }
 
     /**
-     * Matches a pending order with circuit breaker
+     * Matches the remaining size of an open order at its limit price with circuit breaker
      */
     @Transactional
     public Order matchOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found"));
 
-        if (!OrderStatus.PENDING.equals(order.getStatus())) {
-            throw new OrderStatusException("Only pending orders can be matched");
+        if (!order.getStatus().isOpen()) {
+            throw new OrderStatusException("Only pending or partially filled orders can be matched");
         }
 
+        matchingEngine.remove(order);
+
+        BigDecimal fillSize = order.getRemainingSize();
         assetCommandService.updateAssetsForMatchedOrder(
+                orderId,
                 order.getCustomer().getId(),
                 order.getAssetName(),
                 order.getOrderSide(),
-                order.getSize(),
-                order.getPrice()
+                Money.of(fillSize),
+                Money.of(order.getPrice())
         );
 
-        order.setStatus(OrderStatus.MATCHED);
+        order.applyFill(fillSize, order.getPrice());
         Order matchedOrder = orderRepository.save(order);
+        publishTrade(order.getAssetName(), Money.of(fillSize), Money.of(order.getPrice()));
 
-        eventPublisher.publishOrderEvent(OrderMatchedEvent.fromOrder(matchedOrder));
+        publish(OrderMatchedEvent.fromFill(matchedOrder, fillSize, order.getPrice()));
 
         log.info("Matched order {}, customer: {}", orderId, order.getCustomer().getId());
 
         return matchedOrder;
     }
 
+    /**
+     * Matches a chunk of open orders at their limit price in one transaction.
+     *
+     * The orders and their balances are loaded once for the chunk. An order that is missing, no longer
+     * open or cannot be settled is reported and skipped; any other failure rolls back the whole chunk.
+     *
+     * @return one result per requested order, in the order of the requested ids
+     */
+    @Transactional
+    public List<BatchMatchResult> matchOrders(List<Long> orderIds) {
+        Map<Long, Order> ordersById = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        Map<Long, BatchMatchResult> resultsById = new HashMap<>();
+        List<Order> openOrders = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            Order order = ordersById.get(orderId);
+            if (order == null) {
+                resultsById.put(orderId, BatchMatchResult.failure(orderId, "Order not found"));
+            } else if (!order.getStatus().isOpen()) {
+                resultsById.put(orderId,
+                        BatchMatchResult.failure(orderId, "Only pending or partially filled orders can be matched"));
+            } else {
+                openOrders.add(order);
+            }
+        }
+
+        Map<Long, String> failures = assetCommandService.updateAssetsForMatchedOrders(openOrders);
+
+        for (Order order : openOrders) {
+            String reason = failures.get(order.getId());
+            if (reason != null) {
+                resultsById.put(order.getId(), BatchMatchResult.failure(order.getId(), reason));
+                continue;
+            }
+
+            BigDecimal fillSize = order.getRemainingSize();
+            matchingEngine.remove(order);
+            order.applyFill(fillSize, order.getPrice());
+            publishTrade(order.getAssetName(), Money.of(fillSize), Money.of(order.getPrice()));
+            publish(OrderMatchedEvent.fromFill(order, fillSize, order.getPrice()));
+            resultsById.put(order.getId(), BatchMatchResult.builder()
+                    .orderId(order.getId())
+                    .success(true)
+                    .message("Order matched")
+                    .build());
+        }
+
+        return orderIds.stream().map(resultsById::get).toList();
+    }
+
     /**
      * Fallback method for order matching
      */
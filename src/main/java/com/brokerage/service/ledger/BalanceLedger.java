@@ -0,0 +1,662 @@
+package com.brokerage.service.ledger;
+
+import com.brokerage.domain.Asset;
+import com.brokerage.domain.Customer;
+import com.brokerage.domain.Money;
+import com.brokerage.journal.ReplayContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ledger of customer asset balances, used as the source of truth for reservations.
+ *
+ * Balances are keyed by customer and asset symbol packed into one long and spread over
+ * striped {@link LongKeyMap}s, so a balance check or move only takes its stripe lock and never
+ * touches the database. Amounts are held as scaled {@link Money} units.
+ *
+ * Inside a transaction, debits are taken from the available balance right away, so no two
+ * transactions can spend the same funds, and are refunded if the transaction rolls back. Credits
+ * and releases only become available once the transaction commits, so no other command can spend
+ * funds that may still be rolled back. The first credit of a new asset inserts its row outside the
+ * stripe lock; other transactions touching that asset wait until the creating one completes.
+ *
+ * Every change is recorded as a {@link LedgerPosting} per balance bucket, with the reason and order
+ * behind it. Postings are inserted in one JDBC batch in the transaction of the command that made
+ * them, so they are durable before the command is acknowledged, and are periodically compacted
+ * into snapshots by the {@link LedgerPostingStore}. Committed balances are written back to the
+ * assets table in JDBC batches by a scheduled flush; only a balance for a new asset is inserted
+ * synchronously, to get its id. On startup, balances are derived from the latest snapshots plus
+ * postings; a balance that disagrees with its assets row is logged and the row is corrected.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+public class BalanceLedger {
+
+    private static final int ASSET_SYMBOL_BITS = 20;
+    // How long a transaction waits for another one to commit or roll back the asset it is creating
+    private static final long CREATION_WAIT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String SELECT_ALL_SQL =
+            "SELECT id, customer_id, asset_name, size, usable_size, created_at, updated_at FROM assets";
+    private static final String INSERT_SQL =
+            "INSERT INTO assets (customer_id, asset_name, size, usable_size, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String UPDATE_SQL =
+            "UPDATE assets SET size = ?, usable_size = ?, updated_at = ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerPostingStore postingStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private final Map<String, Integer> assetSymbols = new ConcurrentHashMap<>();
+    private final AtomicInteger nextAssetSymbol = new AtomicInteger(1);
+    private final Map<Long, Set<String>> assetNamesByCustomer = new ConcurrentHashMap<>();
+    private final Map<Long, Long> keysByAssetId = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+    // Held shared from inserting postings until commit and exclusively while taking the compaction watermark
+    private final ReadWriteLock postingLock = new ReentrantReadWriteLock();
+
+    public BalanceLedger(JdbcTemplate jdbcTemplate,
+                         LedgerPostingStore postingStore,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${brokerage.ledger.stripes:64}") int stripeCount) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Ledger stripe count must be a power of two: " + stripeCount);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.postingStore = postingStore;
+        this.transactionTemplate = transactionTemplate;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Loads every persisted balance into memory, taking the balance derived from snapshots and postings where there is one
+     */
+    @PostConstruct
+    public void load() {
+        List<LedgerEntry> entries = jdbcTemplate.query(SELECT_ALL_SQL, (rs, rowNum) -> new LedgerEntry(
+                rs.getLong("id"),
+                rs.getLong("customer_id"),
+                rs.getString("asset_name"),
+                Money.of(rs.getBigDecimal("size")).units(),
+                Money.of(rs.getBigDecimal("usable_size")).units(),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getTimestamp("updated_at").toLocalDateTime()));
+
+        Map<Long, DerivedBalance> derived = new HashMap<>();
+        for (DerivedBalance balance : postingStore.deriveBalances()) {
+            derived.put(keyOf(balance.getCustomerId(), balance.getAssetName()), balance);
+        }
+
+        int corrected = 0;
+        for (LedgerEntry entry : entries) {
+            long key = keyOf(entry.customerId, entry.assetName);
+            DerivedBalance balance = derived.get(key);
+            if (balance != null && (balance.getSize() != entry.size || balance.getUsableSize() != entry.usableSize)) {
+                log.warn("Asset {} of customer {} is {}/{} but its postings give {}/{}, correcting",
+                        entry.assetName, entry.customerId,
+                        Money.ofUnits(entry.size), Money.ofUnits(entry.usableSize),
+                        Money.ofUnits(balance.getSize()), Money.ofUnits(balance.getUsableSize()));
+                entry.size = balance.getSize();
+                entry.usableSize = balance.getUsableSize();
+                entry.committedSize = balance.getSize();
+                entry.committedUsableSize = balance.getUsableSize();
+                dirtyKeys.add(key);
+                corrected++;
+            }
+            Stripe stripe = stripeOf(key);
+            synchronized (stripe) {
+                stripe.entries.put(key, entry);
+            }
+            index(key, entry);
+        }
+
+        log.info("Loaded {} asset balances into the ledger, corrected {} from postings", entries.size(), corrected);
+    }
+
+    public boolean contains(Long customerId, String assetName) {
+        long key = keyOf(customerId, assetName);
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            LedgerEntry entry = stripe.entries.get(key);
+            return entry != null && entry.id != null;
+        }
+    }
+
+    public Optional<Asset> find(Long customerId, String assetName) {
+        long key = keyOf(customerId, assetName);
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            return Optional.ofNullable(stripe.entries.get(key))
+                    .filter(entry -> entry.id != null)
+                    .map(BalanceLedger::toAsset);
+        }
+    }
+
+    public Optional<Asset> findById(Long assetId) {
+        Long key = keysByAssetId.get(assetId);
+        if (key == null) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            return Optional.ofNullable(stripe.entries.get(key)).map(BalanceLedger::toAsset);
+        }
+    }
+
+    public List<Asset> findByCustomerId(Long customerId) {
+        List<Asset> assets = new ArrayList<>();
+        for (String assetName : assetNamesByCustomer.getOrDefault(customerId, Set.of())) {
+            find(customerId, assetName).ifPresent(assets::add);
+        }
+        assets.sort(Comparator.comparing(Asset::getId));
+        return assets;
+    }
+
+    /**
+     * Moves an amount out of the usable balance if enough of it is available
+     */
+    public LedgerResult reserveUsableSize(Long customerId, String assetName, Money amount, Long orderId) {
+        return adjust(customerId, assetName, 0, -amount.units(), PostingReason.RESERVE, orderId);
+    }
+
+    /**
+     * Adds the deltas to the total and usable balances as long as neither goes negative
+     */
+    public LedgerResult adjustBalance(Long customerId, String assetName, Money sizeDelta, Money usableDelta,
+                                      PostingReason reason, Long orderId) {
+        return adjust(customerId, assetName, sizeDelta.units(), usableDelta.units(), reason, orderId);
+    }
+
+    /**
+     * Adds an amount to both balances, creating the asset if the customer does not hold it yet
+     *
+     * @return the asset as it will be once the credit is committed
+     */
+    public Asset credit(Long customerId, String assetName, Money amount, PostingReason reason, Long orderId) {
+        long key = keyOf(customerId, assetName);
+        Stripe stripe = stripeOf(key);
+        TransactionChanges transaction = currentTransaction();
+        LedgerEntry entry;
+        Change change;
+        Asset asset = null;
+        synchronized (stripe) {
+            entry = awaitCreated(stripe, key, transaction);
+            if (entry != null) {
+                change = new Change(key, amount.units(), amount.units(), false);
+                begin(entry, change);
+                asset = toAsset(entry);
+            } else {
+                // Claims the key, the entry holds nothing until the insert commits
+                change = new Change(key, amount.units(), amount.units(), true);
+                entry = new LedgerEntry(null, customerId, assetName, 0, 0, null, null);
+                entry.creator = transaction != null ? transaction : change;
+                begin(entry, change);
+                stripe.entries.put(key, entry);
+            }
+        }
+
+        if (change.created) {
+            // The row is inserted with the credit, without holding up the other keys of the stripe
+            LedgerEntry inserted;
+            try {
+                inserted = insert(customerId, assetName, amount);
+            } catch (RuntimeException e) {
+                remove(key, entry);
+                throw e;
+            }
+            synchronized (stripe) {
+                entry.id = inserted.id;
+                entry.createdAt = inserted.createdAt;
+                entry.updatedAt = inserted.updatedAt;
+                asset = toAsset(entry);
+            }
+            index(key, entry);
+        }
+        record(change, postings(customerId, assetName, amount.units(), amount.units(), reason, orderId));
+
+        asset.setSize(asset.getSize().add(amount.toBigDecimal()));
+        asset.setUsableSize(asset.getUsableSize().add(amount.toBigDecimal()));
+        return asset;
+    }
+
+    /**
+     * Returns an asset's balances if no running transaction has an uncommitted change on it, so that
+     * every order that ever changed them is committed
+     */
+    public Optional<Asset> findSettled(Long customerId, String assetName) {
+        long key = keyOf(customerId, assetName);
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            return Optional.ofNullable(stripe.entries.get(key))
+                    .filter(entry -> entry.creator == null && entry.openChanges == 0)
+                    .map(BalanceLedger::toAsset);
+        }
+    }
+
+    /**
+     * Sets the usable balance to a corrected value, but only if both balances still have the values they
+     * were observed with through {@link #findSettled} and no running transaction has changed them since
+     *
+     * @return false if the asset is gone, changed since it was observed or has uncommitted changes
+     */
+    public boolean correctUsableSize(Long customerId, String assetName, Money observedSize, Money observedUsable,
+                                     Money corrected) {
+        long key = keyOf(customerId, assetName);
+        long delta = corrected.minus(observedUsable).units();
+        Stripe stripe = stripeOf(key);
+        Change change = new Change(key, 0, delta, false);
+        synchronized (stripe) {
+            LedgerEntry entry = stripe.entries.get(key);
+            if (entry == null || entry.creator != null || entry.openChanges != 0
+                    || entry.size != observedSize.units() || entry.usableSize != observedUsable.units()) {
+                return false;
+            }
+            begin(entry, change);
+        }
+        record(change, postings(customerId, assetName, 0, delta, PostingReason.ADJUST, null));
+        return true;
+    }
+
+    /**
+     * Writes all changed committed balances to the assets table in one JDBC batch
+     */
+    @Scheduled(fixedDelayString = "${brokerage.ledger.flush-interval-ms:100}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (dirtyKeys.isEmpty()) {
+                return;
+            }
+
+            List<Long> keys = new ArrayList<>();
+            List<Object[]> rows = new ArrayList<>();
+            for (Iterator<Long> iterator = dirtyKeys.iterator(); iterator.hasNext(); ) {
+                Long key = iterator.next();
+                iterator.remove();
+                Stripe stripe = stripeOf(key);
+                synchronized (stripe) {
+                    LedgerEntry entry = stripe.entries.get(key);
+                    if (entry != null) {
+                        keys.add(key);
+                        rows.add(new Object[]{
+                                Money.ofUnits(entry.committedSize).toBigDecimal(),
+                                Money.ofUnits(entry.committedUsableSize).toBigDecimal(),
+                                Timestamp.valueOf(entry.updatedAt),
+                                entry.id});
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, rows));
+                log.debug("Flushed {} ledger balances", rows.size());
+            } catch (RuntimeException e) {
+                dirtyKeys.addAll(keys);
+                log.error("Failed to flush {} ledger balances, will retry", rows.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Folds the postings written so far into the balance snapshots and deletes expired ones.
+     *
+     * Only reading the watermark excludes posting inserts, so that no posting below it can commit
+     * after it was taken; the folding itself runs a transaction per batch while commands go on
+     * inserting postings above the watermark.
+     */
+    @Scheduled(fixedDelayString = "${brokerage.ledger.snapshot-interval-ms:60000}",
+            initialDelayString = "${brokerage.ledger.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        try {
+            Long watermark;
+            postingLock.writeLock().lock();
+            try {
+                watermark = postingStore.watermark();
+            } finally {
+                postingLock.writeLock().unlock();
+            }
+            if (watermark == null) {
+                return;
+            }
+
+            long folded = postingStore.foldedThrough();
+            while (folded < watermark) {
+                long after = folded;
+                folded = transactionTemplate.execute(status -> postingStore.fold(after, watermark));
+            }
+            int deleted = postingStore.deleteExpired(watermark);
+            log.info("Compacted ledger postings up to {}, deleted {} postings", watermark, deleted);
+        } catch (RuntimeException e) {
+            log.error("Failed to compact ledger postings, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    public int pendingWrites() {
+        return dirtyKeys.size();
+    }
+
+    private LedgerResult adjust(Long customerId, String assetName, long sizeDelta, long usableDelta,
+                                PostingReason reason, Long orderId) {
+        long key = keyOf(customerId, assetName);
+        Stripe stripe = stripeOf(key);
+        Change change = new Change(key, sizeDelta, usableDelta, false);
+        TransactionChanges transaction = currentTransaction();
+        synchronized (stripe) {
+            LedgerEntry entry = awaitCreated(stripe, key, transaction);
+            if (entry == null) {
+                return LedgerResult.NOT_FOUND;
+            }
+            if (Math.addExact(entry.size, Math.min(sizeDelta, 0)) < 0
+                    || Math.addExact(entry.usableSize, Math.min(usableDelta, 0)) < 0) {
+                return LedgerResult.INSUFFICIENT;
+            }
+            begin(entry, change);
+        }
+        record(change, postings(customerId, assetName, sizeDelta, usableDelta, reason, orderId));
+        return LedgerResult.APPLIED;
+    }
+
+    /**
+     * Returns the entry of a key once no other transaction is still creating it, waiting on the stripe
+     * monitor otherwise. Must be called holding the stripe lock.
+     *
+     * @param transaction the calling transaction, whose own new entries are returned right away
+     * @return the entry, or null if there is none, also when its creator rolled back
+     */
+    private static LedgerEntry awaitCreated(Stripe stripe, long key, Object transaction) {
+        LedgerEntry entry = stripe.entries.get(key);
+        long deadline = System.nanoTime() + CREATION_WAIT_NANOS;
+        while (entry != null && entry.creator != null && entry.creator != transaction) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("Timed out waiting for asset " + entry.assetName +
+                        " of customer " + entry.customerId + " to be created");
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(stripe, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for asset " + entry.assetName + " to be created", e);
+            }
+            entry = stripe.entries.get(key);
+        }
+        return entry;
+    }
+
+    /**
+     * Takes the debits of a change from the available balance and counts it as open, under the stripe lock
+     */
+    private static void begin(LedgerEntry entry, Change change) {
+        entry.size = Math.addExact(entry.size, Math.min(change.sizeDelta, 0));
+        entry.usableSize = Math.addExact(entry.usableSize, Math.min(change.usableDelta, 0));
+        entry.openChanges++;
+    }
+
+    /**
+     * Makes the credits of a committed change available and applies the whole change to the committed balance
+     */
+    private void commit(Change change) {
+        Stripe stripe = stripeOf(change.key);
+        synchronized (stripe) {
+            LedgerEntry entry = stripe.entries.get(change.key);
+            if (entry == null) {
+                return;
+            }
+            entry.size = Math.addExact(entry.size, Math.max(change.sizeDelta, 0));
+            entry.usableSize = Math.addExact(entry.usableSize, Math.max(change.usableDelta, 0));
+            entry.committedSize = Math.addExact(entry.committedSize, change.sizeDelta);
+            entry.committedUsableSize = Math.addExact(entry.committedUsableSize, change.usableDelta);
+            entry.openChanges--;
+            entry.updatedAt = LocalDateTime.now();
+            dirtyKeys.add(change.key);
+            if (change.created) {
+                entry.creator = null;
+                stripe.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Refunds the debits of a rolled back change, or drops the asset it created
+     */
+    private void rollback(Change change) {
+        Stripe stripe = stripeOf(change.key);
+        LedgerEntry entry;
+        synchronized (stripe) {
+            entry = stripe.entries.get(change.key);
+            if (entry == null) {
+                return;
+            }
+            entry.size = Math.addExact(entry.size, -Math.min(change.sizeDelta, 0));
+            entry.usableSize = Math.addExact(entry.usableSize, -Math.min(change.usableDelta, 0));
+            entry.openChanges--;
+        }
+        if (change.created) {
+            remove(change.key, entry);
+        }
+    }
+
+    private LedgerEntry insert(Long customerId, String assetName, Money amount) {
+        LocalDateTime now = ReplayContext.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"});
+            statement.setLong(1, customerId);
+            statement.setString(2, assetName);
+            statement.setBigDecimal(3, amount.toBigDecimal());
+            statement.setBigDecimal(4, amount.toBigDecimal());
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+            statement.setTimestamp(6, Timestamp.valueOf(now));
+            return statement;
+        }, keyHolder);
+
+        Number id = Objects.requireNonNull(keyHolder.getKey(), "No id generated for new asset");
+        return new LedgerEntry(id.longValue(), customerId, assetName, amount.units(), amount.units(), now, now);
+    }
+
+    private void index(long key, LedgerEntry entry) {
+        assetNamesByCustomer.computeIfAbsent(entry.customerId, id -> ConcurrentHashMap.newKeySet()).add(entry.assetName);
+        keysByAssetId.put(entry.id, key);
+    }
+
+    /**
+     * Drops an entry whose creation failed or rolled back, waking the transactions waiting for it
+     */
+    private void remove(long key, LedgerEntry created) {
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            if (stripe.entries.get(key) != created) {
+                return;
+            }
+            stripe.entries.remove(key);
+            stripe.notifyAll();
+        }
+        assetNamesByCustomer.getOrDefault(created.customerId, Set.of()).remove(created.assetName);
+        if (created.id != null) {
+            keysByAssetId.remove(created.id);
+        }
+        dirtyKeys.remove(key);
+    }
+
+    private static List<LedgerPosting> postings(Long customerId, String assetName, long sizeDelta, long usableDelta,
+                                                PostingReason reason, Long orderId) {
+        LocalDateTime now = ReplayContext.now();
+        List<LedgerPosting> postings = new ArrayList<>(2);
+        if (sizeDelta != 0) {
+            postings.add(new LedgerPosting(customerId, assetName, LedgerBucket.SIZE, sizeDelta, reason, orderId, now));
+        }
+        if (usableDelta != 0) {
+            postings.add(new LedgerPosting(customerId, assetName, LedgerBucket.USABLE, usableDelta, reason, orderId, now));
+        }
+        return postings;
+    }
+
+    /**
+     * Registers a change with the current transaction, or commits it and inserts its postings right away outside of one
+     */
+    private void record(Change change, List<LedgerPosting> postings) {
+        TransactionChanges changes = currentTransaction();
+        if (changes == null) {
+            postingLock.readLock().lock();
+            try {
+                postingStore.insertBatch(postings);
+            } catch (RuntimeException e) {
+                rollback(change);
+                throw e;
+            } finally {
+                postingLock.readLock().unlock();
+            }
+            commit(change);
+            return;
+        }
+
+        changes.changes.add(change);
+        changes.postings.addAll(postings);
+    }
+
+    /**
+     * The changes of the current transaction, registered with it on first use, or null outside of one
+     */
+    private TransactionChanges currentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new TransactionChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    private long keyOf(Long customerId, String assetName) {
+        int symbol = assetSymbols.computeIfAbsent(assetName, name -> {
+            int next = nextAssetSymbol.getAndIncrement();
+            if (next >= 1 << ASSET_SYMBOL_BITS) {
+                throw new IllegalStateException("Too many distinct asset names in the ledger");
+            }
+            return next;
+        });
+        return (customerId << ASSET_SYMBOL_BITS) | symbol;
+    }
+
+    private Stripe stripeOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 40) & stripeMask];
+    }
+
+    private static Asset toAsset(LedgerEntry entry) {
+        return Asset.builder()
+                .id(entry.id)
+                .customer(Customer.builder().id(entry.customerId).build())
+                .assetName(entry.assetName)
+                .size(Money.ofUnits(entry.size).toBigDecimal())
+                .usableSize(Money.ofUnits(entry.usableSize).toBigDecimal())
+                .createdAt(entry.createdAt)
+                .updatedAt(entry.updatedAt)
+                .build();
+    }
+
+    private static final class Stripe {
+        private final LongKeyMap<LedgerEntry> entries = new LongKeyMap<>(64);
+    }
+
+    /**
+     * A balance change, whose negative deltas were taken when it was made and whose positive ones wait for commit
+     */
+    private static final class Change {
+        private final long key;
+        private final long sizeDelta;
+        private final long usableDelta;
+        private final boolean created;
+
+        private Change(long key, long sizeDelta, long usableDelta, boolean created) {
+            this.key = key;
+            this.sizeDelta = sizeDelta;
+            this.usableDelta = usableDelta;
+            this.created = created;
+        }
+    }
+
+    /**
+     * The changes and postings of one transaction. The postings are inserted just before it commits,
+     * holding the posting lock until it completes so compaction never sees a posting id commit late.
+     */
+    private final class TransactionChanges implements TransactionSynchronization {
+        private final List<Change> changes = new ArrayList<>();
+        private final List<LedgerPosting> postings = new ArrayList<>();
+        private boolean locked;
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(BalanceLedger.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(BalanceLedger.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            postingLock.readLock().lock();
+            locked = true;
+            postingStore.insertBatch(postings);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BalanceLedger.this);
+            try {
+                for (Change change : changes) {
+                    if (status == STATUS_COMMITTED) {
+                        commit(change);
+                    } else {
+                        rollback(change);
+                    }
+                }
+            } finally {
+                if (locked) {
+                    postingLock.readLock().unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.brokerage.service.ledger;
+
+import lombok.Value;
+
+/**
+ * Balance of one customer asset derived from its latest snapshot plus the postings after it,
+ * in scaled {@link com.brokerage.domain.Money} units
+ */
+@Value
+public class DerivedBalance {
+    Long customerId;
+    String assetName;
+    long size;
+    long usableSize;
+}
@@ -0,0 +1,9 @@
+package com.brokerage.service.ledger;
+
+/**
+ * Balance a {@link LedgerPosting} moves: the total size or the usable, unreserved part of it
+ */
+public enum LedgerBucket {
+    SIZE,
+    USABLE
+}
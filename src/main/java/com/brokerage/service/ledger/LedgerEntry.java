@@ -0,0 +1,43 @@
+package com.brokerage.service.ledger;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mutable balance of one customer asset in scaled {@link com.brokerage.domain.Money} units,
+ * only accessed under its stripe lock.
+ *
+ * The size and usable size are what is available to new commands: committed balances minus the
+ * debits of transactions still running. The committed balances are what gets written back.
+ *
+ * An entry for a new asset is created before its row is inserted and has no id until then. Until the
+ * transaction that inserted the row completes, the entry names that transaction as its creator and
+ * other transactions wait before changing it, since a rollback removes both the row and the entry.
+ */
+final class LedgerEntry {
+
+    Long id;
+    final Long customerId;
+    final String assetName;
+    LocalDateTime createdAt;
+    Object creator;
+    // Changes of running transactions, debits and credits alike, not yet committed or rolled back
+    int openChanges;
+    long size;
+    long usableSize;
+    long committedSize;
+    long committedUsableSize;
+    LocalDateTime updatedAt;
+
+    LedgerEntry(Long id, Long customerId, String assetName, long size, long usableSize,
+                LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.assetName = assetName;
+        this.size = size;
+        this.usableSize = usableSize;
+        this.committedSize = size;
+        this.committedUsableSize = usableSize;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
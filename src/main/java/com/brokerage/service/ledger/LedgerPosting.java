@@ -0,0 +1,20 @@
+package com.brokerage.service.ledger;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of one change to one balance bucket, with the delta in scaled
+ * {@link com.brokerage.domain.Money} units and the order that caused it, if any
+ */
+@Value
+public class LedgerPosting {
+    Long customerId;
+    String assetName;
+    LedgerBucket bucket;
+    long delta;
+    PostingReason reason;
+    Long orderId;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,179 @@
+package com.brokerage.service.ledger;
+
+import com.brokerage.domain.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC access to the append-only ledger postings and the balance snapshots they are compacted into.
+ *
+ * A snapshot holds the balance of one customer asset up to and including its last_posting_id, so
+ * the current balance is the snapshot plus the sum of the postings after it. Compaction folds new
+ * postings into the snapshots and deletes folded postings once they are older than the retention.
+ * Both work in passes over a bounded range of posting ids up to a watermark, so no pass holds locks
+ * on more than a batch of postings and postings inserted meanwhile are left alone.
+ */
+@Slf4j
+@Component
+public class LedgerPostingStore {
+
+    private static final String INSERT_POSTING_SQL =
+            "INSERT INTO ledger_postings (customer_id, asset_name, bucket, delta, reason, order_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UNFOLDED_POSTINGS_SQL =
+            "SELECT p.customer_id, p.asset_name, " +
+            "CASE WHEN p.bucket = 'SIZE' THEN p.delta ELSE 0 END AS size_delta, " +
+            "CASE WHEN p.bucket = 'USABLE' THEN p.delta ELSE 0 END AS usable_delta " +
+            "FROM ledger_postings p " +
+            "LEFT JOIN ledger_snapshots s ON s.customer_id = p.customer_id AND s.asset_name = p.asset_name " +
+            "WHERE p.id > COALESCE(s.last_posting_id, 0)";
+    private static final String DERIVE_BALANCES_SQL =
+            "SELECT customer_id, asset_name, SUM(size_delta) AS size_delta, SUM(usable_delta) AS usable_delta FROM (" +
+            "SELECT customer_id, asset_name, size AS size_delta, usable_size AS usable_delta FROM ledger_snapshots " +
+            "UNION ALL " + UNFOLDED_POSTINGS_SQL +
+            ") balances GROUP BY customer_id, asset_name";
+    private static final String FOLD_POSTINGS_SQL =
+            "SELECT customer_id, asset_name, SUM(size_delta) AS size_delta, SUM(usable_delta) AS usable_delta FROM (" +
+            UNFOLDED_POSTINGS_SQL + " AND p.id > ? AND p.id <= ?" +
+            ") postings GROUP BY customer_id, asset_name";
+    private static final String UPDATE_SNAPSHOT_SQL =
+            "UPDATE ledger_snapshots SET size = size + ?, usable_size = usable_size + ?, last_posting_id = ?, " +
+            "created_at = ? WHERE customer_id = ? AND asset_name = ?";
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO ledger_snapshots (size, usable_size, last_posting_id, created_at, customer_id, asset_name) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String WATERMARK_SQL = "SELECT MAX(id) FROM ledger_postings";
+    private static final String FOLDED_THROUGH_SQL = "SELECT COALESCE(MAX(last_posting_id), 0) FROM ledger_snapshots";
+    private static final String FIRST_POSTING_SQL = "SELECT MIN(id) FROM ledger_postings WHERE id > ? AND id <= ?";
+    private static final String LAST_EXPIRED_SQL =
+            "SELECT MAX(id) FROM ledger_postings WHERE id <= ? AND created_at < ?";
+    private static final String DELETE_FOLDED_SQL =
+            "DELETE FROM ledger_postings WHERE id > ? AND id <= ? AND created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public LedgerPostingStore(JdbcTemplate jdbcTemplate,
+                              @Value("${brokerage.ledger.postings-retention-days:30}") int retentionDays,
+                              @Value("${brokerage.ledger.compaction-batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Appends postings in one JDBC batch
+     */
+    public void insertBatch(List<LedgerPosting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_POSTING_SQL, postings, postings.size(), (statement, posting) -> {
+            statement.setLong(1, posting.getCustomerId());
+            statement.setString(2, posting.getAssetName());
+            statement.setString(3, posting.getBucket().name());
+            statement.setBigDecimal(4, Money.ofUnits(posting.getDelta()).toBigDecimal());
+            statement.setString(5, posting.getReason().name());
+            statement.setObject(6, posting.getOrderId());
+            statement.setTimestamp(7, Timestamp.valueOf(posting.getCreatedAt()));
+        });
+    }
+
+    /**
+     * Derives every balance that has a snapshot or postings from the snapshot plus the postings after it
+     */
+    public List<DerivedBalance> deriveBalances() {
+        return jdbcTemplate.query(DERIVE_BALANCES_SQL, (rs, rowNum) -> new DerivedBalance(
+                rs.getLong("customer_id"),
+                rs.getString("asset_name"),
+                Money.of(rs.getBigDecimal("size_delta")).units(),
+                Money.of(rs.getBigDecimal("usable_delta")).units()));
+    }
+
+    /**
+     * The highest posting id written so far. Must be read while no posting insert is uncommitted, so
+     * that every posting up to it is committed and every posting inserted later gets a higher id.
+     *
+     * @return null if there are no postings
+     */
+    public Long watermark() {
+        return jdbcTemplate.queryForObject(WATERMARK_SQL, Long.class);
+    }
+
+    /**
+     * The posting id up to which every posting is folded into its snapshot, the highest one a pass folded to
+     */
+    public long foldedThrough() {
+        return jdbcTemplate.queryForObject(FOLDED_THROUGH_SQL, Long.class);
+    }
+
+    /**
+     * Folds the next batch of postings after an id into the snapshots, in the caller's transaction
+     *
+     * @param after     the id every posting is folded through
+     * @param watermark the id to fold up to at most
+     * @return the id every posting is folded through after this pass
+     */
+    public long fold(long after, long watermark) {
+        Long first = jdbcTemplate.queryForObject(FIRST_POSTING_SQL, Long.class, after, watermark);
+        if (first == null) {
+            return watermark;
+        }
+        long upTo = Math.min(watermark, first + batchSize - 1);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> folds = jdbcTemplate.query(FOLD_POSTINGS_SQL, (rs, rowNum) -> new Object[]{
+                rs.getBigDecimal("size_delta"),
+                rs.getBigDecimal("usable_delta"),
+                upTo,
+                now,
+                rs.getLong("customer_id"),
+                rs.getString("asset_name")}, after, upTo);
+
+        if (!folds.isEmpty()) {
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT_SQL, folds);
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    inserts.add(folds.get(i));
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, inserts);
+            }
+        }
+        log.debug("Folded ledger postings {} to {} into {} snapshots", after + 1, upTo, folds.size());
+        return upTo;
+    }
+
+    /**
+     * Deletes folded postings past the retention, one batch of ids per statement
+     *
+     * @param foldedThrough the id every posting is folded through
+     * @return the number of postings deleted
+     */
+    public int deleteExpired(long foldedThrough) {
+        Timestamp retainedFrom = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        Long last = jdbcTemplate.queryForObject(LAST_EXPIRED_SQL, Long.class, foldedThrough, retainedFrom);
+        int deleted = 0;
+        long after = 0;
+        while (last != null && after < last) {
+            Long first = jdbcTemplate.queryForObject(FIRST_POSTING_SQL, Long.class, after, last);
+            if (first == null) {
+                break;
+            }
+            long upTo = Math.min(last, first + batchSize - 1);
+            deleted += jdbcTemplate.update(DELETE_FOLDED_SQL, first - 1, upTo, retainedFrom);
+            after = upTo;
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,10 @@
+package com.brokerage.service.ledger;
+
+/**
+ * Outcome of a guarded balance change on the {@link BalanceLedger}
+ */
+public enum LedgerResult {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT
+}
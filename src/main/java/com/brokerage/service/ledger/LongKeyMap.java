@@ -0,0 +1,148 @@
+package com.brokerage.service.ledger;
+
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map keyed by primitive longs, avoiding boxed keys and entry objects.
+ *
+ * Uses linear probing with backward-shift deletion. Key 0 is reserved as the empty marker.
+ * Not thread-safe; callers guard it with their own lock.
+ */
+final class LongKeyMap<V> {
+
+    private static final long EMPTY = 0L;
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    LongKeyMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        checkKey(key);
+        int index = indexOf(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        checkKey(key);
+        int index = indexOf(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        checkKey(key);
+        int index = indexOf(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                shiftBack(index);
+                size--;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept((V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Moves later entries of the probe chain into the freed slot so lookups never need tombstones
+     */
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            long key = keys[index];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = indexOf(key);
+            boolean canMove = gap <= index
+                    ? home <= gap || home > index
+                    : home <= gap && home > index;
+            if (canMove) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(oldKeys[i]);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.brokerage.service.ledger;
+
+/**
+ * Why a balance changed, recorded on every {@link LedgerPosting}
+ */
+public enum PostingReason {
+    DEPOSIT,
+    RESERVE,
+    RELEASE,
+    SETTLE,
+    ADJUST
+}
@@ -0,0 +1,52 @@
+package com.brokerage.service.matching;
+
+import com.brokerage.domain.Money;
+import com.brokerage.domain.OrderSide;
+import lombok.Getter;
+
+/**
+ * A resting order held at a price level of an {@link OrderBook}.
+ * Price and remaining size are kept as scaled {@link Money} units.
+ */
+public class BookEntry {
+    @Getter
+    private final Long orderId;
+    @Getter
+    private final Long customerId;
+    @Getter
+    private final OrderSide side;
+    private final long priceUnits;
+    private long remainingUnits;
+
+    public BookEntry(Long orderId, Long customerId, OrderSide side, Money price, Money remainingSize) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.side = side;
+        this.priceUnits = price.units();
+        this.remainingUnits = remainingSize.units();
+    }
+
+    public Money getPrice() {
+        return Money.ofUnits(priceUnits);
+    }
+
+    public Money getRemainingSize() {
+        return Money.ofUnits(remainingUnits);
+    }
+
+    long priceUnits() {
+        return priceUnits;
+    }
+
+    long remainingUnits() {
+        return remainingUnits;
+    }
+
+    void fill(long fillUnits) {
+        this.remainingUnits -= fillUnits;
+    }
+
+    boolean isFilled() {
+        return remainingUnits <= 0;
+    }
+}
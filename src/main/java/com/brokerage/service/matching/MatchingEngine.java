@@ -0,0 +1,149 @@
+package com.brokerage.service.matching;
+
+import com.brokerage.domain.Money;
+import com.brokerage.domain.Order;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Continuous matching engine keeping one {@link OrderBook} per asset.
+ *
+ * The books live in memory and the database stays the system of record: books are
+ * loaded from open orders at startup, before the web server takes requests, and when
+ * a transaction rolls back, the book changes it made are undone so the book never
+ * holds uncommitted state. Undoing a submit takes the incoming order out again and
+ * gives the resting orders back what it filled of them; a resting order it filled
+ * completely is put back as persisted, if still open.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchingEngine implements SmartInitializingSingleton {
+
+    private final OrderRepository orderRepository;
+    private volatile Map<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    /**
+     * Submits a newly persisted order and returns the trades it produced
+     */
+    public List<Trade> submit(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        if (book.contains(order.getId())) {
+            return List.of();
+        }
+        List<Trade> trades = book.submit(toEntry(order));
+        onRollback(() -> revertSubmit(book, order, trades));
+        return trades;
+    }
+
+    /**
+     * Removes an order from its book, e.g. when it is cancelled or matched manually
+     */
+    public boolean remove(Order order) {
+        OrderBook book = bookFor(order.getAssetName());
+        BookEntry removed = book.take(order.getId());
+        if (removed == null) {
+            return false;
+        }
+        onRollback(() -> book.restore(removed));
+        return true;
+    }
+
+    public OrderBook getBook(String assetName) {
+        return bookFor(assetName);
+    }
+
+    /**
+     * Rebuilds the book of an asset from its persisted open orders
+     */
+    public void reload(String assetName) {
+        List<Order> openOrders = orderRepository.findByAssetNameAndStatusInOrderByIdAsc(
+                assetName, OrderStatus.OPEN_STATUSES);
+        OrderBook book = bookFor(assetName);
+        synchronized (book) {
+            book.clear();
+            openOrders.forEach(order -> book.add(toEntry(order)));
+        }
+        log.info("Reloaded order book for {} with {} open orders", assetName, openOrders.size());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        loadPendingOrders();
+    }
+
+    /**
+     * Loads all open orders into new books and swaps them in at once, replacing anything submitted
+     * while the journal was replayed. Runs once all beans are created, before the web server starts.
+     */
+    public void loadPendingOrders() {
+        Map<String, List<Order>> openByAsset = orderRepository.findByStatusIn(OrderStatus.OPEN_STATUSES).stream()
+                .collect(Collectors.groupingBy(Order::getAssetName));
+
+        Map<String, OrderBook> loaded = new ConcurrentHashMap<>();
+        openByAsset.forEach((assetName, orders) -> {
+            OrderBook book = loaded.computeIfAbsent(assetName, OrderBook::new);
+            orders.stream()
+                    .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                    .forEach(order -> book.add(toEntry(order)));
+        });
+        books = loaded;
+
+        log.info("Loaded {} order books from open orders", openByAsset.size());
+    }
+
+    private OrderBook bookFor(String assetName) {
+        return books.computeIfAbsent(assetName, OrderBook::new);
+    }
+
+    private BookEntry toEntry(Order order) {
+        return new BookEntry(
+                order.getId(),
+                order.getCustomer().getId(),
+                order.getOrderSide(),
+                Money.of(order.getPrice()),
+                Money.of(order.getRemainingSize()));
+    }
+
+    /**
+     * Takes a submitted order out of its book again and refunds the resting orders it traded with
+     */
+    private void revertSubmit(OrderBook book, Order order, List<Trade> trades) {
+        log.warn("Transaction rolled back, reverting order {} in order book for {}", order.getId(), book.getAssetName());
+        book.remove(order.getId());
+        List<Long> missing = book.refund(order.getOrderSide(), trades);
+        if (!missing.isEmpty()) {
+            orderRepository.findAllById(missing).stream()
+                    .filter(resting -> resting.getStatus().isOpen())
+                    .forEach(resting -> book.restore(toEntry(resting)));
+        }
+    }
+
+    /**
+     * Runs an undo action if the current transaction rolls back
+     */
+    private void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+}
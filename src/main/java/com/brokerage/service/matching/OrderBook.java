@@ -0,0 +1,202 @@
+package com.brokerage.service.matching;
+
+import com.brokerage.domain.Money;
+import com.brokerage.domain.OrderSide;
+
+import java.util.*;
+
+/**
+ * In-memory limit order book for a single asset.
+ *
+ * Bids are kept highest price first and asks lowest price first; orders within
+ * a price level are queued in arrival order, giving price-time priority.
+ * An incoming order sweeps crossing levels until it is filled, partially filling
+ * the last resting order it touches, and any remainder rests in the book.
+ * Levels are keyed by price in scaled {@link Money} units.
+ */
+public class OrderBook {
+
+    private final String assetName;
+    private final NavigableMap<Long, Deque<BookEntry>> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<Long, Deque<BookEntry>> asks = new TreeMap<>();
+    private final Map<Long, BookEntry> entriesByOrderId = new HashMap<>();
+
+    public OrderBook(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    /**
+     * Matches an incoming order against the opposite side of the book and rests any unfilled remainder
+     */
+    public synchronized List<Trade> submit(BookEntry incoming) {
+        if (entriesByOrderId.containsKey(incoming.getOrderId())) {
+            return Collections.emptyList();
+        }
+
+        List<Trade> trades = new ArrayList<>();
+        NavigableMap<Long, Deque<BookEntry>> opposite =
+                OrderSide.BUY.equals(incoming.getSide()) ? asks : bids;
+
+        Iterator<Map.Entry<Long, Deque<BookEntry>>> levels = opposite.entrySet().iterator();
+        while (!incoming.isFilled() && levels.hasNext()) {
+            Map.Entry<Long, Deque<BookEntry>> level = levels.next();
+            if (!crosses(incoming, level.getKey())) {
+                break;
+            }
+
+            Iterator<BookEntry> queue = level.getValue().iterator();
+            while (!incoming.isFilled() && queue.hasNext()) {
+                BookEntry resting = queue.next();
+                if (resting.getCustomerId().equals(incoming.getCustomerId())) {
+                    continue; // self-trade prevention
+                }
+
+                long fillUnits = Math.min(resting.remainingUnits(), incoming.remainingUnits());
+                trades.add(toTrade(incoming, resting, fillUnits));
+                resting.fill(fillUnits);
+                incoming.fill(fillUnits);
+
+                if (resting.isFilled()) {
+                    queue.remove();
+                    entriesByOrderId.remove(resting.getOrderId());
+                }
+            }
+
+            if (level.getValue().isEmpty()) {
+                levels.remove();
+            }
+        }
+
+        if (!incoming.isFilled()) {
+            add(incoming);
+        }
+        return trades;
+    }
+
+    /**
+     * Adds an order to the book without matching, used when rebuilding from persisted orders
+     */
+    public synchronized void add(BookEntry entry) {
+        if (entriesByOrderId.putIfAbsent(entry.getOrderId(), entry) != null) {
+            return;
+        }
+        sideOf(entry.getSide())
+                .computeIfAbsent(entry.priceUnits(), price -> new ArrayDeque<>())
+                .addLast(entry);
+    }
+
+    /**
+     * Removes an order from the book, returning false if it was not resting
+     */
+    public synchronized boolean remove(Long orderId) {
+        return take(orderId) != null;
+    }
+
+    /**
+     * Removes an order from the book and returns its entry, or null if it was not resting
+     */
+    public synchronized BookEntry take(Long orderId) {
+        BookEntry entry = entriesByOrderId.remove(orderId);
+        if (entry == null) {
+            return null;
+        }
+
+        NavigableMap<Long, Deque<BookEntry>> side = sideOf(entry.getSide());
+        Deque<BookEntry> level = side.get(entry.priceUnits());
+        if (level != null) {
+            level.remove(entry);
+            if (level.isEmpty()) {
+                side.remove(entry.priceUnits());
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Puts a removed order back at its price level, queued by order id as when the book is rebuilt
+     */
+    public synchronized void restore(BookEntry entry) {
+        if (entriesByOrderId.putIfAbsent(entry.getOrderId(), entry) != null) {
+            return;
+        }
+        Deque<BookEntry> level = sideOf(entry.getSide())
+                .computeIfAbsent(entry.priceUnits(), price -> new ArrayDeque<>());
+        Deque<BookEntry> later = new ArrayDeque<>();
+        while (!level.isEmpty() && level.peekLast().getOrderId() > entry.getOrderId()) {
+            later.addFirst(level.pollLast());
+        }
+        level.addLast(entry);
+        level.addAll(later);
+    }
+
+    /**
+     * Gives the resting orders of trades back the size the incoming order filled of them
+     *
+     * @return the ids of resting orders no longer in the book, filled by the trades or removed since
+     */
+    public synchronized List<Long> refund(OrderSide incomingSide, List<Trade> trades) {
+        List<Long> missing = new ArrayList<>();
+        for (Trade trade : trades) {
+            Long restingOrderId = OrderSide.BUY.equals(incomingSide) ? trade.getSellOrderId() : trade.getBuyOrderId();
+            BookEntry resting = entriesByOrderId.get(restingOrderId);
+            if (resting != null) {
+                resting.fill(-trade.getSize().units());
+            } else {
+                missing.add(restingOrderId);
+            }
+        }
+        return missing;
+    }
+
+    public synchronized void clear() {
+        bids.clear();
+        asks.clear();
+        entriesByOrderId.clear();
+    }
+
+    public synchronized boolean contains(Long orderId) {
+        return entriesByOrderId.containsKey(orderId);
+    }
+
+    public synchronized int size() {
+        return entriesByOrderId.size();
+    }
+
+    public synchronized Optional<Money> bestBid() {
+        return bids.isEmpty() ? Optional.empty() : Optional.of(Money.ofUnits(bids.firstKey()));
+    }
+
+    public synchronized Optional<Money> bestAsk() {
+        return asks.isEmpty() ? Optional.empty() : Optional.of(Money.ofUnits(asks.firstKey()));
+    }
+
+    private boolean crosses(BookEntry incoming, long restingPriceUnits) {
+        return OrderSide.BUY.equals(incoming.getSide())
+                ? incoming.priceUnits() >= restingPriceUnits
+                : incoming.priceUnits() <= restingPriceUnits;
+    }
+
+    private Trade toTrade(BookEntry incoming, BookEntry resting, long fillUnits) {
+        BookEntry buy = OrderSide.BUY.equals(incoming.getSide()) ? incoming : resting;
+        BookEntry sell = OrderSide.BUY.equals(incoming.getSide()) ? resting : incoming;
+
+        return Trade.builder()
+                .assetName(assetName)
+                .buyOrderId(buy.getOrderId())
+                .buyCustomerId(buy.getCustomerId())
+                .buyLimitPrice(buy.getPrice())
+                .sellOrderId(sell.getOrderId())
+                .sellCustomerId(sell.getCustomerId())
+                .size(Money.ofUnits(fillUnits))
+                .price(resting.getPrice())
+                .build();
+    }
+
+    private NavigableMap<Long, Deque<BookEntry>> sideOf(OrderSide side) {
+        return OrderSide.BUY.equals(side) ? bids : asks;
+    }
+}
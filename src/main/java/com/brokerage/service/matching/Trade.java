@@ -0,0 +1,25 @@
+package com.brokerage.service.matching;
+
+import com.brokerage.domain.Money;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A single execution between a buy and a sell order, priced at the resting order's limit
+ */
+@Value
+@Builder
+public class Trade {
+    String assetName;
+    Long buyOrderId;
+    Long buyCustomerId;
+    Money buyLimitPrice;
+    Long sellOrderId;
+    Long sellCustomerId;
+    Money size;
+    Money price;
+
+    public Money getTotalValue() {
+        return size.times(price);
+    }
+}
@@ -2,7 +2,7 @@ package com.brokerage.service.query;
 
 import com.brokerage.domain.Asset;
 import com.brokerage.exception.AssetNotFoundException;
-import com.brokerage.repository.AssetRepository;
+import com.brokerage.service.ledger.BalanceLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,32 +14,32 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AssetQueryService {
 
-    private final AssetRepository assetRepository;
+    private final BalanceLedger ledger;
     
     /**
-     * Get all assets for a customer
+     * Get all assets for a customer from the ledger
      */
     public List<Asset> getAssetsByCustomerId(Long customerId) {
         log.debug("Fetching assets for customer ID: {}", customerId);
-        return assetRepository.findByCustomerId(customerId);
+        return ledger.findByCustomerId(customerId);
     }
     
     /**
-     * Get a specific asset for a customer
+     * Get a specific asset for a customer from the ledger
      */
     public Asset getAssetByCustomerIdAndAssetName(Long customerId, String assetName) {
         log.debug("Fetching asset {} for customer ID: {}", assetName, customerId);
-        return assetRepository.findByCustomerIdAndAssetName(customerId, assetName)
+        return ledger.find(customerId, assetName)
                 .orElseThrow(() -> new AssetNotFoundException(
                     String.format("Asset %s not found for customer ID %d", assetName, customerId)));
     }
     
     /**
-     * Get an asset by ID
+     * Get an asset by ID from the ledger
      */
     public Asset getAssetById(Long assetId) {
         log.debug("Fetching asset by ID: {}", assetId);
-        return assetRepository.findById(assetId)
+        return ledger.findById(assetId)
                 .orElseThrow(() -> new AssetNotFoundException("Asset not found with ID: " + assetId));
     }
-}
\ No newline at end of file
+}
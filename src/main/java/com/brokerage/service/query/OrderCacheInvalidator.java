@@ -0,0 +1,36 @@
+package com.brokerage.service.query;
+
+import com.brokerage.config.CacheConfig;
+import com.brokerage.event.OrderEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cached response of an order when an event about it is published.
+ *
+ * Eviction runs after the publishing transaction commits, so a read in between cannot put the
+ * pre-commit state back into the cache. The cache TTL bounds any read that raced the commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.ORDERS);
+        if (cache != null) {
+            // Same key as the default generator builds for getOrderResponse(orderId, customerId)
+            cache.evict(new SimpleKey(event.getOrderId(), event.getCustomerId()));
+            log.debug("Evicted cached order {} of customer {} after {}",
+                    event.getOrderId(), event.getCustomerId(), event.getEventType());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.brokerage.service.query;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.service.archive.OrderArchiveStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a customer's orders straight from a forward-only JDBC cursor to an output stream,
+ * including those moved to the archive tables of the requested range.
+ *
+ * Rows are fetched in batches of the configured fetch size and written one by one, so memory use
+ * does not grow with the number of orders. The query runs in a read-only transaction, which lets
+ * drivers such as PostgreSQL use a server-side cursor instead of buffering the whole result.
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    private static final String FILTER_SQL = " WHERE customer_id = ? AND create_date BETWEEN ? AND ?";
+    private static final String ORDER_BY_SQL = " ORDER BY create_date, id";
+    private static final String CSV_HEADER =
+            "id,assetName,orderSide,size,price,filledSize,remainingSize,averageFillPrice,status,createDate,updateDate";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderArchiveStore archiveStore;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate,
+                              OrderArchiveStore archiveStore,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${brokerage.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveStore = archiveStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes the customer's orders matching the filters in (createDate, id) order
+     *
+     * @return the number of orders written
+     */
+    public long export(Long customerId, OrderStatus status, LocalDateTime startDate, LocalDateTime endDate,
+                       OrderExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == OrderExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        Timestamp from = Timestamp.valueOf(startDate != null ? startDate : EARLIEST);
+        Timestamp to = Timestamp.valueOf(endDate != null ? endDate : LATEST);
+        String filter = status != null ? FILTER_SQL + " AND status = ?" : FILTER_SQL;
+
+        // Archived months in the range are merged in, archive tables only hold matched and canceled orders
+        List<String> tables = new ArrayList<>();
+        tables.add("orders");
+        if (status == null || OrderArchiveStore.ARCHIVED_STATUSES.contains(status)) {
+            tables.addAll(archiveStore.tablesBetween(from.toLocalDateTime(), to.toLocalDateTime()));
+        }
+        String sql = tables.stream()
+                .map(table -> "SELECT " + OrderRows.RESPONSE_COLUMNS + " FROM " + table + filter)
+                .collect(Collectors.joining(" UNION ALL ")) + ORDER_BY_SQL;
+
+        PreparedStatementSetter parameters = statement -> {
+            statement.setFetchSize(fetchSize);
+            int index = 1;
+            for (int table = 0; table < tables.size(); table++) {
+                statement.setLong(index++, customerId);
+                statement.setTimestamp(index++, from);
+                statement.setTimestamp(index++, to);
+                if (status != null) {
+                    statement.setString(index++, status.name());
+                }
+            }
+        };
+
+        long[] rows = new long[1];
+        try {
+            readOnlyTransaction.executeWithoutResult(transaction -> jdbcTemplate.query(sql, parameters, rs -> {
+                try {
+                    rowWriter.write(OrderRows.toResponse(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+
+        log.info("Exported {} orders for customer ID: {} as {}", rows[0], customerId, format);
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        void write(OrderResponse order) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, serialized the same way as the order API responses
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private SequenceWriter sequence;
+
+        private NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(OrderResponse order) throws IOException {
+            if (sequence == null) {
+                sequence = objectMapper.writer()
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .withRootValueSeparator("\n")
+                        .writeValues(writer);
+            }
+            sequence.write(order);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (sequence != null) {
+                sequence.close();
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private boolean headerWritten;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(OrderResponse order) throws IOException {
+            writeHeader();
+            writer.write(String.valueOf(order.getId()));
+            writeField(escape(order.getAssetName()));
+            writeField(order.getOrderSide().name());
+            writeField(plain(order.getSize()));
+            writeField(plain(order.getPrice()));
+            writeField(plain(order.getFilledSize()));
+            writeField(plain(order.getRemainingSize()));
+            writeField(plain(order.getAverageFillPrice()));
+            writeField(order.getStatus().name());
+            writeField(order.getCreateDate().format(DATE_FORMAT));
+            writeField(order.getUpdateDate() != null ? order.getUpdateDate().format(DATE_FORMAT) : "");
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writeHeader();
+        }
+
+        private void writeHeader() throws IOException {
+            if (!headerWritten) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                headerWritten = true;
+            }
+        }
+
+        private void writeField(String value) throws IOException {
+            writer.write(',');
+            writer.write(value);
+        }
+
+        private static String plain(BigDecimal value) {
+            return value != null ? value.toPlainString() : "";
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
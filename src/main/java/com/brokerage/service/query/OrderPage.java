@@ -0,0 +1,17 @@
+package com.brokerage.service.query;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of orders with the cursor of the next page, null on the last page,
+ * and the total number of matching orders if it was requested
+ */
+@Value
+public class OrderPage {
+    List<OrderResponse> orders;
+    String nextCursor;
+    Long totalCount;
+}
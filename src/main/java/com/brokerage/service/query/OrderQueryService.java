@@ -1,22 +1,89 @@
 package com.brokerage.service.query;
 
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.config.CacheConfig;
 import com.brokerage.domain.Order;
 import com.brokerage.domain.OrderStatus;
 import com.brokerage.exception.OrderNotFoundException;
 import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.archive.OrderArchiveStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Read side for orders. Runs in read-only transactions, and list reads select straight into
+ * {@link OrderResponse}s so no entities are loaded into the persistence context.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class OrderQueryService {
+@Transactional(readOnly = true)
+public class OrderQueryService implements OrderReader {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final List<OrderStatus> ALL_STATUSES = Arrays.asList(OrderStatus.values());
 
     private final OrderRepository orderRepository;
+    private final OrderArchiveStore archiveStore;
+
+    /**
+     * Get one page of a customer's orders in (createDate, id) order, with optional status and date range filters.
+     *
+     * Pages are read by keyset from the position in the cursor, so each page costs the same however deep
+     * it is. Unset filters are replaced by bounds that match everything, keeping it one query shape.
+     * The total is only counted when asked for. A range that reaches an archived month also reads the
+     * archive tables of those months.
+     */
+    @Override
+    public OrderPage getOrderPage(Long customerId, OrderStatus status, LocalDateTime startDate,
+                                  LocalDateTime endDate, String cursor, int limit, boolean includeCount) {
+        log.debug("Fetching {} orders for customer ID: {} with status: {} between {} and {} after {}",
+                limit, customerId, status, startDate, endDate, cursor);
+
+        List<OrderStatus> statuses = status != null ? List.of(status) : ALL_STATUSES;
+        LocalDateTime from = startDate != null ? startDate : EARLIEST;
+        LocalDateTime to = endDate != null ? endDate : LATEST;
+        OrderCursor after = cursor != null && !cursor.isEmpty()
+                ? OrderCursor.decode(cursor)
+                : new OrderCursor(EARLIEST.minusNanos(1), 0L);
+
+        // Archive tables are only unioned in when the range reaches an archived month
+        List<String> archiveTables = statuses.stream().anyMatch(OrderArchiveStore.ARCHIVED_STATUSES::contains)
+                ? archiveStore.tablesBetween(from, to)
+                : List.of();
+
+        // One extra row tells whether there is a next page
+        List<OrderResponse> orders = archiveTables.isEmpty()
+                ? orderRepository.findResponsePageByCustomerId(
+                        customerId, statuses, from, to, after.getCreateDate(), after.getId(), Limit.of(limit + 1))
+                : archiveStore.findPage(
+                        customerId, statuses, from, to, after.getCreateDate(), after.getId(), limit + 1, archiveTables);
+
+        String nextCursor = null;
+        if (orders.size() > limit) {
+            orders = orders.subList(0, limit);
+            OrderResponse last = orders.get(limit - 1);
+            nextCursor = new OrderCursor(last.getCreateDate(), last.getId()).encode();
+        }
+
+        Long totalCount = null;
+        if (includeCount) {
+            totalCount = archiveTables.isEmpty()
+                    ? orderRepository.countByCustomerId(customerId, statuses, from, to)
+                    : archiveStore.count(customerId, statuses, from, to, archiveTables);
+        }
+
+        return new OrderPage(orders, nextCursor, totalCount);
+    }
     
     /**
      * Get all orders for a customer
@@ -72,10 +139,24 @@ public class OrderQueryService {
     }
     
     /**
-     * Get all pending orders (for admin)
+     * Get an order response by ID and customer ID, falling back to the archive tables,
+     * cached until an event about the order evicts it
+     */
+    @Override
+    @Cacheable(CacheConfig.ORDERS)
+    public OrderResponse getOrderResponse(Long orderId, Long customerId) {
+        log.debug("Fetching order response ID: {} for customer ID: {}", orderId, customerId);
+        return orderRepository.findResponseByIdAndCustomerId(orderId, customerId)
+                .or(() -> archiveStore.findById(orderId, customerId))
+                .orElseThrow(() -> new OrderNotFoundException(
+                    String.format("Order %d not found for customer ID %d", orderId, customerId)));
+    }
+    
+    /**
+     * Get all open (pending or partially filled) orders (for admin)
      */
-    public List<Order> getAllPendingOrders() {
-        log.debug("Fetching all pending orders");
-        return orderRepository.findByStatus(OrderStatus.PENDING);
+    public List<OrderResponse> getAllPendingOrders() {
+        log.debug("Fetching all open orders");
+        return orderRepository.findResponsesByStatusIn(OrderStatus.OPEN_STATUSES);
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.brokerage.service.query;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Customer-facing order reads, served from the order tables or from the event-projected read model
+ */
+public interface OrderReader {
+
+    /**
+     * Get one page of a customer's orders in (createDate, id) order
+     *
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    OrderPage getOrderPage(Long customerId, OrderStatus status, LocalDateTime startDate,
+                           LocalDateTime endDate, String cursor, int limit, boolean includeCount);
+
+    /**
+     * Get an order of a customer
+     *
+     * @throws com.brokerage.exception.OrderNotFoundException if the customer has no such order
+     */
+    OrderResponse getOrderResponse(Long orderId, Long customerId);
+}
@@ -0,0 +1,38 @@
+package com.brokerage.service.query;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Column list and row mapping shared by the JDBC order reads over the orders and archive tables
+ */
+public final class OrderRows {
+
+    public static final String RESPONSE_COLUMNS = "id, asset_name, order_side, size, price, filled_size, " +
+            "remaining_size, average_fill_price, status, create_date, update_date";
+
+    private OrderRows() {
+    }
+
+    public static OrderResponse toResponse(ResultSet rs) throws SQLException {
+        Timestamp updateDate = rs.getTimestamp("update_date");
+        return OrderResponse.builder()
+                .id(rs.getLong("id"))
+                .assetName(rs.getString("asset_name"))
+                .orderSide(OrderSide.valueOf(rs.getString("order_side")))
+                .size(rs.getBigDecimal("size"))
+                .price(rs.getBigDecimal("price"))
+                .filledSize(rs.getBigDecimal("filled_size"))
+                .remainingSize(rs.getBigDecimal("remaining_size"))
+                .averageFillPrice(rs.getBigDecimal("average_fill_price"))
+                .status(OrderStatus.valueOf(rs.getString("status")))
+                .createDate(rs.getTimestamp("create_date").toLocalDateTime())
+                .updateDate(updateDate != null ? updateDate.toLocalDateTime() : null)
+                .build();
+    }
+}
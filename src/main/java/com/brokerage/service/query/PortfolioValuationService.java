@@ -0,0 +1,78 @@
+package com.brokerage.service.query;
+
+import com.brokerage.api.dto.response.AssetValuationResponse;
+import com.brokerage.api.dto.response.PortfolioValuationResponse;
+import com.brokerage.domain.Asset;
+import com.brokerage.domain.Money;
+import com.brokerage.service.stats.AssetStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Marks a customer's holdings to the last traded prices, entirely from memory: balances come from the
+ * ledger and prices from the market statistics. TRY is valued at 1; assets that have never traded
+ * are reported unpriced and left out of the total. Assets that have not traded since startup are
+ * valued at the approximate seeded price and flagged as such.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PortfolioValuationService {
+
+    private static final String TRY_ASSET = "TRY";
+
+    private final AssetQueryService assetQueryService;
+    private final AssetStatsService assetStatsService;
+
+    /**
+     * Values every holding of the customer in TRY
+     */
+    public PortfolioValuationResponse valuePortfolio(Long customerId) {
+        log.debug("Valuing portfolio of customer ID: {}", customerId);
+
+        List<AssetValuationResponse> valuations = new ArrayList<>();
+        Money total = Money.ZERO;
+        int unpriced = 0;
+        int approximate = 0;
+        for (Asset asset : assetQueryService.getAssetsByCustomerId(customerId)) {
+            boolean cash = TRY_ASSET.equals(asset.getAssetName());
+            Optional<Money> price = cash
+                    ? Optional.of(Money.of(1))
+                    : assetStatsService.getLastPrice(asset.getAssetName());
+            Money value = price.map(Money.of(asset.getSize())::times).orElse(null);
+            boolean approximatePrice = value != null && !cash
+                    && assetStatsService.isLastPriceApproximate(asset.getAssetName());
+            if (value != null) {
+                total = total.plus(value);
+            } else {
+                unpriced++;
+            }
+            if (approximatePrice) {
+                approximate++;
+            }
+            valuations.add(AssetValuationResponse.builder()
+                    .assetName(asset.getAssetName())
+                    .size(asset.getSize())
+                    .usableSize(asset.getUsableSize())
+                    .price(price.map(Money::toBigDecimal).orElse(null))
+                    .value(value != null ? value.toBigDecimal() : null)
+                    .priced(value != null)
+                    .approximatePrice(approximatePrice)
+                    .build());
+        }
+
+        return PortfolioValuationResponse.builder()
+                .assets(valuations)
+                .totalValue(total.toBigDecimal())
+                .unpricedAssets(unpriced)
+                .approximatelyPricedAssets(approximate)
+                .valuedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.brokerage.service.readmodel;
+
+import com.brokerage.domain.OrderSide;
+import com.brokerage.event.Event;
+import com.brokerage.event.OrderCancelledEvent;
+import com.brokerage.event.OrderCreatedEvent;
+import com.brokerage.event.OrderMatchedEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of any order event as read from the topic; fields an event type does not carry stay null
+ */
+@Data
+@NoArgsConstructor
+public class OrderEventMessage {
+    private String eventId;
+    private String eventType;
+    private LocalDateTime timestamp;
+    private Long orderId;
+    private Long customerId;
+    private String assetName;
+    private OrderSide orderSide;
+    private BigDecimal size;
+    private BigDecimal price;
+
+    /**
+     * Flattens a decoded order event, leaving events of other types without order fields
+     */
+    public static OrderEventMessage from(Event event) {
+        OrderEventMessage message = new OrderEventMessage();
+        message.setEventId(event.getEventId());
+        message.setEventType(event.getEventType());
+        message.setTimestamp(event.getTimestamp());
+        if (event instanceof OrderCreatedEvent created) {
+            message.copyOrder(created.getOrderId(), created.getCustomerId(), created.getAssetName(),
+                    created.getOrderSide(), created.getSize(), created.getPrice());
+        } else if (event instanceof OrderCancelledEvent cancelled) {
+            message.copyOrder(cancelled.getOrderId(), cancelled.getCustomerId(), cancelled.getAssetName(),
+                    cancelled.getOrderSide(), cancelled.getSize(), cancelled.getPrice());
+        } else if (event instanceof OrderMatchedEvent matched) {
+            message.copyOrder(matched.getOrderId(), matched.getCustomerId(), matched.getAssetName(),
+                    matched.getOrderSide(), matched.getSize(), matched.getPrice());
+        }
+        return message;
+    }
+
+    private void copyOrder(Long orderId, Long customerId, String assetName, OrderSide orderSide,
+                          BigDecimal size, BigDecimal price) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.assetName = assetName;
+        this.orderSide = orderSide;
+        this.size = size;
+        this.price = price;
+    }
+}
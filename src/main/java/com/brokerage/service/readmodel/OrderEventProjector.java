@@ -0,0 +1,24 @@
+package com.brokerage.service.readmodel;
+
+import com.brokerage.event.Event;
+import com.brokerage.event.PartitionedEventConsumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes the order events topic into the {@link OrderReadModel}. Partitions are projected in parallel,
+ * which is safe since the model serializes updates per customer and each order's events share a partition.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "brokerage.read-model.enabled", havingValue = "true")
+public class OrderEventProjector implements PartitionedEventConsumer {
+
+    private final OrderReadModel readModel;
+
+    @Override
+    public void onEvent(String key, Event event, int partition) {
+        readModel.apply(OrderEventMessage.from(event));
+    }
+}
@@ -0,0 +1,163 @@
+package com.brokerage.service.readmodel;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.exception.OrderNotFoundException;
+import com.brokerage.service.query.OrderCursor;
+import com.brokerage.service.query.OrderPage;
+import com.brokerage.service.query.OrderReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory read model of every customer's orders, projected from the order events topic.
+ *
+ * Each instance consumes the whole topic under its own consumer group and keeps a full copy, so
+ * order reads scale with the number of instances and never touch the order tables. The model is
+ * rebuilt from the start of the topic on startup, so the topic retention must cover the order
+ * history it should serve. Reads trail the write path by the consumer lag.
+ *
+ * Each customer's visible orders are also indexed by (createDate, id), so a page seeks to its
+ * cursor and reads only the orders it returns instead of sorting the customer's whole history.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "brokerage.read-model.enabled", havingValue = "true")
+public class OrderReadModel implements OrderReader {
+
+    private static final Comparator<OrderCursor> PAGE_ORDER =
+            Comparator.comparing(OrderCursor::getCreateDate).thenComparing(OrderCursor::getId);
+
+    private final Map<Long, CustomerOrders> ordersByCustomer = new ConcurrentHashMap<>();
+
+    /**
+     * Folds an order event into the view of its order
+     */
+    public void apply(OrderEventMessage event) {
+        if (event.getOrderId() == null || event.getCustomerId() == null || event.getTimestamp() == null) {
+            log.warn("Skipping order event {} of type {} without order, customer or timestamp",
+                    event.getEventId(), event.getEventType());
+            return;
+        }
+
+        CustomerOrders orders = ordersByCustomer.computeIfAbsent(event.getCustomerId(), id -> new CustomerOrders());
+        synchronized (orders) {
+            OrderView view = orders.byId.computeIfAbsent(event.getOrderId(), OrderView::new);
+            switch (event.getEventType()) {
+                case "ORDER_CREATED" -> {
+                    orders.unindex(view);
+                    view.created(event.getAssetName(), event.getOrderSide(),
+                            event.getSize(), event.getPrice(), event.getTimestamp());
+                    orders.index(view);
+                }
+                case "ORDER_MATCHED" -> view.filled(event.getEventId(), event.getSize(), event.getPrice(),
+                        event.getTimestamp());
+                case "ORDER_CANCELLED" -> view.cancelled(event.getTimestamp());
+                default -> log.debug("Ignoring order event {} of type {}", event.getEventId(), event.getEventType());
+            }
+        }
+    }
+
+    @Override
+    public OrderPage getOrderPage(Long customerId, OrderStatus status, LocalDateTime startDate,
+                                  LocalDateTime endDate, String cursor, int limit, boolean includeCount) {
+        OrderCursor after = cursor != null && !cursor.isEmpty() ? OrderCursor.decode(cursor) : null;
+
+        CustomerOrders orders = ordersByCustomer.get(customerId);
+        if (orders == null) {
+            return new OrderPage(List.of(), null, includeCount ? 0L : null);
+        }
+
+        List<OrderResponse> responses = new ArrayList<>();
+        Long totalCount = null;
+        synchronized (orders) {
+            NavigableMap<OrderCursor, OrderView> range = orders.range(startDate, endDate);
+            NavigableMap<OrderCursor, OrderView> remaining = after != null ? range.tailMap(after, false) : range;
+            // One extra order tells whether there is a next page
+            for (OrderView view : remaining.values()) {
+                if (status == null || view.getStatus() == status) {
+                    responses.add(view.toResponse());
+                    if (responses.size() > limit) {
+                        break;
+                    }
+                }
+            }
+            if (includeCount) {
+                totalCount = status == null
+                        ? (long) range.size()
+                        : range.values().stream().filter(view -> view.getStatus() == status).count();
+            }
+        }
+
+        String nextCursor = null;
+        if (responses.size() > limit) {
+            responses = responses.subList(0, limit);
+            OrderResponse last = responses.get(limit - 1);
+            nextCursor = new OrderCursor(last.getCreateDate(), last.getId()).encode();
+        }
+
+        return new OrderPage(responses, nextCursor, totalCount);
+    }
+
+    @Override
+    public OrderResponse getOrderResponse(Long orderId, Long customerId) {
+        CustomerOrders orders = ordersByCustomer.get(customerId);
+        if (orders != null) {
+            synchronized (orders) {
+                OrderView view = orders.byId.get(orderId);
+                if (view != null && view.isVisible()) {
+                    return view.toResponse();
+                }
+            }
+        }
+        throw new OrderNotFoundException(
+                String.format("Order %d not found for customer ID %d", orderId, customerId));
+    }
+
+    /**
+     * Views of one customer's orders by id, with the visible ones also in page order
+     */
+    private static final class CustomerOrders {
+
+        private final Map<Long, OrderView> byId = new HashMap<>();
+        private final NavigableMap<OrderCursor, OrderView> byPosition = new TreeMap<>(PAGE_ORDER);
+
+        void index(OrderView view) {
+            byPosition.put(position(view), view);
+        }
+
+        void unindex(OrderView view) {
+            if (view.isVisible()) {
+                byPosition.remove(position(view));
+            }
+        }
+
+        NavigableMap<OrderCursor, OrderView> range(LocalDateTime startDate, LocalDateTime endDate) {
+            NavigableMap<OrderCursor, OrderView> range = byPosition;
+            if (startDate != null) {
+                range = range.tailMap(new OrderCursor(startDate, Long.MIN_VALUE), true);
+            }
+            if (endDate != null) {
+                range = range.headMap(new OrderCursor(endDate, Long.MAX_VALUE), true);
+            }
+            return range;
+        }
+
+        private static OrderCursor position(OrderView view) {
+            return new OrderCursor(view.getCreateDate(), view.getId());
+        }
+    }
+}
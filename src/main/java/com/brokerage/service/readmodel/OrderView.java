@@ -0,0 +1,105 @@
+package com.brokerage.service.readmodel;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Denormalized state of one order, folded from its events.
+ *
+ * Events of an order may arrive out of order or more than once, so the state is kept in a form
+ * where applying them commutes: fills are summed once per event id, cancellation is sticky and the
+ * status is derived from the sums. A view is only visible once its creation event has arrived.
+ * Guarded by the lock of the customer's orders in {@link OrderReadModel}.
+ */
+final class OrderView {
+
+    private final Long id;
+    private String assetName;
+    private OrderSide orderSide;
+    private BigDecimal size;
+    private BigDecimal price;
+    private LocalDateTime createDate;
+    private LocalDateTime updateDate;
+    private BigDecimal filledSize = BigDecimal.ZERO;
+    private BigDecimal filledNotional = BigDecimal.ZERO;
+    private boolean cancelled;
+    private final Set<String> fillEventIds = new HashSet<>();
+
+    OrderView(Long id) {
+        this.id = id;
+    }
+
+    void created(String assetName, OrderSide orderSide, BigDecimal size, BigDecimal price, LocalDateTime at) {
+        this.assetName = assetName;
+        this.orderSide = orderSide;
+        this.size = size;
+        this.price = price;
+        this.createDate = at;
+    }
+
+    void filled(String eventId, BigDecimal fillSize, BigDecimal fillPrice, LocalDateTime at) {
+        if (fillEventIds.add(eventId)) {
+            filledSize = filledSize.add(fillSize);
+            filledNotional = filledNotional.add(fillSize.multiply(fillPrice));
+            touch(at);
+        }
+    }
+
+    void cancelled(LocalDateTime at) {
+        cancelled = true;
+        touch(at);
+    }
+
+    boolean isVisible() {
+        return createDate != null;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    LocalDateTime getCreateDate() {
+        return createDate;
+    }
+
+    OrderStatus getStatus() {
+        if (cancelled) {
+            return OrderStatus.CANCELED;
+        }
+        if (filledSize.signum() == 0) {
+            return OrderStatus.PENDING;
+        }
+        return filledSize.compareTo(size) >= 0 ? OrderStatus.MATCHED : OrderStatus.PARTIALLY_FILLED;
+    }
+
+    OrderResponse toResponse() {
+        return OrderResponse.builder()
+                .id(id)
+                .assetName(assetName)
+                .orderSide(orderSide)
+                .size(size)
+                .price(price)
+                .filledSize(filledSize)
+                .remainingSize(size.subtract(filledSize))
+                .averageFillPrice(filledSize.signum() == 0
+                        ? null
+                        : filledNotional.divide(filledSize, 4, RoundingMode.HALF_UP))
+                .status(getStatus())
+                .createDate(createDate)
+                .updateDate(updateDate)
+                .build();
+    }
+
+    private void touch(LocalDateTime at) {
+        if (updateDate == null || at.isAfter(updateDate)) {
+            updateDate = at;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.brokerage.service.reconciliation;
+
+import com.brokerage.api.dto.response.BalanceDrift;
+import com.brokerage.api.dto.response.ReconciliationResponse;
+import com.brokerage.domain.Asset;
+import com.brokerage.domain.Money;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.service.ledger.BalanceLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies that every usable balance equals its size minus what the open orders reserve:
+ * remaining size times limit price in TRY for buys, remaining size of the asset for sells.
+ *
+ * The customer id range is split recursively on a {@link ForkJoinPool} until each task covers at
+ * most a configured number of customers. A task streams the open orders and then the assets of its
+ * range with a bounded fetch size, so only the reservations of one range are held in memory.
+ * The ledger is flushed first so the assets table reflects the in-memory balances.
+ *
+ * The two scans are separate statements, so orders placed or cancelled in between can show up as
+ * transient drift. With repair enabled a drifted balance is therefore verified again before it is
+ * corrected: its balances are taken from the ledger while no transaction has an uncommitted change on
+ * them, so every order that reserved or released them is committed, the customer's open orders are
+ * read again, and the correction only applies if the ledger has not changed in the meantime.
+ */
+@Slf4j
+@Service
+public class BalanceReconciliationService {
+
+    private static final String TRY_ASSET = "TRY";
+    private static final String OPEN_STATUSES = OrderStatus.OPEN_STATUSES.stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", "));
+    private static final String CUSTOMER_RANGE_SQL =
+            "SELECT MIN(customer_id), MAX(customer_id) FROM assets";
+    private static final String OPEN_ORDERS_SQL =
+            "SELECT customer_id, asset_name, order_side, remaining_size, price FROM orders " +
+            "WHERE status IN (" + OPEN_STATUSES + ") AND customer_id BETWEEN ? AND ?";
+    private static final String CUSTOMER_OPEN_ORDERS_SQL =
+            "SELECT asset_name, order_side, remaining_size, price FROM orders " +
+            "WHERE status IN (" + OPEN_STATUSES + ") AND customer_id = ?";
+    private static final String ASSETS_SQL =
+            "SELECT customer_id, asset_name, size, usable_size FROM assets WHERE customer_id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceLedger ledger;
+    private final int parallelism;
+    private final long customersPerTask;
+    private final int fetchSize;
+    private final Money tolerance;
+    private final int maxReportedDrifts;
+
+    public BalanceReconciliationService(
+            JdbcTemplate jdbcTemplate,
+            BalanceLedger ledger,
+            @Value("${brokerage.reconciliation.parallelism:4}") int parallelism,
+            @Value("${brokerage.reconciliation.customers-per-task:500}") long customersPerTask,
+            @Value("${brokerage.reconciliation.fetch-size:1000}") int fetchSize,
+            @Value("${brokerage.reconciliation.tolerance:0.01}") BigDecimal tolerance,
+            @Value("${brokerage.reconciliation.max-reported-drifts:1000}") int maxReportedDrifts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ledger = ledger;
+        this.parallelism = parallelism;
+        this.customersPerTask = customersPerTask;
+        this.fetchSize = fetchSize;
+        this.tolerance = Money.of(tolerance);
+        this.maxReportedDrifts = maxReportedDrifts;
+    }
+
+    /**
+     * Reconciles all balances, correcting drifted ones on the ledger if repair is set
+     */
+    public ReconciliationResponse reconcile(boolean repair) {
+        long startTime = System.nanoTime();
+        ledger.flush();
+
+        long[] customerRange = jdbcTemplate.queryForObject(CUSTOMER_RANGE_SQL, (rs, rowNum) ->
+                rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+
+        RangeResult result = new RangeResult();
+        if (customerRange != null) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                result = pool.invoke(new RangeTask(customerRange[0], customerRange[1], repair));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        log.info("Reconciled {} balances against {} open orders in {} ranges, {} drifted, {} repaired, {} ms",
+                result.assetsChecked, result.openOrders, result.ranges, result.drifted, result.repaired, elapsedMillis);
+
+        return ReconciliationResponse.builder()
+                .customerRanges(result.ranges)
+                .assetsChecked(result.assetsChecked)
+                .openOrders(result.openOrders)
+                .drifted(result.drifted)
+                .repaired(result.repaired)
+                .elapsedMillis(elapsedMillis)
+                .drifts(result.drifts)
+                .build();
+    }
+
+    private RangeResult reconcileRange(long fromCustomerId, long toCustomerId, boolean repair) {
+        RangeResult result = new RangeResult();
+        result.ranges = 1;
+
+        Map<Long, Map<String, Money>> reserved = new HashMap<>();
+        jdbcTemplate.query(OPEN_ORDERS_SQL, range(fromCustomerId, toCustomerId), rs -> {
+            reserved.computeIfAbsent(rs.getLong("customer_id"), id -> new HashMap<>())
+                    .merge(reservedAssetName(rs), reservedAmount(rs), Money::plus);
+            result.openOrders++;
+        });
+
+        jdbcTemplate.query(ASSETS_SQL, range(fromCustomerId, toCustomerId), rs -> {
+            long customerId = rs.getLong("customer_id");
+            String assetName = rs.getString("asset_name");
+            Map<String, Money> customerReserved = reserved.get(customerId);
+            Money reservedSize = customerReserved != null ? customerReserved.remove(assetName) : null;
+            check(result, customerId, assetName,
+                    Money.of(rs.getBigDecimal("size")),
+                    Money.of(rs.getBigDecimal("usable_size")),
+                    reservedSize != null ? reservedSize : Money.ZERO,
+                    repair);
+            result.assetsChecked++;
+        });
+
+        // Reservations left over belong to orders on assets the customer does not hold
+        reserved.forEach((customerId, customerReserved) -> customerReserved.forEach((assetName, reservedSize) ->
+                check(result, customerId, assetName, Money.ZERO, Money.ZERO, reservedSize, false)));
+
+        return result;
+    }
+
+    private void check(RangeResult result, long customerId, String assetName,
+                       Money size, Money usableSize, Money reservedSize, boolean repair) {
+        Money expectedUsableSize = size.minus(reservedSize);
+        Money drift = usableSize.minus(expectedUsableSize);
+        if ((drift.signum() < 0 ? drift.negate() : drift).compareTo(tolerance) <= 0) {
+            return;
+        }
+
+        boolean repaired = repair && repair(customerId, assetName);
+        log.warn("Usable {} of customer {} is {} but size {} minus reserved {} is {}{}", assetName, customerId,
+                usableSize, size, reservedSize, expectedUsableSize, repaired ? ", repaired" : "");
+
+        result.drifted++;
+        if (repaired) {
+            result.repaired++;
+        }
+        if (result.drifts.size() < maxReportedDrifts) {
+            result.drifts.add(BalanceDrift.builder()
+                    .customerId(customerId)
+                    .assetName(assetName)
+                    .size(size.toBigDecimal())
+                    .usableSize(usableSize.toBigDecimal())
+                    .reservedSize(reservedSize.toBigDecimal())
+                    .expectedUsableSize(expectedUsableSize.toBigDecimal())
+                    .repaired(repaired)
+                    .build());
+        }
+    }
+
+    /**
+     * Corrects a drifted usable balance after checking the drift again against a settled ledger balance
+     * and the customer's open orders as committed now
+     *
+     * @return false if the balance has uncommitted changes, no longer drifts or changed while checking
+     */
+    private boolean repair(long customerId, String assetName) {
+        Optional<Asset> settled = ledger.findSettled(customerId, assetName);
+        if (settled.isEmpty()) {
+            return false;
+        }
+        Money size = Money.of(settled.get().getSize());
+        Money usableSize = Money.of(settled.get().getUsableSize());
+
+        Money[] reservedSize = {Money.ZERO};
+        jdbcTemplate.query(CUSTOMER_OPEN_ORDERS_SQL, rs -> {
+            if (assetName.equals(reservedAssetName(rs))) {
+                reservedSize[0] = reservedSize[0].plus(reservedAmount(rs));
+            }
+        }, customerId);
+
+        Money expectedUsableSize = size.minus(reservedSize[0]);
+        Money drift = usableSize.minus(expectedUsableSize);
+        if (expectedUsableSize.signum() < 0 || (drift.signum() < 0 ? drift.negate() : drift).compareTo(tolerance) <= 0) {
+            return false;
+        }
+        return ledger.correctUsableSize(customerId, assetName, size, usableSize, expectedUsableSize);
+    }
+
+    /**
+     * The asset an open order reserves: TRY for buys, the traded asset for sells
+     */
+    private static String reservedAssetName(ResultSet rs) throws SQLException {
+        return OrderSide.BUY.name().equals(rs.getString("order_side")) ? TRY_ASSET : rs.getString("asset_name");
+    }
+
+    /**
+     * The amount an open order reserves: remaining size times limit price for buys, remaining size for sells
+     */
+    private static Money reservedAmount(ResultSet rs) throws SQLException {
+        Money remainingSize = Money.of(rs.getBigDecimal("remaining_size"));
+        return OrderSide.BUY.name().equals(rs.getString("order_side"))
+                ? remainingSize.times(Money.of(rs.getBigDecimal("price")))
+                : remainingSize;
+    }
+
+    private PreparedStatementSetter range(long fromCustomerId, long toCustomerId) {
+        return statement -> {
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, fromCustomerId);
+            statement.setLong(2, toCustomerId);
+        };
+    }
+
+    /**
+     * Splits a customer id range in halves until it is small enough to reconcile directly
+     */
+    private final class RangeTask extends RecursiveTask<RangeResult> {
+
+        private final long fromCustomerId;
+        private final long toCustomerId;
+        private final boolean repair;
+
+        private RangeTask(long fromCustomerId, long toCustomerId, boolean repair) {
+            this.fromCustomerId = fromCustomerId;
+            this.toCustomerId = toCustomerId;
+            this.repair = repair;
+        }
+
+        @Override
+        protected RangeResult compute() {
+            if (toCustomerId - fromCustomerId < customersPerTask) {
+                return reconcileRange(fromCustomerId, toCustomerId, repair);
+            }
+            long middle = fromCustomerId + (toCustomerId - fromCustomerId) / 2;
+            RangeTask lower = new RangeTask(fromCustomerId, middle, repair);
+            RangeTask upper = new RangeTask(middle + 1, toCustomerId, repair);
+            lower.fork();
+            RangeResult result = upper.compute();
+            return result.merge(lower.join(), maxReportedDrifts);
+        }
+    }
+
+    private static final class RangeResult {
+        private int ranges;
+        private long assetsChecked;
+        private long openOrders;
+        private long drifted;
+        private long repaired;
+        private final List<BalanceDrift> drifts = new ArrayList<>();
+
+        private RangeResult merge(RangeResult other, int maxReportedDrifts) {
+            ranges += other.ranges;
+            assetsChecked += other.assetsChecked;
+            openOrders += other.openOrders;
+            drifted += other.drifted;
+            repaired += other.repaired;
+            for (BalanceDrift drift : other.drifts) {
+                if (drifts.size() >= maxReportedDrifts) {
+                    break;
+                }
+                drifts.add(drift);
+            }
+            return this;
+        }
+    }
+}
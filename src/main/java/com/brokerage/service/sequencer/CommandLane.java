@@ -0,0 +1,93 @@
+package com.brokerage.service.sequencer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A single writer thread draining commands from its own {@link RingBuffer}.
+ *
+ * The thread spins briefly when the buffer runs dry and then parks; producers
+ * unpark it when they publish to a parked lane, so an idle lane costs no CPU and
+ * a busy lane never blocks on a lock.
+ */
+@Slf4j
+class CommandLane implements Runnable {
+
+    private static final int SPIN_LIMIT = 1_000;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RingBuffer<Runnable> buffer;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean parked;
+
+    CommandLane(String name, int bufferSize) {
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Publishes a command to the lane, returning false if the lane is full or stopped
+     */
+    boolean publish(Runnable command) {
+        if (!running || !buffer.offer(command)) {
+            return false;
+        }
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting commands and waits for the already published ones to drain
+     */
+    void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(timeoutMillis);
+    }
+
+    boolean isCurrentThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    int backlog() {
+        return buffer.size();
+    }
+
+    @Override
+    public void run() {
+        int idleSpins = 0;
+        while (running || !buffer.isEmpty()) {
+            Runnable command = buffer.poll();
+            if (command == null) {
+                if (idleSpins < SPIN_LIMIT) {
+                    idleSpins++;
+                    Thread.onSpinWait();
+                } else {
+                    parked = true;
+                    if (buffer.isEmpty() && running) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    parked = false;
+                }
+                continue;
+            }
+
+            idleSpins = 0;
+            try {
+                command.run();
+            } catch (Throwable t) {
+                log.error("Command failed on lane {}", thread.getName(), t);
+            }
+        }
+    }
+}
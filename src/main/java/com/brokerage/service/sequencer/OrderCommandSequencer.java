@@ -0,0 +1,211 @@
+package com.brokerage.service.sequencer;
+
+import com.brokerage.exception.OrderCommandRejectedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Routes order commands into single-threaded lanes by a routing key.
+ *
+ * Commands sharing a key always run on the same lane thread, one at a time and in
+ * submission order, so they never contend with each other for locks or rows. The
+ * calling thread only waits on a {@link CompletableFuture}; a full lane rejects the
+ * command immediately rather than queueing without bound.
+ *
+ * A command is only reported as rejected when it is certain never to run: a caller that
+ * times out abandons its command if the lane has not started it yet, and otherwise waits
+ * for the running command's outcome, since the command may still commit.
+ */
+@Slf4j
+@Component
+public class OrderCommandSequencer {
+
+    private final boolean enabled;
+    private final int laneCount;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private CommandLane[] lanes;
+
+    public OrderCommandSequencer(
+            @Value("${brokerage.sequencer.enabled:true}") boolean enabled,
+            @Value("${brokerage.sequencer.lanes:4}") int laneCount,
+            @Value("${brokerage.sequencer.buffer-size:1024}") int bufferSize,
+            @Value("${brokerage.sequencer.timeout-ms:5000}") long timeoutMillis) {
+        this.enabled = enabled;
+        this.laneCount = laneCount;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Order command sequencer disabled, commands run on request threads");
+            return;
+        }
+
+        lanes = new CommandLane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new CommandLane("order-lane-" + i, bufferSize);
+            lanes[i].start();
+        }
+        log.info("Started order command sequencer with {} lanes of {} slots", laneCount, bufferSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (lanes == null) {
+            return;
+        }
+        for (CommandLane lane : lanes) {
+            lane.stop(timeoutMillis);
+        }
+        log.info("Stopped order command sequencer");
+    }
+
+    /**
+     * Publishes a command to the lane owning the routing key without waiting for it
+     */
+    public <T> CompletableFuture<T> submit(Object routingKey, Supplier<T> command) {
+        return enqueue(routingKey, command).result;
+    }
+
+    /**
+     * Runs a command on the lane owning the routing key and waits for its result,
+     * rethrowing any exception the command raised.
+     *
+     * If the command has not started within the timeout it is abandoned and rejected; if it
+     * has started, this waits for it to finish rather than report a failure for work that may commit.
+     */
+    public <T> T execute(Object routingKey, Supplier<T> command) {
+        QueuedCommand<T> queued = enqueue(routingKey, command);
+        try {
+            try {
+                return queued.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (queued.abandon()) {
+                    throw new OrderCommandRejectedException(
+                            "Order command was not started within " + timeoutMillis + " ms, please retry");
+                }
+                log.warn("Order command still running after {} ms, waiting for its outcome", timeoutMillis);
+                return queued.result.get();
+            }
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Order command failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (queued.abandon()) {
+                throw new OrderCommandRejectedException("Interrupted while waiting for order command");
+            }
+            throw new IllegalStateException("Interrupted while order command was running, its outcome is unknown");
+        }
+    }
+
+    /**
+     * Current number of queued commands per lane
+     */
+    public int[] backlog() {
+        if (lanes == null) {
+            return new int[0];
+        }
+        int[] backlog = new int[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            backlog[i] = lanes[i].backlog();
+        }
+        return backlog;
+    }
+
+    /**
+     * Whether the calling thread is one of the lane threads
+     */
+    public boolean isLaneThread() {
+        if (lanes == null) {
+            return false;
+        }
+        for (CommandLane lane : lanes) {
+            if (lane.isCurrentThread()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> QueuedCommand<T> enqueue(Object routingKey, Supplier<T> command) {
+        QueuedCommand<T> queued = new QueuedCommand<>(command);
+        if (lanes == null) {
+            queued.run();
+            return queued;
+        }
+
+        CommandLane lane = laneFor(routingKey);
+        if (lane.isCurrentThread()) {
+            queued.run();
+            return queued;
+        }
+
+        if (!lane.publish(queued)) {
+            throw new OrderCommandRejectedException("Order command queue is full, please retry");
+        }
+        return queued;
+    }
+
+    private CommandLane laneFor(Object routingKey) {
+        return lanes[Math.floorMod(routingKey.hashCode(), lanes.length)];
+    }
+
+    /**
+     * A command on its way through a lane. Starting and abandoning it race on one state,
+     * so a command is either run by the lane or given up by its caller, never both.
+     */
+    private static final class QueuedCommand<T> implements Runnable {
+
+        private static final int QUEUED = 0;
+        private static final int STARTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final Supplier<T> command;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private QueuedCommand(Supplier<T> command) {
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            if (!state.compareAndSet(QUEUED, STARTED)) {
+                return;
+            }
+            try {
+                result.complete(command.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        /**
+         * Gives up the command if the lane has not started it, returning false if it is already running or done
+         */
+        private boolean abandon() {
+            return state.compareAndSet(QUEUED, ABANDONED);
+        }
+    }
+}
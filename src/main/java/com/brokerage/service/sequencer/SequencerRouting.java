@@ -0,0 +1,15 @@
+package com.brokerage.service.sequencer;
+
+/**
+ * Which key order commands are partitioned by across sequencer lanes
+ */
+public enum SequencerRouting {
+    /**
+     * One writer per asset: every order book is only ever mutated by a single thread
+     */
+    ASSET,
+    /**
+     * One writer per customer: a customer's TRY and asset rows are only ever mutated by a single thread
+     */
+    CUSTOMER
+}
@@ -0,0 +1,98 @@
+package com.brokerage.service.stats;
+
+import com.brokerage.domain.OrderSide;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals, candles and open order counts of one asset, all updated in constant time without locks
+ */
+final class AssetStats {
+
+    private final String assetName;
+    private final LongAdder volume = new LongAdder();
+    private final LongAdder notional = new LongAdder();
+    private final LongAdder trades = new LongAdder();
+    private final AtomicLong lastPrice = new AtomicLong();
+    private final LongAdder pendingBuys = new LongAdder();
+    private final LongAdder pendingSells = new LongAdder();
+    private final Map<CandleInterval, CandleSeries> candles = new EnumMap<>(CandleInterval.class);
+
+    AssetStats(String assetName) {
+        this.assetName = assetName;
+        for (CandleInterval interval : CandleInterval.values()) {
+            candles.put(interval, new CandleSeries(interval));
+        }
+    }
+
+    void recordTrade(long epochMillis, long priceUnits, long sizeUnits, long notionalUnits) {
+        volume.add(sizeUnits);
+        notional.add(notionalUnits);
+        trades.increment();
+        lastPrice.set(priceUnits);
+        for (CandleSeries series : candles.values()) {
+            series.record(epochMillis, priceUnits, sizeUnits, notionalUnits);
+        }
+    }
+
+    /**
+     * Sets the last price recorded before startup, unless a trade has set one already
+     */
+    void seedLastPrice(long priceUnits) {
+        lastPrice.compareAndSet(0, priceUnits);
+    }
+
+    void addPending(OrderSide side, long delta) {
+        (side == OrderSide.BUY ? pendingBuys : pendingSells).add(delta);
+    }
+
+    void resetPending() {
+        pendingBuys.reset();
+        pendingSells.reset();
+    }
+
+    String getAssetName() {
+        return assetName;
+    }
+
+    long getVolume() {
+        return volume.sum();
+    }
+
+    long getNotional() {
+        return notional.sum();
+    }
+
+    long getTrades() {
+        return trades.sum();
+    }
+
+    /**
+     * Last traded price in units, or 0 if none is known
+     */
+    long getLastPrice() {
+        return lastPrice.get();
+    }
+
+    /**
+     * Whether the last price is still the startup seed rather than a trade recorded since
+     */
+    boolean isLastPriceSeeded() {
+        return trades.sum() == 0 && lastPrice.get() != 0;
+    }
+
+    long getPendingBuys() {
+        return pendingBuys.sum();
+    }
+
+    long getPendingSells() {
+        return pendingSells.sum();
+    }
+
+    CandleSeries getCandles(CandleInterval interval) {
+        return candles.get(interval);
+    }
+}
@@ -0,0 +1,192 @@
+package com.brokerage.service.stats;
+
+import com.brokerage.api.dto.response.AssetStatsResponse;
+import com.brokerage.api.dto.response.CandleResponse;
+import com.brokerage.domain.Money;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.event.OrderCancelledEvent;
+import com.brokerage.event.OrderCreatedEvent;
+import com.brokerage.event.OrderEvent;
+import com.brokerage.event.OrderMatchedEvent;
+import com.brokerage.exception.AssetNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-asset market statistics, maintained from the order and trade events of committed transactions.
+ *
+ * Each event costs a constant number of adder and compare-and-set operations on the asset's counters,
+ * so recording never blocks order flow or readers. Open order counts are seeded from the orders table
+ * on startup; volume, VWAP and candles cover the trades executed since.
+ *
+ * No table keeps individual trade prices, so the last price of an asset that has not traded since
+ * startup is an approximation: the average fill price of its most recently updated filled order in the
+ * orders table. That order's last update may be a cancellation rather than its last fill, and assets
+ * whose filled orders have all been archived get no seed. Seeded prices are reported as approximate
+ * until the asset's first trade replaces them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetStatsService {
+
+    private static final String OPEN_ORDER_COUNTS_SQL =
+            "SELECT asset_name, order_side, COUNT(*) AS open_orders FROM orders WHERE status IN (" +
+            OrderStatus.OPEN_STATUSES.stream()
+                    .map(status -> "'" + status.name() + "'")
+                    .collect(Collectors.joining(", ")) +
+            ") GROUP BY asset_name, order_side";
+
+    private static final String LAST_FILL_PRICES_SQL =
+            "SELECT o.asset_name, o.average_fill_price FROM orders o JOIN (" +
+            "SELECT asset_name, MAX(update_date) AS last_fill FROM orders WHERE filled_size > 0 GROUP BY asset_name" +
+            ") l ON l.asset_name = o.asset_name AND l.last_fill = o.update_date WHERE o.filled_size > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, AssetStats> statsByAsset = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the open order counts with those of the orders table once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenOrderCounts() {
+        statsByAsset.values().forEach(AssetStats::resetPending);
+        jdbcTemplate.query(OPEN_ORDER_COUNTS_SQL, rs -> {
+            statsFor(rs.getString("asset_name"))
+                    .addPending(OrderSide.valueOf(rs.getString("order_side")), rs.getLong("open_orders"));
+        });
+        log.info("Loaded open order counts for {} assets", statsByAsset.size());
+    }
+
+    /**
+     * Seeds the last prices with the average fill price of each asset's most recently updated filled order,
+     * an approximation of the last trade price kept until trades after startup replace it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLastPrices() {
+        jdbcTemplate.query(LAST_FILL_PRICES_SQL, rs -> {
+            Money price = Money.of(rs.getBigDecimal("average_fill_price"));
+            statsFor(rs.getString("asset_name")).seedLastPrice(price.units());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (event instanceof OrderCreatedEvent created) {
+            statsFor(created.getAssetName()).addPending(created.getOrderSide(), 1);
+        } else if (event instanceof OrderCancelledEvent cancelled) {
+            statsFor(cancelled.getAssetName()).addPending(cancelled.getOrderSide(), -1);
+        } else if (event instanceof OrderMatchedEvent matched && matched.getStatus() == OrderStatus.MATCHED) {
+            statsFor(matched.getAssetName()).addPending(matched.getOrderSide(), -1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeExecuted(TradeExecutedEvent trade) {
+        Money size = trade.getSize();
+        Money price = trade.getPrice();
+        statsFor(trade.getAssetName())
+                .recordTrade(System.currentTimeMillis(), price.units(), size.units(), size.times(price).units());
+    }
+
+    /**
+     * Last traded price of an asset, if any trade of it is known
+     */
+    public Optional<Money> getLastPrice(String assetName) {
+        AssetStats stats = statsByAsset.get(assetName);
+        return stats == null || stats.getLastPrice() == 0
+                ? Optional.empty()
+                : Optional.of(Money.ofUnits(stats.getLastPrice()));
+    }
+
+    /**
+     * Whether the last price of an asset is the startup approximation rather than a trade since startup
+     */
+    public boolean isLastPriceApproximate(String assetName) {
+        AssetStats stats = statsByAsset.get(assetName);
+        return stats != null && stats.isLastPriceSeeded();
+    }
+
+    /**
+     * Statistics of every asset that has open orders or trades, by asset name
+     */
+    public List<AssetStatsResponse> getAllStats(CandleInterval interval) {
+        long now = System.currentTimeMillis();
+        return statsByAsset.values().stream()
+                .sorted(Comparator.comparing(AssetStats::getAssetName))
+                .map(stats -> toResponse(stats, interval, now))
+                .toList();
+    }
+
+    /**
+     * Statistics of one asset with its recent candles of the given interval
+     */
+    public AssetStatsResponse getStats(String assetName, CandleInterval interval) {
+        AssetStats stats = statsByAsset.get(assetName);
+        if (stats == null) {
+            throw new AssetNotFoundException("No statistics for asset " + assetName);
+        }
+        return toResponse(stats, interval, System.currentTimeMillis());
+    }
+
+    private AssetStats statsFor(String assetName) {
+        return statsByAsset.computeIfAbsent(assetName, AssetStats::new);
+    }
+
+    private static AssetStatsResponse toResponse(AssetStats stats, CandleInterval interval, long now) {
+        long trades = stats.getTrades();
+        return AssetStatsResponse.builder()
+                .assetName(stats.getAssetName())
+                .tradeCount(trades)
+                .volume(Money.ofUnits(stats.getVolume()).toBigDecimal())
+                .vwap(vwap(stats.getNotional(), stats.getVolume()))
+                .lastPrice(stats.getLastPrice() != 0 ? Money.ofUnits(stats.getLastPrice()).toBigDecimal() : null)
+                .lastPriceApproximate(stats.isLastPriceSeeded())
+                .pendingBuyOrders(stats.getPendingBuys())
+                .pendingSellOrders(stats.getPendingSells())
+                .interval(interval)
+                .candles(stats.getCandles(interval).recent(now).stream()
+                        .map(AssetStatsService::toResponse)
+                        .toList())
+                .build();
+    }
+
+    private static CandleResponse toResponse(Candle candle) {
+        return CandleResponse.builder()
+                .start(LocalDateTime.ofInstant(Instant.ofEpochMilli(candle.getStartMillis()), ZoneId.systemDefault()))
+                .open(Money.ofUnits(candle.getOpen()).toBigDecimal())
+                .high(Money.ofUnits(candle.getHigh()).toBigDecimal())
+                .low(Money.ofUnits(candle.getLow()).toBigDecimal())
+                .close(Money.ofUnits(candle.getClose()).toBigDecimal())
+                .volume(Money.ofUnits(candle.getVolume()).toBigDecimal())
+                .vwap(vwap(candle.getNotional(), candle.getVolume()))
+                .tradeCount(candle.getTrades())
+                .build();
+    }
+
+    private static BigDecimal vwap(long notionalUnits, long volumeUnits) {
+        if (volumeUnits == 0) {
+            return null;
+        }
+        return Money.ofUnits(notionalUnits).toBigDecimal()
+                .divide(Money.ofUnits(volumeUnits).toBigDecimal(), Money.SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,73 @@
+package com.brokerage.service.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open, high, low, close, volume and notional of one period, in {@link com.brokerage.domain.Money} units.
+ * Updated without locks; close is the price of whichever concurrent trade recorded last.
+ */
+final class Candle {
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    private final long startMillis;
+    private final AtomicLong open = new AtomicLong(NO_PRICE);
+    private final LongAccumulator high = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    private final LongAccumulator low = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final AtomicLong close = new AtomicLong(NO_PRICE);
+    private final LongAdder volume = new LongAdder();
+    private final LongAdder notional = new LongAdder();
+    private final LongAdder trades = new LongAdder();
+
+    Candle(long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    void record(long priceUnits, long sizeUnits, long notionalUnits) {
+        open.compareAndSet(NO_PRICE, priceUnits);
+        high.accumulate(priceUnits);
+        low.accumulate(priceUnits);
+        close.set(priceUnits);
+        volume.add(sizeUnits);
+        notional.add(notionalUnits);
+        trades.increment();
+    }
+
+    long getStartMillis() {
+        return startMillis;
+    }
+
+    long getOpen() {
+        return open.get();
+    }
+
+    long getHigh() {
+        return high.get();
+    }
+
+    long getLow() {
+        return low.get();
+    }
+
+    long getClose() {
+        return close.get();
+    }
+
+    long getVolume() {
+        return volume.sum();
+    }
+
+    long getNotional() {
+        return notional.sum();
+    }
+
+    long getTrades() {
+        return trades.sum();
+    }
+
+    boolean hasTrades() {
+        return open.get() != NO_PRICE;
+    }
+}
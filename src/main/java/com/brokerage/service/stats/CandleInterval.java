@@ -0,0 +1,28 @@
+package com.brokerage.service.stats;
+
+import java.time.Duration;
+
+/**
+ * Candle resolutions, each kept for a fixed number of recent periods
+ */
+public enum CandleInterval {
+    MINUTE(Duration.ofMinutes(1), 60),
+    HOUR(Duration.ofHours(1), 24),
+    DAY(Duration.ofDays(1), 30);
+
+    private final long periodMillis;
+    private final int retainedPeriods;
+
+    CandleInterval(Duration period, int retainedPeriods) {
+        this.periodMillis = period.toMillis();
+        this.retainedPeriods = retainedPeriods;
+    }
+
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    public int getRetainedPeriods() {
+        return retainedPeriods;
+    }
+}
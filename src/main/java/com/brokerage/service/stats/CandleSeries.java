@@ -0,0 +1,57 @@
+package com.brokerage.service.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring of the most recent candles of one interval. A slot is reused by swapping in a new candle
+ * with compare-and-set once its period has rolled out of the window.
+ */
+final class CandleSeries {
+
+    private final long periodMillis;
+    private final AtomicReferenceArray<Candle> ring;
+
+    CandleSeries(CandleInterval interval) {
+        this.periodMillis = interval.getPeriodMillis();
+        this.ring = new AtomicReferenceArray<>(interval.getRetainedPeriods());
+    }
+
+    void record(long epochMillis, long priceUnits, long sizeUnits, long notionalUnits) {
+        long period = Math.floorDiv(epochMillis, periodMillis);
+        long startMillis = period * periodMillis;
+        int slot = (int) Math.floorMod(period, (long) ring.length());
+
+        Candle candle = ring.get(slot);
+        while (candle == null || candle.getStartMillis() < startMillis) {
+            Candle fresh = new Candle(startMillis);
+            if (ring.compareAndSet(slot, candle, fresh)) {
+                candle = fresh;
+                break;
+            }
+            candle = ring.get(slot);
+        }
+        // A trade recorded after its period left the window is only counted in the totals
+        if (candle.getStartMillis() == startMillis) {
+            candle.record(priceUnits, sizeUnits, notionalUnits);
+        }
+    }
+
+    /**
+     * Candles with trades within the window ending at the given time, oldest first
+     */
+    List<Candle> recent(long nowMillis) {
+        long windowStart = (Math.floorDiv(nowMillis, periodMillis) - ring.length() + 1) * periodMillis;
+        List<Candle> candles = new ArrayList<>(ring.length());
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Candle candle = ring.get(slot);
+            if (candle != null && candle.getStartMillis() >= windowStart && candle.hasTrades()) {
+                candles.add(candle);
+            }
+        }
+        candles.sort(Comparator.comparingLong(Candle::getStartMillis));
+        return candles;
+    }
+}
@@ -0,0 +1,14 @@
+package com.brokerage.service.stats;
+
+import com.brokerage.domain.Money;
+import lombok.Value;
+
+/**
+ * In-process notification of one execution, published once per trade rather than once per filled order
+ */
+@Value
+public class TradeExecutedEvent {
+    String assetName;
+    Money size;
+    Money price;
+}
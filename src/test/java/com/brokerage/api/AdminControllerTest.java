@@ -0,0 +1,146 @@
+package com.brokerage.api;
+
+import com.brokerage.api.dto.request.BatchMatchOrderRequest;
+import com.brokerage.api.dto.response.BatchMatchResponse;
+import com.brokerage.api.dto.response.BatchMatchResult;
+import com.brokerage.api.mapper.AssetMapper;
+import com.brokerage.api.mapper.CustomerMapper;
+import com.brokerage.api.mapper.OrderMapper;
+import com.brokerage.event.OutboxService;
+import com.brokerage.exception.GlobalExceptionHandler;
+import com.brokerage.service.CustomerService;
+import com.brokerage.service.command.OrderBatchMatchService;
+import com.brokerage.service.command.OrderCommandGateway;
+import com.brokerage.service.query.OrderQueryService;
+import com.brokerage.service.reconciliation.BalanceReconciliationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class AdminControllerTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private OrderCommandGateway orderCommandGateway;
+
+    @Mock
+    private OrderBatchMatchService orderBatchMatchService;
+
+    @Mock
+    private OrderQueryService orderQueryService;
+
+    @Mock
+    private BalanceReconciliationService balanceReconciliationService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CustomerMapper customerMapper;
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private AssetMapper assetMapper;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(adminController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void matchOrders_ShouldReturnPartialFailures() throws Exception {
+        BatchMatchResponse response = BatchMatchResponse.builder()
+                .requested(3)
+                .matched(1)
+                .failed(2)
+                .chunks(2)
+                .results(List.of(
+                        BatchMatchResult.builder().orderId(1L).success(true).message("Order matched").build(),
+                        BatchMatchResult.failure(2L, "Insufficient TRY balance"),
+                        BatchMatchResult.failure(3L, "Chunk rolled back: constraint violated")))
+                .build();
+        when(orderBatchMatchService.matchOrders(any(BatchMatchOrderRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/admin/orders/match/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\":[1,2,3],\"chunkSize\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.matched").value(1))
+                .andExpect(jsonPath("$.data.failed").value(2))
+                .andExpect(jsonPath("$.data.results[1].message").value("Insufficient TRY balance"))
+                .andExpect(jsonPath("$.data.results[2].success").value(false));
+    }
+
+    @Test
+    void matchOrders_WithoutSelection_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/admin/orders/match/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderBatchMatchService);
+    }
+
+    @Test
+    void requeueDeadLetters_ShouldRequeueGivenIds() throws Exception {
+        when(outboxService.requeueDeadLetters(List.of(4L, 7L))).thenReturn(2);
+
+        mockMvc.perform(post("/api/admin/outbox/dead-letters/requeue")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[4,7]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.requeued").value(2));
+
+        verify(outboxService, never()).requeueAllDeadLetters();
+    }
+
+    @Test
+    void requeueDeadLetters_WithoutIds_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/admin/outbox/dead-letters/requeue"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/admin/outbox/dead-letters/requeue")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void requeueDeadLetters_WithAll_ShouldRequeueEverything() throws Exception {
+        when(outboxService.requeueAllDeadLetters()).thenReturn(5);
+
+        mockMvc.perform(post("/api/admin/outbox/dead-letters/requeue").param("all", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.requeued").value(5));
+
+        verify(outboxService, never()).requeueDeadLetters(any());
+    }
+}
@@ -0,0 +1,52 @@
+package com.brokerage.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void of_ShouldRoundToFourDecimalPlaces() {
+        assertEquals(12346L, Money.of(new BigDecimal("1.23456")).units());
+        assertEquals(-12346L, Money.of(new BigDecimal("-1.23455")).units());
+        assertEquals(new BigDecimal("1.2346"), Money.of(new BigDecimal("1.23456")).toBigDecimal());
+    }
+
+    @Test
+    void of_ShouldEqualRegardlessOfDecimalScale() {
+        assertEquals(Money.of(500), Money.of(new BigDecimal("500.0000")));
+        assertEquals(0, Money.of(new BigDecimal("500")).compareTo(Money.of(500)));
+    }
+
+    @Test
+    void times_ShouldMultiplySizeByPriceRoundingHalfUp() {
+        assertEquals(Money.of(new BigDecimal("12.5")), Money.of(new BigDecimal("2.5")).times(Money.of(5)));
+        assertEquals(Money.of(new BigDecimal("0.0001")), Money.of(new BigDecimal("0.0001")).times(Money.of(new BigDecimal("0.5"))));
+        assertEquals(Money.of(new BigDecimal("-0.0001")), Money.of(new BigDecimal("-0.0001")).times(Money.of(new BigDecimal("0.5"))));
+    }
+
+    @Test
+    void times_WhenIntermediateProductOverflows_ShouldStillBeExact() {
+        Money size = Money.of(1_000_000_000L);
+        Money price = Money.of(new BigDecimal("123.4567"));
+
+        assertEquals(Money.of(new BigDecimal("123456700000")), size.times(price));
+    }
+
+    @Test
+    void times_WhenResultOverflows_ShouldThrowException() {
+        Money large = Money.of(1_000_000_000_000L);
+
+        assertThrows(ArithmeticException.class, () -> large.times(large));
+    }
+
+    @Test
+    void plusAndMinus_ShouldBeOverflowChecked() {
+        assertEquals(Money.of(3), Money.of(1).plus(Money.of(2)));
+        assertEquals(Money.of(-1), Money.of(1).minus(Money.of(2)));
+        assertThrows(ArithmeticException.class, () -> Money.ofUnits(Long.MAX_VALUE).plus(Money.ofUnits(1)));
+    }
+}
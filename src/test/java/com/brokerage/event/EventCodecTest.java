@@ -0,0 +1,95 @@
+package com.brokerage.event;
+
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final EventCodec binaryCodec = new EventCodec(objectMapper, EventFormat.BINARY);
+    private final EventCodec jsonCodec = new EventCodec(objectMapper, EventFormat.JSON);
+
+    @Test
+    void binary_ShouldRoundTripMatchedEvent() {
+        OrderMatchedEvent event = matchedEvent();
+
+        Event decoded = binaryCodec.decode(binaryCodec.encode(event));
+
+        assertEquals(event, decoded);
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals(event.getTimestamp(), decoded.getTimestamp());
+    }
+
+    @Test
+    void binary_ShouldRoundTripCreatedAndCancelledEvents() {
+        OrderCreatedEvent created = OrderCreatedEvent.builder().orderId(1L).customerId(2L).assetName("TRY")
+                .orderSide(OrderSide.SELL).size(new BigDecimal("0.0001")).price(new BigDecimal("1.00")).build();
+        OrderCancelledEvent cancelled = OrderCancelledEvent.builder().orderId(1L).customerId(2L).assetName("TRY")
+                .orderSide(OrderSide.SELL).size(new BigDecimal("0.0001")).price(new BigDecimal("1.00")).build();
+
+        assertEquals(created, binaryCodec.decode(binaryCodec.encode(created)));
+        assertEquals(cancelled, binaryCodec.decode(binaryCodec.encode(cancelled)));
+    }
+
+    @Test
+    void binary_ShouldBeSmallerThanJson() {
+        OrderMatchedEvent event = matchedEvent();
+
+        assertTrue(binaryCodec.encode(event).length * 2 < jsonCodec.encode(event).length);
+    }
+
+    @Test
+    void decode_ShouldRecognizeJsonPayload() {
+        OrderMatchedEvent event = matchedEvent();
+
+        Event decoded = binaryCodec.decode(jsonCodec.encode(event));
+
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void decode_WhenVersionIsUnknown_ShouldThrow() {
+        byte[] payload = binaryCodec.encode(matchedEvent());
+        payload[0] = 9;
+
+        assertThrows(IllegalArgumentException.class, () -> binaryCodec.decode(payload));
+    }
+
+    @Test
+    void serializer_ShouldTranscodeStoredJsonToConfiguredFormat() {
+        OrderMatchedEvent event = matchedEvent();
+        byte[] json = jsonCodec.encode(event);
+        StoredEvent stored = new StoredEvent(event.getEventId(), event.getEventType(), EventFormat.JSON, json);
+
+        byte[] sent = new EventSerializer(binaryCodec).serialize("order-events", stored);
+
+        assertEquals(EventCodec.VERSION, sent[0]);
+        assertEquals(event, binaryCodec.decode(sent));
+        assertSame(json, new EventSerializer(jsonCodec).serialize("order-events", stored));
+        assertTrue(new String(json, StandardCharsets.UTF_8).contains("\"eventType\":\"ORDER_MATCHED\""));
+    }
+
+    private static OrderMatchedEvent matchedEvent() {
+        return OrderMatchedEvent.builder()
+                .orderId(42L)
+                .customerId(7L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(new BigDecimal("2.5000"))
+                .price(new BigDecimal("187.1234"))
+                .totalValue(new BigDecimal("468.08500000"))
+                .remainingSize(new BigDecimal("7.5000"))
+                .status(OrderStatus.PARTIALLY_FILLED)
+                .build();
+    }
+}
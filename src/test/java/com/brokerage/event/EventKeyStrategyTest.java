@@ -0,0 +1,52 @@
+package com.brokerage.event;
+
+import com.brokerage.domain.OrderSide;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventKeyStrategyTest {
+
+    @Test
+    void keyOf_ShouldUseConfiguredOrderField() {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+                .orderId(42L)
+                .customerId(7L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.ONE)
+                .price(BigDecimal.TEN)
+                .build();
+
+        assertEquals("7", EventKeyStrategy.CUSTOMER.keyOf(event));
+        assertEquals("42", EventKeyStrategy.ORDER.keyOf(event));
+        assertEquals("AAPL", EventKeyStrategy.ASSET.keyOf(event));
+    }
+
+    @Test
+    void keyOf_WhenFieldIsMissing_ShouldFallBackToEventId() {
+        OrderCancelledEvent withoutCustomer = OrderCancelledEvent.builder().orderId(42L).assetName("AAPL").build();
+        Event notAnOrderEvent = new Event() {
+            @Override
+            public String getEventId() {
+                return "event-1";
+            }
+
+            @Override
+            public String getEventType() {
+                return "HEARTBEAT";
+            }
+
+            @Override
+            public LocalDateTime getTimestamp() {
+                return LocalDateTime.now();
+            }
+        };
+
+        assertEquals(withoutCustomer.getEventId(), EventKeyStrategy.CUSTOMER.keyOf(withoutCustomer));
+        assertEquals("event-1", EventKeyStrategy.ORDER.keyOf(notAnOrderEvent));
+    }
+}
@@ -0,0 +1,310 @@
+package com.brokerage.event;
+
+import com.brokerage.domain.OrderSide;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxServiceTest {
+
+    @Mock
+    private KafkaTemplate<String, Event> kafkaTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OutboxDeadLetterStore deadLetterStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(kafkaTemplate, codec(EventFormat.JSON), jdbcTemplate, deadLetterStore,
+                transactionManager, true, 2, 10, 5, 1000, 24, 1000, 60000);
+    }
+
+    @Test
+    void processOutbox_ShouldMarkAcknowledgedBatchWithOneUpdate() throws Exception {
+        givenPendingBatches(List.of(row(1L), row(2L)), List.of(row(3L)));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Event.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        long relayed = outboxService.processOutbox();
+
+        assertEquals(3, relayed);
+        verify(kafkaTemplate, times(3)).send(eq("order-events"), anyString(), any(StoredEvent.class));
+        verify(kafkaTemplate).send(eq("order-events"), eq("customer-1"), any(StoredEvent.class));
+        List<Object[]> marked = updateArgs("processed = TRUE", 2);
+        assertEquals(List.of(1L, 2L), List.of(marked.get(0)).subList(1, 3));
+        assertEquals(List.of(3L), List.of(marked.get(1)).subList(1, 2));
+        verify(jdbcTemplate, never()).update(contains("attempts = attempts + 1"), any(Object[].class));
+        verifyNoInteractions(deadLetterStore);
+    }
+
+    @Test
+    void processOutbox_WhenSomeSendsFail_ShouldRescheduleAndStopRun() throws Exception {
+        givenPendingBatches(List.of(row(1L), row(2L)), List.of(row(3L)));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Event.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")));
+
+        long relayed = outboxService.processOutbox();
+
+        assertEquals(1, relayed);
+        assertEquals(List.of(1L), List.of(updateArgs("processed = TRUE", 1).get(0)).subList(1, 2));
+        Object[] rescheduled = updateArgs("attempts = attempts + 1", 1).get(0);
+        assertEquals(2L, rescheduled[1]);
+        assertTrue(((Timestamp) rescheduled[0]).toLocalDateTime().isAfter(LocalDateTime.now().plusNanos(500_000_000)));
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any(Event.class));
+    }
+
+    @Test
+    void processOutbox_WhenSendThrows_ShouldLeaveRestOfBatchUntouched() throws Exception {
+        givenPendingBatches(List.of(row(1L), row(2L)));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Event.class)))
+                .thenThrow(new KafkaException("metadata timeout"));
+
+        assertEquals(0, outboxService.processOutbox());
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(Event.class));
+        assertEquals(1L, updateArgs("attempts = attempts + 1", 1).get(0)[1]);
+    }
+
+    @Test
+    void processOutbox_WhenLastAttemptFails_ShouldDeadLetter() throws Exception {
+        givenPendingBatches(List.of(row(1L, 4), row(2L, 1)));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Event.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("record too large")));
+
+        assertEquals(0, outboxService.processOutbox());
+        verify(deadLetterStore).deadLetter(List.of(1L));
+        assertEquals(2L, updateArgs("attempts = attempts + 1", 1).get(0)[1]);
+    }
+
+    @Test
+    void processOutbox_WhenRowHasNoKey_ShouldKeyByEventId() throws Exception {
+        ResultSet unkeyed = row(1L);
+        when(unkeyed.getString("message_key")).thenReturn(null);
+        givenPendingBatches(List.of(unkeyed));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Event.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxService.processOutbox());
+        verify(kafkaTemplate).send(eq("order-events"), eq("event-1"), any(StoredEvent.class));
+    }
+
+    @Test
+    void backoffMs_ShouldDoubleUpToMaximum() {
+        assertEquals(1000, outboxService.backoffMs(1));
+        assertEquals(2000, outboxService.backoffMs(2));
+        assertEquals(32000, outboxService.backoffMs(6));
+        assertEquals(60000, outboxService.backoffMs(7));
+        assertEquals(60000, outboxService.backoffMs(60));
+    }
+
+    @Test
+    void processOutbox_WhenDisabled_ShouldDoNothing() {
+        OutboxService disabled = new OutboxService(kafkaTemplate, codec(EventFormat.JSON), jdbcTemplate,
+                deadLetterStore, transactionManager, false, 2, 10, 5, 1000, 24, 1000, 60000);
+
+        assertEquals(0, disabled.processOutbox());
+        verifyNoInteractions(jdbcTemplate, kafkaTemplate);
+    }
+
+    @Test
+    void processOutbox_WhenSendFails_ShouldHoldLaterEventsOfSameKey() throws Exception {
+        ResultSet first = row(1L);
+        ResultSet second = row(2L);
+        when(second.getString("message_key")).thenReturn("customer-1");
+        givenPendingBatches(List.of(first, second, row(3L)));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Event.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, outboxService.processOutbox());
+        assertEquals(List.of(3L), List.of(updateArgs("processed = TRUE", 1).get(0)).subList(1, 2));
+        Object[] rescheduled = updateArgs("attempts = attempts + 1", 1).get(0);
+        assertEquals(2, rescheduled.length);
+        assertEquals(1L, rescheduled[1]);
+    }
+
+    @Test
+    void processOutbox_ShouldSendBatchInIdOrder() throws Exception {
+        givenPendingBatches(List.of(row(2L), row(1L)));
+        when(kafkaTemplate.send(anyString(), anyString(), any(Event.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxService.processOutbox();
+
+        InOrder inOrder = inOrder(kafkaTemplate);
+        inOrder.verify(kafkaTemplate).send(eq("order-events"), eq("customer-1"), any(Event.class));
+        inOrder.verify(kafkaTemplate).send(eq("order-events"), eq("customer-2"), any(Event.class));
+    }
+
+    @Test
+    void enqueue_WithJsonFormat_ShouldInsertPayloadTextWithoutSending() {
+        OrderCancelledEvent event = cancelledEvent();
+
+        outboxService.enqueue("order-events", "1", event);
+
+        verify(jdbcTemplate).update(contains("INSERT INTO outbox_key_sequences"), eq("1"), eq(1));
+        Object[] row = insertedRows().get(0);
+        assertEquals(event.getEventId(), row[0]);
+        assertEquals("ORDER_CANCELLED", row[1]);
+        assertEquals("1", row[3]);
+        assertEquals(1L, row[4]);
+        assertEquals("JSON", row[5]);
+        assertTrue(((String) row[6]).contains("\"orderId\":7"));
+        assertNull(row[7]);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void enqueue_WhenKeyRowIsCreatedConcurrently_ShouldRollBackToSavepointAndAdvanceIt() {
+        when(jdbcTemplate.update(contains("UPDATE outbox_key_sequences"), eq(1), eq("1"))).thenReturn(0, 1);
+        when(jdbcTemplate.update(contains("INSERT INTO outbox_key_sequences"), eq("1"), eq(1)))
+                .thenThrow(new DuplicateKeyException("duplicate key"));
+        when(jdbcTemplate.queryForObject(contains("FROM outbox_key_sequences"), eq(Long.class), eq("1"))).thenReturn(4L);
+
+        outboxService.enqueue("order-events", "1", cancelledEvent());
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED));
+        verify(transactionManager).rollback(any());
+        verify(jdbcTemplate, times(2)).update(contains("UPDATE outbox_key_sequences"), eq(1), eq("1"));
+        assertEquals(4L, insertedRows().get(0)[4]);
+    }
+
+    @Test
+    void enqueue_WithBinaryFormat_ShouldInsertPayloadBytes() {
+        OutboxService binary = new OutboxService(kafkaTemplate, codec(EventFormat.BINARY), jdbcTemplate,
+                deadLetterStore, transactionManager, true, 2, 10, 5, 1000, 24, 1000, 60000);
+
+        binary.enqueue("order-events", "1", cancelledEvent());
+
+        Object[] row = insertedRows().get(0);
+        assertEquals("BINARY", row[5]);
+        assertNull(row[6]);
+        assertEquals(EventCodec.VERSION, ((byte[]) row[7])[0]);
+    }
+
+    @Test
+    void enqueue_InTransaction_ShouldInsertByKeyWithNextSequencesBeforeCommit() {
+        when(jdbcTemplate.update(contains("UPDATE outbox_key_sequences"), anyInt(), anyString())).thenReturn(1);
+        when(jdbcTemplate.queryForObject(contains("FROM outbox_key_sequences"), eq(Long.class), eq("1"))).thenReturn(5L);
+        when(jdbcTemplate.queryForObject(contains("FROM outbox_key_sequences"), eq(Long.class), eq("2"))).thenReturn(12L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            outboxService.enqueue("order-events", "2", cancelledEvent());
+            outboxService.enqueue("order-events", "1", cancelledEvent());
+            outboxService.enqueue("order-events", "2", cancelledEvent());
+            verifyNoInteractions(jdbcTemplate);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.unbindResourceIfPossible(outboxService);
+        }
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(contains("UPDATE outbox_key_sequences"), eq(1), eq("1"));
+        inOrder.verify(jdbcTemplate).update(contains("UPDATE outbox_key_sequences"), eq(2), eq("2"));
+        List<Object[]> rows = insertedRows();
+        assertEquals(List.of("1", "2", "2"), rows.stream().map(row -> row[3]).toList());
+        assertEquals(List.of(5L, 11L, 12L), rows.stream().map(row -> row[4]).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> insertedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO outbox_events"), rows.capture());
+        return rows.getValue();
+    }
+
+    private static EventCodec codec(EventFormat format) {
+        return new EventCodec(new ObjectMapper().findAndRegisterModules(), format);
+    }
+
+    private static OrderCancelledEvent cancelledEvent() {
+        return OrderCancelledEvent.builder()
+                .orderId(7L)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.TEN)
+                .price(new BigDecimal("150.25"))
+                .build();
+    }
+
+    private List<Object[]> updateArgs(String sqlFragment, int times) {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(times)).update(contains(sqlFragment), args.capture());
+        return args.getAllValues();
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void givenPendingBatches(List<ResultSet>... batches) {
+        List<List<Object>> results = new ArrayList<>();
+        for (List<ResultSet> batch : batches) {
+            results.add(new ArrayList<>(batch));
+        }
+        results.add(List.of());
+        int[] call = new int[1];
+        when(jdbcTemplate.query(contains("FROM outbox_events"), any(RowMapper.class), any(Timestamp.class), anyInt()))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(1);
+                    List<Object> mapped = new ArrayList<>();
+                    for (Object row : results.get(Math.min(call[0]++, results.size() - 1))) {
+                        mapped.add(mapper.mapRow((ResultSet) row, mapped.size()));
+                    }
+                    return mapped;
+                });
+    }
+
+    private ResultSet row(Long id) throws Exception {
+        return row(id, 0);
+    }
+
+    private ResultSet row(Long id, int attempts) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        lenient().when(row.getInt("attempts")).thenReturn(attempts);
+        lenient().when(row.getLong("id")).thenReturn(id);
+        lenient().when(row.getString("event_id")).thenReturn("event-" + id);
+        lenient().when(row.getString("event_type")).thenReturn("ORDER_CREATED");
+        lenient().when(row.getString("topic")).thenReturn("order-events");
+        lenient().when(row.getString("message_key")).thenReturn("customer-" + id);
+        lenient().when(row.getString("format")).thenReturn("JSON");
+        lenient().when(row.getString("payload")).thenReturn("{\"eventId\":\"event-" + id + "\"}");
+        return row;
+    }
+}
@@ -0,0 +1,72 @@
+package com.brokerage.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.MessageListener;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionedEventContainerFactoryTest {
+
+    @Mock
+    private PartitionedEventConsumer consumer;
+
+    @Mock
+    private Consumer<?, ?> kafkaConsumer;
+
+    private final EventCodec codec = new EventCodec(new ObjectMapper().findAndRegisterModules(), EventFormat.BINARY);
+    private final PartitionedEventContainerFactory factory =
+            new PartitionedEventContainerFactory(new KafkaProperties(), codec, "order-events", 3);
+
+    @Test
+    void create_ShouldCapConcurrencyAtPartitionCount() {
+        assertEquals(3, factory.create("group", "earliest", 8, consumer).getConcurrency());
+        assertEquals(2, factory.create("group", "earliest", 2, consumer).getConcurrency());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listener_ShouldDecodeAndPassKeyAndPartition() {
+        OrderCancelledEvent event = OrderCancelledEvent.builder().orderId(42L).customerId(7L).assetName("AAPL").build();
+        MessageListener<String, byte[]> listener = (MessageListener<String, byte[]>)
+                factory.create("group", "earliest", 3, consumer).getContainerProperties().getMessageListener();
+
+        listener.onMessage(new ConsumerRecord<>("order-events", 2, 10L, "7", codec.encode(event)));
+        listener.onMessage(new ConsumerRecord<>("order-events", 2, 11L, "7", new byte[]{9, 9}));
+
+        verify(consumer).onEvent("7", event, 2);
+        verify(consumer, times(1)).onEvent(anyString(), any(Event.class), anyInt());
+    }
+
+    @Test
+    void rebalanceListener_ShouldForwardPartitionNumbers() {
+        ConcurrentMessageListenerContainer<String, byte[]> container = factory.create("group", "earliest", 3, consumer);
+        ConsumerAwareRebalanceListener listener =
+                (ConsumerAwareRebalanceListener) container.getContainerProperties().getConsumerRebalanceListener();
+        List<TopicPartition> partitions = List.of(new TopicPartition("order-events", 2),
+                new TopicPartition("order-events", 0));
+
+        listener.onPartitionsAssigned(kafkaConsumer, partitions);
+        listener.onPartitionsRevokedAfterCommit(kafkaConsumer, partitions);
+        listener.onPartitionsLost(kafkaConsumer, List.of());
+
+        verify(consumer).onPartitionsAssigned(Set.of(0, 2));
+        verify(consumer).onPartitionsRevoked(Set.of(0, 2));
+        verifyNoMoreInteractions(consumer);
+    }
+}
@@ -0,0 +1,97 @@
+package com.brokerage.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ShouldBeReplayedInOrderAfterReopen() throws IOException {
+        CommandJournal journal = openJournal(1024 * 1024);
+        journal.append(JournalCommand.deposit(1L, "AAPL", BigDecimal.valueOf(10)));
+        journal.append(JournalCommand.cancelOrder(5L, 1L));
+        journal.close();
+
+        CommandJournal reopened = openJournal(1024 * 1024);
+        List<JournalRecord> records = replay(reopened);
+
+        assertEquals(2, records.size());
+        assertEquals(1L, records.get(0).getSequence());
+        assertEquals(JournalCommandType.DEPOSIT, records.get(0).getCommand().getType());
+        assertEquals("AAPL", records.get(0).getCommand().getAssetName());
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(records.get(0).getCommand().getSize()));
+        assertEquals(5L, records.get(1).getCommand().getOrderId());
+        assertEquals(3L, reopened.append(JournalCommand.matchOrder(6L)));
+    }
+
+    @Test
+    void append_WhenSegmentIsFull_ShouldRollToNewSegment() throws IOException {
+        CommandJournal journal = openJournal(256);
+        for (long i = 1; i <= 20; i++) {
+            journal.append(JournalCommand.matchOrder(i));
+        }
+
+        List<JournalRecord> records = replay(journal);
+
+        assertEquals(20, records.size());
+        assertEquals(20L, records.get(19).getCommand().getOrderId());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1);
+        }
+    }
+
+    @Test
+    void replay_WhenLastRecordIsTorn_ShouldStopBeforeIt() throws IOException {
+        CommandJournal journal = openJournal(1024 * 1024);
+        journal.append(JournalCommand.matchOrder(1L));
+        journal.append(JournalCommand.matchOrder(2L));
+        journal.close();
+
+        try (Stream<Path> files = Files.list(directory);
+             RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+            // Corrupt the last payload byte of the second record
+            long secondRecordEnd = 2L * (Integer.BYTES + Long.BYTES + Long.BYTES + Byte.BYTES + Long.BYTES + Integer.BYTES);
+            file.seek(secondRecordEnd - Integer.BYTES - 1);
+            file.write(0x7F);
+        }
+
+        CommandJournal reopened = openJournal(1024 * 1024);
+        List<JournalRecord> records = replay(reopened);
+
+        assertEquals(1, records.size());
+        assertEquals(2L, reopened.append(JournalCommand.matchOrder(3L)));
+    }
+
+    @Test
+    void append_WhenDisabled_ShouldReturnZero() {
+        CommandJournal journal = new CommandJournal(false, directory.toString(), 1024, 1, 10);
+
+        assertEquals(0L, journal.append(JournalCommand.matchOrder(1L)));
+    }
+
+    private CommandJournal openJournal(long segmentSize) throws IOException {
+        CommandJournal journal = new CommandJournal(true, directory.toString(), segmentSize, 1, 10);
+        journal.open();
+        return journal;
+    }
+
+    private List<JournalRecord> replay(CommandJournal journal) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+}
@@ -0,0 +1,158 @@
+package com.brokerage.journal;
+
+import com.brokerage.api.dto.request.CreateOrderRequest;
+import com.brokerage.api.dto.response.BatchMatchResult;
+import com.brokerage.domain.Customer;
+import com.brokerage.domain.Order;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.repository.CustomerRepository;
+import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.command.AssetCommandService;
+import com.brokerage.service.command.OrderCommandService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JournalReplayServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private OrderCommandService orderCommandService;
+
+    @Mock
+    private AssetCommandService assetCommandService;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Test
+    void replay_ShouldReapplyCommittedCommandsWithReassignedIds() throws IOException {
+        Customer original = customer(10L);
+        CommandJournal journal = openJournal();
+        journal.appendAfterCommit(JournalCommand.createCustomer(original));
+        journal.appendAfterCommit(JournalCommand.deposit(10L, "TRY", BigDecimal.valueOf(1000)));
+        journal.appendAfterCommit(JournalCommand.createOrder(order(100L, original)));
+        journal.appendAfterCommit(JournalCommand.createOrder(order(101L, original)));
+        journal.appendAfterCommit(JournalCommand.cancelOrder(100L, 10L));
+        journal.appendAfterCommit(JournalCommand.matchOrders(List.of(101L)));
+        journal.appendAfterCommit(JournalCommand.matchOrder(1L));
+        journal.close();
+
+        // The replayed database assigns different ids than the original run did
+        Customer replayed = customer(20L);
+        when(customerRepository.save(any(Customer.class))).thenReturn(replayed);
+        when(customerRepository.findById(20L)).thenReturn(Optional.of(replayed));
+        when(orderCommandService.createOrder(eq(20L), any(CreateOrderRequest.class)))
+                .thenReturn(order(200L, replayed), order(201L, replayed));
+        when(orderCommandService.matchOrders(List.of(201L)))
+                .thenReturn(List.of(BatchMatchResult.builder().orderId(201L).success(true).build()));
+
+        replayService(openJournal()).replay();
+
+        ArgumentCaptor<Customer> customerCaptor = ArgumentCaptor.forClass(Customer.class);
+        InOrder inOrder = inOrder(customerRepository, assetCommandService, orderCommandService);
+        inOrder.verify(customerRepository).save(customerCaptor.capture());
+        inOrder.verify(assetCommandService).createOrUpdateAsset(replayed, "TRY", new BigDecimal("1000"));
+        inOrder.verify(orderCommandService, times(2)).createOrder(eq(20L), any(CreateOrderRequest.class));
+        inOrder.verify(orderCommandService).cancelOrder(200L, 20L);
+        inOrder.verify(orderCommandService).matchOrders(List.of(201L));
+        // Orders that were not created through the journal (seed data) keep their id
+        inOrder.verify(orderCommandService).matchOrder(1L);
+
+        assertEquals("trader", customerCaptor.getValue().getUsername());
+        assertEquals("encoded_password", customerCaptor.getValue().getPassword());
+        assertNull(customerCaptor.getValue().getEmail());
+    }
+
+    @Test
+    void replay_WhenCommandFails_ShouldContinueWithTheNextOne() throws IOException {
+        CommandJournal journal = openJournal();
+        journal.appendAfterCommit(JournalCommand.matchOrder(1L));
+        journal.appendAfterCommit(JournalCommand.matchOrder(2L));
+        journal.close();
+
+        when(orderCommandService.matchOrder(1L)).thenThrow(new IllegalStateException("Order not found"));
+
+        replayService(openJournal()).replay();
+
+        verify(orderCommandService).matchOrder(2L);
+    }
+
+    @Test
+    void replay_ShouldRunCommandsInReplayContextAtTheirJournaledTime() throws IOException {
+        CommandJournal journal = openJournal();
+        journal.appendAfterCommit(JournalCommand.matchOrder(1L));
+        journal.close();
+
+        List<Long> timestamps = new ArrayList<>();
+        CommandJournal reopened = openJournal();
+        reopened.replay(record -> timestamps.add(record.getTimestamp()));
+        LocalDateTime journaledAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps.get(0)), ZoneId.systemDefault());
+
+        List<LocalDateTime> replayedAt = new ArrayList<>();
+        when(orderCommandService.matchOrder(1L)).thenAnswer(invocation -> {
+            assertTrue(ReplayContext.isReplaying());
+            replayedAt.add(ReplayContext.now());
+            return null;
+        });
+
+        replayService(reopened).replay();
+
+        assertEquals(List.of(journaledAt), replayedAt);
+        assertFalse(ReplayContext.isReplaying());
+    }
+
+    private JournalReplayService replayService(CommandJournal journal) {
+        return new JournalReplayService(journal, orderCommandService, assetCommandService, customerRepository, orderRepository);
+    }
+
+    private CommandJournal openJournal() throws IOException {
+        CommandJournal journal = new CommandJournal(true, directory.toString(), 1024 * 1024, 1, 10);
+        journal.open();
+        return journal;
+    }
+
+    private static Customer customer(Long id) {
+        return Customer.builder()
+                .id(id)
+                .username("trader")
+                .password("encoded_password")
+                .fullName("Trader")
+                .build();
+    }
+
+    private static Order order(Long id, Customer customer) {
+        return Order.builder()
+                .id(id)
+                .customer(customer)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.TEN)
+                .price(new BigDecimal("150.25"))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.brokerage.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with H2's EXPLAIN that the SQL behind each repository query is served by an index
+ */
+@DataJpaTest
+public class RepositoryIndexUsageTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByCustomerIdAndStatus_ShouldUseCustomerStatusIndex() {
+        assertUsesIndex("SELECT * FROM orders WHERE customer_id = 1 AND status = 'PENDING'",
+                "IDX_ORDERS_CUSTOMER_STATUS_DATE");
+    }
+
+    @Test
+    void findByCustomerIdAndStatusAndDateRange_ShouldUseCustomerStatusIndex() {
+        assertUsesIndex("SELECT * FROM orders WHERE customer_id = 1 AND status = 'PENDING' " +
+                        "AND create_date BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'",
+                "IDX_ORDERS_CUSTOMER_STATUS_DATE");
+    }
+
+    @Test
+    void findByCustomerIdAndDateRange_ShouldUseCustomerDateIndex() {
+        assertUsesIndex("SELECT * FROM orders WHERE customer_id = 1 " +
+                        "AND create_date BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'",
+                "IDX_ORDERS_CUSTOMER_DATE");
+    }
+
+    @Test
+    void findResponsePageByCustomerId_ShouldNotScanTable() {
+        assertNoTableScan("SELECT * FROM orders WHERE customer_id = 1 " +
+                "AND status IN ('PENDING', 'PARTIALLY_FILLED', 'MATCHED', 'CANCELED') " +
+                "AND create_date BETWEEN TIMESTAMP '1970-01-01 00:00:00' AND TIMESTAMP '9999-12-31 23:59:59' " +
+                "AND (create_date > TIMESTAMP '2024-01-01 00:00:00' " +
+                "OR (create_date = TIMESTAMP '2024-01-01 00:00:00' AND id > 10)) " +
+                "ORDER BY create_date, id LIMIT 51");
+    }
+
+    @Test
+    void findByStatus_ShouldUseStatusAssetIndex() {
+        assertUsesIndex("SELECT * FROM orders WHERE status = 'PENDING'", "IDX_ORDERS_STATUS_ASSET_PRICE");
+    }
+
+    @Test
+    void findIdsByAssetNameAndStatusIn_ShouldUseStatusAssetIndex() {
+        assertUsesIndex("SELECT id FROM orders WHERE asset_name = 'AAPL' " +
+                        "AND status IN ('PENDING', 'PARTIALLY_FILLED') ORDER BY id",
+                "IDX_ORDERS_STATUS_ASSET_PRICE");
+    }
+
+    @Test
+    void findByIdAndCustomerId_ShouldUsePrimaryKey() {
+        assertUsesIndex("SELECT * FROM orders WHERE id = 1 AND customer_id = 1", "PRIMARY_KEY");
+    }
+
+    @Test
+    void outboxDueBatch_ShouldUseOutboxDueAndKeyIndexes() {
+        String sql = "SELECT o.id, o.event_id, o.event_type, o.topic, o.message_key, o.format, o.payload, " +
+                "o.payload_bytes, o.attempts FROM outbox_events o WHERE o.processed = FALSE " +
+                "AND o.next_attempt_at <= TIMESTAMP '2024-01-01 00:00:00' " +
+                "AND NOT EXISTS (SELECT 1 FROM outbox_events e WHERE e.message_key = o.message_key " +
+                "AND e.processed = FALSE AND e.key_sequence < o.key_sequence AND e.attempts > 0) " +
+                "ORDER BY o.next_attempt_at, o.id LIMIT 500";
+        assertUsesIndex(sql, "IDX_OUTBOX_EVENTS_DUE");
+        assertUsesIndex(sql, "IDX_OUTBOX_EVENTS_KEY");
+    }
+
+    private void assertUsesIndex(String sql, String indexName) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(indexName), () -> "Expected " + indexName + " in plan: " + plan);
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = explain(sql);
+        assertFalse(plan.contains("TABLESCAN"), () -> "Expected an index in plan: " + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+}
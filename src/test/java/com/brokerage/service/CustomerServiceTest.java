@@ -2,6 +2,9 @@ package com.brokerage.service;
 
 import com.brokerage.domain.Customer;
 import com.brokerage.exception.CustomerNotFoundException;
+import com.brokerage.journal.CommandJournal;
+import com.brokerage.journal.JournalCommand;
+import com.brokerage.journal.JournalCommandType;
 import com.brokerage.repository.CustomerRepository;
 import com.brokerage.service.command.AssetCommandService;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +37,9 @@ public class CustomerServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CommandJournal journal;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -86,6 +92,12 @@ public class CustomerServiceTest {
         Customer capturedCustomer = customerCaptor.getValue();
         assertEquals("testuser", capturedCustomer.getUsername());
         assertEquals("encoded_password", capturedCustomer.getPassword());
+
+        ArgumentCaptor<JournalCommand> journalCaptor = ArgumentCaptor.forClass(JournalCommand.class);
+        verify(journal).appendAfterCommit(journalCaptor.capture());
+        assertEquals(JournalCommandType.CREATE_CUSTOMER, journalCaptor.getValue().getType());
+        assertEquals(1L, journalCaptor.getValue().getCustomerId());
+        assertEquals("encoded_password", journalCaptor.getValue().getPasswordHash());
     }
 
 
@@ -0,0 +1,164 @@
+package com.brokerage.service.archive;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the archive store's hand-built SQL against H2. DDL commits implicitly, so the tests run outside
+ * a test transaction and clean up after themselves.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderArchiveStoreTest {
+
+    private static final Long CUSTOMER_ID = 2L;
+    private static final String ASSET = "ARCHTEST";
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2019, 1, 10, 9, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2019, 2, 5, 9, 0);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final LocalDateTime FROM = LocalDateTime.of(2019, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2019, 12, 31, 23, 59);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OrderArchiveStore archiveStore;
+
+    @BeforeEach
+    void setUp() {
+        archiveStore = store(60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM orders WHERE asset_name = ?", ASSET);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS orders_archive_201901");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS orders_archive_201902");
+        jdbcTemplate.update("DELETE FROM order_archive_tables WHERE archive_month IN ('2019-01', '2019-02')");
+    }
+
+    @Test
+    void archiveBatch_ShouldMoveTerminalOrdersAndCountThemInRegistry() {
+        Long matched = insertOrder(OrderStatus.MATCHED, JANUARY);
+        Long canceled = insertOrder(OrderStatus.CANCELED, FEBRUARY);
+        Long pending = insertOrder(OrderStatus.PENDING, JANUARY);
+
+        assertEquals(2, archiveStore.archiveBatch(CUTOFF, 100));
+
+        assertEquals(List.of(pending), idsIn("orders"));
+        assertEquals(List.of(matched), idsIn("orders_archive_201901"));
+        assertEquals(List.of(canceled), idsIn("orders_archive_201902"));
+        assertEquals(1L, registeredCount("2019-01"));
+        assertEquals(List.of("orders_archive_201901", "orders_archive_201902"), archiveStore.tablesBetween(FROM, TO));
+
+        // A second batch into an existing month goes through the registry UPDATE
+        Long later = insertOrder(OrderStatus.MATCHED, JANUARY.plusDays(1));
+        assertEquals(1, archiveStore.archiveBatch(CUTOFF, 100));
+        assertEquals(List.of(matched, later), idsIn("orders_archive_201901"));
+        assertEquals(2L, registeredCount("2019-01"));
+        assertEquals(1L, registeredCount("2019-02"));
+    }
+
+    @Test
+    void findPage_ShouldMergeOrdersAndArchiveTablesInKeysetOrder() {
+        Long january = insertOrder(OrderStatus.MATCHED, JANUARY);
+        Long pending = insertOrder(OrderStatus.PENDING, JANUARY.plusDays(1));
+        Long february = insertOrder(OrderStatus.CANCELED, FEBRUARY);
+        Long sameTime = insertOrder(OrderStatus.MATCHED, FEBRUARY);
+        archiveStore.archiveBatch(CUTOFF, 100);
+
+        List<String> archives = archiveStore.tablesBetween(FROM, TO);
+        EnumSet<OrderStatus> statuses = EnumSet.allOf(OrderStatus.class);
+
+        List<OrderResponse> first = archiveStore.findPage(CUSTOMER_ID, statuses, FROM, TO,
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 2, archives);
+        assertEquals(List.of(january, pending), ids(first));
+
+        OrderResponse last = first.get(1);
+        List<OrderResponse> second = archiveStore.findPage(CUSTOMER_ID, statuses, FROM, TO,
+                last.getCreateDate(), last.getId(), 2, archives);
+        assertEquals(List.of(february, sameTime), ids(second));
+
+        // Resuming between two orders of the same timestamp continues by id
+        List<OrderResponse> third = archiveStore.findPage(CUSTOMER_ID, statuses, FROM, TO,
+                FEBRUARY, february, 2, archives);
+        assertEquals(List.of(sameTime), ids(third));
+
+        assertEquals(4L, archiveStore.count(CUSTOMER_ID, statuses, FROM, TO, archives));
+        assertEquals(1L, archiveStore.count(CUSTOMER_ID, EnumSet.of(OrderStatus.CANCELED), FROM, TO, archives));
+    }
+
+    @Test
+    void findById_ShouldFindArchivedOrderOfCustomerOnly() {
+        Long archived = insertOrder(OrderStatus.MATCHED, FEBRUARY);
+        archiveStore.archiveBatch(CUTOFF, 100);
+
+        Optional<OrderResponse> found = archiveStore.findById(archived, CUSTOMER_ID);
+        assertTrue(found.isPresent());
+        assertEquals(OrderStatus.MATCHED, found.get().getStatus());
+        assertTrue(archiveStore.findById(archived, 1L).isEmpty());
+    }
+
+    @Test
+    void tablesBetween_ShouldReloadRegistryWrittenByAnotherInstance() {
+        OrderArchiveStore cached = archiveStore;
+        OrderArchiveStore refreshing = store(0);
+        assertTrue(cached.tablesBetween(FROM, TO).isEmpty());
+        assertTrue(refreshing.tablesBetween(FROM, TO).isEmpty());
+
+        insertOrder(OrderStatus.MATCHED, JANUARY);
+        store(60000).archiveBatch(CUTOFF, 100);
+
+        assertTrue(cached.tablesBetween(FROM, TO).isEmpty());
+        assertEquals(List.of("orders_archive_201901"), refreshing.tablesBetween(FROM, TO));
+    }
+
+    private OrderArchiveStore store(long registryRefreshMs) {
+        return new OrderArchiveStore(jdbcTemplate, new TransactionTemplate(transactionManager), registryRefreshMs);
+    }
+
+    private Long insertOrder(OrderStatus status, LocalDateTime createDate) {
+        boolean filled = status == OrderStatus.MATCHED;
+        jdbcTemplate.update("INSERT INTO orders (customer_id, asset_name, order_side, size, price, filled_size, " +
+                        "remaining_size, average_fill_price, status, create_date, update_date, version) " +
+                        "VALUES (?, ?, 'BUY', 10, 100, ?, ?, ?, ?, ?, ?, 0)",
+                CUSTOMER_ID, ASSET, filled ? 10 : 0, filled ? 0 : 10, filled ? 100 : null, status.name(),
+                Timestamp.valueOf(createDate), Timestamp.valueOf(createDate.plusHours(1)));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders WHERE asset_name = ?", Long.class, ASSET);
+    }
+
+    private List<Long> idsIn(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE asset_name = ? ORDER BY id",
+                Long.class, ASSET);
+    }
+
+    private Long registeredCount(String month) {
+        return jdbcTemplate.queryForObject("SELECT order_count FROM order_archive_tables WHERE archive_month = ?",
+                Long.class, month);
+    }
+
+    private static List<Long> ids(List<OrderResponse> orders) {
+        return orders.stream().map(OrderResponse::getId).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.brokerage.service.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderArchiverTest {
+
+    @Mock
+    private OrderArchiveStore archiveStore;
+
+    @Test
+    void archive_ShouldRunBatchesUntilOnePartiallyFills() {
+        OrderArchiver archiver = new OrderArchiver(archiveStore, true, 90, 100, 10);
+        when(archiveStore.archiveBatch(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 40);
+
+        long archived = archiver.archive();
+
+        assertEquals(240, archived);
+        verify(archiveStore, times(3)).archiveBatch(argThat(cutoff ->
+                cutoff.isBefore(LocalDateTime.now().minusDays(89))), eq(100));
+    }
+
+    @Test
+    void archive_ShouldStopAtMaxBatchesPerRun() {
+        OrderArchiver archiver = new OrderArchiver(archiveStore, true, 90, 100, 2);
+        when(archiveStore.archiveBatch(any(LocalDateTime.class), eq(100))).thenReturn(100);
+
+        assertEquals(200, archiver.archive());
+        verify(archiveStore, times(2)).archiveBatch(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void archive_WhenBatchFails_ShouldKeepWhatWasArchived() {
+        OrderArchiver archiver = new OrderArchiver(archiveStore, true, 90, 100, 10);
+        when(archiveStore.archiveBatch(any(LocalDateTime.class), eq(100)))
+                .thenReturn(100)
+                .thenThrow(new IllegalStateException("lock timeout"));
+
+        assertEquals(100, archiver.archive());
+    }
+
+    @Test
+    void archive_WhenDisabled_ShouldDoNothing() {
+        OrderArchiver archiver = new OrderArchiver(archiveStore, false, 90, 100, 10);
+
+        assertEquals(0, archiver.archive());
+        verifyNoInteractions(archiveStore);
+    }
+}
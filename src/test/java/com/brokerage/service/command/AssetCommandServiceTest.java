@@ -2,21 +2,25 @@ package com.brokerage.service.command;
 
 import com.brokerage.domain.Asset;
 import com.brokerage.domain.Customer;
+import com.brokerage.domain.Money;
+import com.brokerage.domain.Order;
 import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
 import com.brokerage.exception.AssetNotFoundException;
 import com.brokerage.exception.InsufficientAssetsException;
-import com.brokerage.repository.AssetRepository;
+import com.brokerage.service.ledger.BalanceLedger;
+import com.brokerage.service.ledger.LedgerResult;
+import com.brokerage.service.ledger.PostingReason;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,16 +30,15 @@ import static org.mockito.Mockito.*;
 public class AssetCommandServiceTest {
 
     @Mock
-    private AssetRepository assetRepository;
+    private BalanceLedger ledger;
 
     @InjectMocks
     private AssetCommandService assetCommandService;
 
     private Customer testCustomer;
-    private Asset tryAsset;
-    private Asset otherAsset;
     private static final String TRY_ASSET_NAME = "TRY";
     private static final String OTHER_ASSET_NAME = "AAPL"; // Used when testing selling assets
+    private static final Long ORDER_ID = 7L;
 
     @BeforeEach
     void setUp() {
@@ -46,180 +49,169 @@ public class AssetCommandServiceTest {
                 .email("test@example.com")
                 .isAdmin(false)
                 .build();
-
-        tryAsset = Asset.builder()
-                .id(1L)
-                .customer(testCustomer)
-                .assetName(TRY_ASSET_NAME)
-                .size(BigDecimal.valueOf(10000))
-                .usableSize(BigDecimal.valueOf(10000))
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        otherAsset = Asset.builder()
-                .id(2L)
-                .customer(testCustomer)
-                .assetName(OTHER_ASSET_NAME)
-                .size(BigDecimal.valueOf(100))
-                .usableSize(BigDecimal.valueOf(100))
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-    }
-
-    @Test
-    void createOrUpdateAsset_WhenAssetExists_ShouldUpdateAsset() {
-        when(assetRepository.findByCustomerAndAssetName(any(Customer.class), anyString()))
-                .thenReturn(Optional.of(tryAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(tryAsset);
-        BigDecimal additionalSize = BigDecimal.valueOf(1000);
-
-        Asset result = assetCommandService.createOrUpdateAsset(testCustomer, TRY_ASSET_NAME, additionalSize);
-
-        assertNotNull(result);
-        assertEquals(TRY_ASSET_NAME, result.getAssetName());
-
-        ArgumentCaptor<Asset> assetCaptor = ArgumentCaptor.forClass(Asset.class);
-        verify(assetRepository).save(assetCaptor.capture());
-
-        Asset capturedAsset = assetCaptor.getValue();
-        assertEquals(BigDecimal.valueOf(11000), capturedAsset.getSize());
-        assertEquals(BigDecimal.valueOf(11000), capturedAsset.getUsableSize());
     }
 
     @Test
-    void createOrUpdateAsset_WhenAssetDoesNotExist_ShouldCreateNewAsset() {
-        when(assetRepository.findByCustomerAndAssetName(any(Customer.class), anyString()))
-                .thenReturn(Optional.empty());
-        when(assetRepository.save(any(Asset.class))).thenAnswer(invocation -> {
-            Asset savedAsset = invocation.getArgument(0);
-            savedAsset.setId(3L);
-            return savedAsset;
-        });
-        BigDecimal initialSize = BigDecimal.valueOf(500);
-
-        Asset result = assetCommandService.createOrUpdateAsset(testCustomer, "NEW_ASSET", initialSize);
-
-        assertNotNull(result);
-        assertEquals("NEW_ASSET", result.getAssetName());
-        assertEquals(BigDecimal.valueOf(500), result.getSize());
-        assertEquals(BigDecimal.valueOf(500), result.getUsableSize());
+    void createOrUpdateAsset_ShouldCreditLedger() {
+        Asset credited = Asset.builder()
+                .id(3L)
+                .customer(testCustomer)
+                .assetName("NEW_ASSET")
+                .size(BigDecimal.valueOf(500))
+                .usableSize(BigDecimal.valueOf(500))
+                .build();
+        when(ledger.credit(1L, "NEW_ASSET", Money.of(500), PostingReason.DEPOSIT, null)).thenReturn(credited);
 
-        ArgumentCaptor<Asset> assetCaptor = ArgumentCaptor.forClass(Asset.class);
-        verify(assetRepository).save(assetCaptor.capture());
+        Asset result = assetCommandService.createOrUpdateAsset(testCustomer, "NEW_ASSET", BigDecimal.valueOf(500));
 
-        Asset capturedAsset = assetCaptor.getValue();
-        assertEquals(testCustomer, capturedAsset.getCustomer());
-        assertEquals("NEW_ASSET", capturedAsset.getAssetName());
-        assertEquals(BigDecimal.valueOf(500), capturedAsset.getSize());
-        assertEquals(BigDecimal.valueOf(500), capturedAsset.getUsableSize());
+        assertEquals(credited, result);
+        verify(ledger).credit(1L, "NEW_ASSET", Money.of(500), PostingReason.DEPOSIT, null);
     }
 
     @Test
     void reserveTryForBuyOrder_WhenSufficientFunds_ShouldReserveTry() {
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(TRY_ASSET_NAME)))
-                .thenReturn(Optional.of(tryAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(tryAsset);
-
-        BigDecimal size = BigDecimal.valueOf(5);
-        BigDecimal price = BigDecimal.valueOf(100);
+        when(ledger.reserveUsableSize(1L, TRY_ASSET_NAME, Money.of(500), ORDER_ID)).thenReturn(LedgerResult.APPLIED);
 
-        assetCommandService.reserveTryForBuyOrder(1L, size, price);
+        Money size = Money.of(5);
+        Money price = Money.of(100);
 
-        ArgumentCaptor<Asset> assetCaptor = ArgumentCaptor.forClass(Asset.class);
-        verify(assetRepository).save(assetCaptor.capture());
+        assetCommandService.reserveTryForBuyOrder(ORDER_ID, 1L, size, price);
 
-        Asset capturedAsset = assetCaptor.getValue();
-        assertEquals(BigDecimal.valueOf(10000), capturedAsset.getSize());
-        assertEquals(BigDecimal.valueOf(9500), capturedAsset.getUsableSize());
+        verify(ledger).reserveUsableSize(1L, TRY_ASSET_NAME, Money.of(500), ORDER_ID);
     }
 
     @Test
     void reserveTryForBuyOrder_WhenInsufficientFunds_ShouldThrowException() {
-        tryAsset.setUsableSize(BigDecimal.valueOf(400)); // Not enough for 500 cost
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(TRY_ASSET_NAME)))
-                .thenReturn(Optional.of(tryAsset));
-        BigDecimal size = BigDecimal.valueOf(5);
-        BigDecimal price = BigDecimal.valueOf(100);
+        when(ledger.reserveUsableSize(anyLong(), eq(TRY_ASSET_NAME), any(Money.class), anyLong()))
+                .thenReturn(LedgerResult.INSUFFICIENT);
+        Money size = Money.of(5);
+        Money price = Money.of(100);
         assertThrows(InsufficientAssetsException.class, () -> {
-            assetCommandService.reserveTryForBuyOrder(1L, size, price);
+            assetCommandService.reserveTryForBuyOrder(ORDER_ID, 1L, size, price);
         });
-        verify(assetRepository, never()).save(any(Asset.class));
     }
 
     @Test
     void reserveTryForBuyOrder_WhenAssetNotFound_ShouldThrowException() {
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(TRY_ASSET_NAME)))
-                .thenReturn(Optional.empty());
+        when(ledger.reserveUsableSize(anyLong(), eq(TRY_ASSET_NAME), any(Money.class), anyLong()))
+                .thenReturn(LedgerResult.NOT_FOUND);
 
-        BigDecimal size = BigDecimal.valueOf(5);
-        BigDecimal price = BigDecimal.valueOf(100);
+        Money size = Money.of(5);
+        Money price = Money.of(100);
         assertThrows(AssetNotFoundException.class, () -> {
-            assetCommandService.reserveTryForBuyOrder(1L, size, price);
+            assetCommandService.reserveTryForBuyOrder(ORDER_ID, 1L, size, price);
         });
-        verify(assetRepository, never()).save(any(Asset.class));
     }
 
     @Test
     void reserveAssetForSellOrder_WhenSufficientAssets_ShouldReserveAsset() {
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(OTHER_ASSET_NAME)))
-                .thenReturn(Optional.of(otherAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(otherAsset);
+        when(ledger.reserveUsableSize(1L, OTHER_ASSET_NAME, Money.of(50), ORDER_ID)).thenReturn(LedgerResult.APPLIED);
 
-        BigDecimal size = BigDecimal.valueOf(50);
+        assetCommandService.reserveAssetForSellOrder(ORDER_ID, 1L, OTHER_ASSET_NAME, Money.of(50));
 
-        assetCommandService.reserveAssetForSellOrder(1L, OTHER_ASSET_NAME, size);
+        verify(ledger).reserveUsableSize(1L, OTHER_ASSET_NAME, Money.of(50), ORDER_ID);
+    }
 
-        ArgumentCaptor<Asset> assetCaptor = ArgumentCaptor.forClass(Asset.class);
-        verify(assetRepository).save(assetCaptor.capture());
+    @Test
+    void reserveAssetsForOrder_ForBuyOrder_ShouldReserveTry() {
+        when(ledger.reserveUsableSize(anyLong(), eq("TRY"), any(Money.class), anyLong())).thenReturn(LedgerResult.APPLIED);
 
-        Asset capturedAsset = assetCaptor.getValue();
-        assertEquals(BigDecimal.valueOf(100), capturedAsset.getSize()); // Size remains unchanged
-        assertEquals(BigDecimal.valueOf(50), capturedAsset.getUsableSize()); // 100 - 50
+        assetCommandService.reserveAssetsForOrder(ORDER_ID, 1L, "TRY", OrderSide.BUY, Money.of(5), Money.of(100));
+
+        verify(ledger).reserveUsableSize(eq(1L), eq("TRY"), eq(Money.of(500)), eq(ORDER_ID));
     }
 
     @Test
-    void reserveAssetsForOrder_ForBuyOrder_ShouldReserveTry() {
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq("TRY")))
-                .thenReturn(Optional.of(tryAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(tryAsset);
+    void releaseAssetForSellOrder_ShouldIncreaseUsableSizeOnly() {
+        when(ledger.adjustBalance(1L, OTHER_ASSET_NAME, Money.ZERO, Money.of(50), PostingReason.RELEASE, ORDER_ID))
+                .thenReturn(LedgerResult.APPLIED);
 
-        assetCommandService.reserveAssetsForOrder(1L, "TRY", OrderSide.BUY, BigDecimal.valueOf(5), BigDecimal.valueOf(100));
+        assetCommandService.releaseAssetForSellOrder(ORDER_ID, 1L, OTHER_ASSET_NAME, Money.of(50));
 
-        verify(assetRepository).findByCustomerIdAndAssetName(eq(1L), eq("TRY"));
-        verify(assetRepository).save(any(Asset.class));
+        verify(ledger).adjustBalance(1L, OTHER_ASSET_NAME, Money.ZERO, Money.of(50), PostingReason.RELEASE, ORDER_ID);
     }
 
     @Test
-    void finalizeBuyOrder_ShouldDecreaseTryAndIncreaseAsset() {
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(OTHER_ASSET_NAME)))
-                .thenReturn(Optional.of(otherAsset));
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(TRY_ASSET_NAME)))
-                .thenReturn(Optional.of(tryAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(otherAsset).thenReturn(tryAsset);
+    void finalizeBuyOrder_ShouldDecreaseTryAndCreditAsset() {
+        when(ledger.adjustBalance(anyLong(), anyString(), any(Money.class), any(Money.class),
+                any(PostingReason.class), anyLong()))
+                .thenReturn(LedgerResult.APPLIED);
 
-        BigDecimal size = BigDecimal.valueOf(10);
-        BigDecimal price = BigDecimal.valueOf(50);
+        Money size = Money.of(10);
+        Money price = Money.of(50);
 
-        assetCommandService.finalizeBuyOrder(1L, OTHER_ASSET_NAME, size, price);
+        assetCommandService.finalizeBuyOrder(ORDER_ID, 1L, OTHER_ASSET_NAME, size, price);
 
-        verify(assetRepository, times(2)).save(any(Asset.class));
+        verify(ledger).adjustBalance(1L, TRY_ASSET_NAME, Money.of(-500), Money.ZERO, PostingReason.SETTLE, ORDER_ID);
+        verify(ledger).credit(1L, OTHER_ASSET_NAME, size, PostingReason.SETTLE, ORDER_ID);
     }
 
     @Test
     void finalizeSellOrder_ShouldDecreaseAssetAndIncreaseTry() {
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(OTHER_ASSET_NAME)))
-                .thenReturn(Optional.of(otherAsset));
-        when(assetRepository.findByCustomerIdAndAssetName(anyLong(), eq(TRY_ASSET_NAME)))
-                .thenReturn(Optional.of(tryAsset));
-        when(assetRepository.save(any(Asset.class))).thenReturn(otherAsset).thenReturn(tryAsset);
+        when(ledger.adjustBalance(anyLong(), anyString(), any(Money.class), any(Money.class),
+                any(PostingReason.class), anyLong()))
+                .thenReturn(LedgerResult.APPLIED);
+
+        Money size = Money.of(10);
+        Money price = Money.of(50);
+
+        assetCommandService.finalizeSellOrder(ORDER_ID, 1L, OTHER_ASSET_NAME, size, price);
+
+        verify(ledger).adjustBalance(1L, OTHER_ASSET_NAME, Money.of(-10), Money.ZERO, PostingReason.SETTLE, ORDER_ID);
+        verify(ledger).adjustBalance(1L, TRY_ASSET_NAME, Money.of(500), Money.of(500), PostingReason.SETTLE, ORDER_ID);
+    }
+
+    @Test
+    void finalizeSellOrder_WhenAssetNotFound_ShouldThrowException() {
+        when(ledger.adjustBalance(anyLong(), eq(OTHER_ASSET_NAME), any(Money.class), any(Money.class),
+                any(PostingReason.class), anyLong()))
+                .thenReturn(LedgerResult.NOT_FOUND);
+
+        assertThrows(AssetNotFoundException.class, () ->
+                assetCommandService.finalizeSellOrder(ORDER_ID, 1L, OTHER_ASSET_NAME, Money.of(10), Money.of(50)));
+        verify(ledger, never()).adjustBalance(anyLong(), eq(TRY_ASSET_NAME), any(Money.class), any(Money.class),
+                any(PostingReason.class), anyLong());
+    }
+
+    @Test
+    void updateAssetsForMatchedOrders_ShouldMoveBalancesOnLedger() {
+        Order buyOrder = matchedOrder(10L, OrderSide.BUY, OTHER_ASSET_NAME, 5, 100);
+        when(ledger.contains(1L, TRY_ASSET_NAME)).thenReturn(true);
+        when(ledger.adjustBalance(1L, TRY_ASSET_NAME, Money.of(-500), Money.ZERO, PostingReason.SETTLE, 10L))
+                .thenReturn(LedgerResult.APPLIED);
+
+        Map<Long, String> failures = assetCommandService.updateAssetsForMatchedOrders(List.of(buyOrder));
 
-        BigDecimal size = BigDecimal.valueOf(10);
-        BigDecimal price = BigDecimal.valueOf(50);
+        assertTrue(failures.isEmpty());
+        verify(ledger).credit(1L, OTHER_ASSET_NAME, Money.of(5), PostingReason.SETTLE, 10L);
+    }
 
-        assetCommandService.finalizeSellOrder(1L, OTHER_ASSET_NAME, size, price);
+    @Test
+    void updateAssetsForMatchedOrders_WhenSellAssetMissing_ShouldReportFailure() {
+        Order sellOrder = matchedOrder(11L, OrderSide.SELL, "MSFT", 5, 100);
+        when(ledger.contains(1L, TRY_ASSET_NAME)).thenReturn(true);
+        when(ledger.adjustBalance(eq(1L), eq("MSFT"), any(Money.class), any(Money.class),
+                any(PostingReason.class), anyLong()))
+                .thenReturn(LedgerResult.NOT_FOUND);
+
+        Map<Long, String> failures = assetCommandService.updateAssetsForMatchedOrders(List.of(sellOrder));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(11L));
+        verify(ledger, never()).adjustBalance(anyLong(), eq(TRY_ASSET_NAME), any(Money.class), any(Money.class),
+                any(PostingReason.class), anyLong());
+    }
 
-        verify(assetRepository, times(2)).save(any(Asset.class));
+    private Order matchedOrder(Long id, OrderSide side, String assetName, long size, long price) {
+        return Order.builder()
+                .id(id)
+                .customer(testCustomer)
+                .assetName(assetName)
+                .orderSide(side)
+                .size(BigDecimal.valueOf(size))
+                .remainingSize(BigDecimal.valueOf(size))
+                .price(BigDecimal.valueOf(price))
+                .status(OrderStatus.PENDING)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package com.brokerage.service.command;
+
+import com.brokerage.service.sequencer.OrderCommandSequencer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticLockRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new OptimisticLockRetry(meterRegistry, new OrderCommandSequencer(false, 1, 2, 1000), 3, 1, 2.0, 0.5);
+    }
+
+    @Test
+    void execute_WhenConflictIsTransient_ShouldRetryAndCountConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("createOrder", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException("Asset", 1L);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, meterRegistry.counter("brokerage.orders.optimistic_lock.conflicts", "command", "createOrder").count());
+        assertEquals(0.0, meterRegistry.counter("brokerage.orders.optimistic_lock.exhausted", "command", "createOrder").count());
+    }
+
+    @Test
+    void execute_WhenConflictPersists_ShouldRethrowAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("cancelOrder", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Order", 1L);
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.counter("brokerage.orders.optimistic_lock.exhausted", "command", "cancelOrder").count());
+    }
+
+    @Test
+    void execute_WhenOtherExceptionIsThrown_ShouldNotRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute("matchOrder", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, meterRegistry.counter("brokerage.orders.optimistic_lock.conflicts", "command", "matchOrder").count());
+    }
+
+    @Test
+    void execute_OnSequencerLane_ShouldRetryWithoutWaiting() throws InterruptedException {
+        OrderCommandSequencer sequencer = new OrderCommandSequencer(true, 1, 16, 5000);
+        sequencer.start();
+        OptimisticLockRetry slowBackoff = new OptimisticLockRetry(meterRegistry, sequencer, 3, 10_000, 2.0, 0.0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        long startTime = System.nanoTime();
+        String result = sequencer.execute("AAPL", () -> slowBackoff.execute("createOrder", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Asset", 1L);
+            }
+            return "ok";
+        }));
+
+        assertEquals("ok", result);
+        assertTrue(System.nanoTime() - startTime < 5_000_000_000L);
+        sequencer.stop();
+    }
+}
@@ -0,0 +1,129 @@
+package com.brokerage.service.command;
+
+import com.brokerage.api.dto.request.BatchMatchOrderRequest;
+import com.brokerage.api.dto.response.BatchMatchResponse;
+import com.brokerage.api.dto.response.BatchMatchResult;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.exception.OrderCommandRejectedException;
+import com.brokerage.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderBatchMatchServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderCommandGateway orderCommandGateway;
+
+    @InjectMocks
+    private OrderBatchMatchService orderBatchMatchService;
+
+    @Test
+    void matchOrders_ShouldChunkEachRoutingGroupThroughGateway() {
+        Map<Object, List<Long>> groups = new LinkedHashMap<>();
+        groups.put("AAPL", List.of(1L, 2L, 3L));
+        groups.put("TSLA", List.of(4L));
+        when(orderCommandGateway.groupByRoutingKey(List.of(1L, 2L, 3L, 4L))).thenReturn(groups);
+        when(orderCommandGateway.matchOrders(any(), anyList()))
+                .thenAnswer(invocation -> ((List<Long>) invocation.getArgument(1)).stream().map(this::success).toList());
+
+        BatchMatchResponse response = orderBatchMatchService.matchOrders(request(List.of(1L, 2L, 2L, 3L, 4L), 2));
+
+        assertEquals(4, response.getRequested());
+        assertEquals(4, response.getMatched());
+        assertEquals(3, response.getChunks());
+        verify(orderCommandGateway).matchOrders("AAPL", List.of(1L, 2L));
+        verify(orderCommandGateway).matchOrders("AAPL", List.of(3L));
+        verify(orderCommandGateway).matchOrders("TSLA", List.of(4L));
+    }
+
+    @Test
+    void matchOrders_WhenChunkRollsBack_ShouldFailOnlyItsOrders() {
+        when(orderCommandGateway.groupByRoutingKey(List.of(1L, 2L, 3L))).thenReturn(Map.of("AAPL", List.of(1L, 2L, 3L)));
+        when(orderCommandGateway.matchOrders("AAPL", List.of(1L, 2L)))
+                .thenThrow(new DataIntegrityViolationException("constraint violated"));
+        when(orderCommandGateway.matchOrders("AAPL", List.of(3L))).thenReturn(List.of(success(3L)));
+
+        BatchMatchResponse response = orderBatchMatchService.matchOrders(request(List.of(1L, 2L, 3L), 2));
+
+        assertEquals(1, response.getMatched());
+        assertEquals(2, response.getFailed());
+        assertTrue(response.getResults().get(0).getMessage().startsWith("Chunk rolled back"));
+        assertEquals(3L, response.getResults().get(2).getOrderId());
+        assertTrue(response.getResults().get(2).isSuccess());
+    }
+
+    @Test
+    void matchOrders_ShouldReturnResultsInRequestOrder() {
+        Map<Object, List<Long>> groups = new LinkedHashMap<>();
+        groups.put("TSLA", List.of(1L, 3L));
+        groups.put("AAPL", List.of(2L));
+        when(orderCommandGateway.groupByRoutingKey(List.of(1L, 2L, 3L))).thenReturn(groups);
+        when(orderCommandGateway.matchOrders(any(), anyList()))
+                .thenAnswer(invocation -> ((List<Long>) invocation.getArgument(1)).stream().map(this::success).toList());
+
+        BatchMatchResponse response = orderBatchMatchService.matchOrders(request(List.of(1L, 2L, 3L), 500));
+
+        assertEquals(List.of(1L, 2L, 3L), response.getResults().stream().map(BatchMatchResult::getOrderId).toList());
+    }
+
+    @Test
+    void matchOrders_ShouldCountPartialFailuresReportedByChunk() {
+        when(orderCommandGateway.groupByRoutingKey(List.of(1L, 2L))).thenReturn(Map.of("AAPL", List.of(1L, 2L)));
+        when(orderCommandGateway.matchOrders("AAPL", List.of(1L, 2L)))
+                .thenReturn(List.of(success(1L), BatchMatchResult.failure(2L, "Insufficient TRY balance")));
+
+        BatchMatchResponse response = orderBatchMatchService.matchOrders(request(List.of(1L, 2L), 500));
+
+        assertEquals(1, response.getMatched());
+        assertEquals(1, response.getFailed());
+        assertEquals(1, response.getChunks());
+    }
+
+    @Test
+    void matchOrders_WhenLaneRejectsChunk_ShouldReportItsOrdersAsFailed() {
+        when(orderCommandGateway.groupByRoutingKey(List.of(7L))).thenReturn(Map.of("AAPL", List.of(7L)));
+        when(orderCommandGateway.matchOrders("AAPL", List.of(7L)))
+                .thenThrow(new OrderCommandRejectedException("Order command queue is full, please retry"));
+
+        BatchMatchResponse response = orderBatchMatchService.matchOrders(request(List.of(7L), 500));
+
+        assertEquals(0, response.getMatched());
+        assertEquals(1, response.getFailed());
+    }
+
+    @Test
+    void matchOrders_ByAsset_ShouldSelectOpenOrdersOfAsset() {
+        when(orderRepository.findIdsByAssetNameAndStatusIn("AAPL", OrderStatus.OPEN_STATUSES)).thenReturn(List.of(5L));
+        when(orderCommandGateway.groupByRoutingKey(List.of(5L))).thenReturn(Map.of("AAPL", List.of(5L)));
+        when(orderCommandGateway.matchOrders("AAPL", List.of(5L))).thenReturn(List.of(success(5L)));
+
+        BatchMatchResponse response = orderBatchMatchService.matchOrders(
+                BatchMatchOrderRequest.builder().assetName("AAPL").build());
+
+        assertEquals(1, response.getMatched());
+    }
+
+    private static BatchMatchOrderRequest request(List<Long> orderIds, int chunkSize) {
+        return BatchMatchOrderRequest.builder().orderIds(orderIds).chunkSize(chunkSize).build();
+    }
+
+    private BatchMatchResult success(Long orderId) {
+        return BatchMatchResult.builder().orderId(orderId).success(true).message("Order matched").build();
+    }
+}
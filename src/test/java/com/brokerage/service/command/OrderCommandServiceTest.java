@@ -1,20 +1,25 @@
 package com.brokerage.service.command;
 
 import com.brokerage.api.dto.request.CreateOrderRequest;
+import com.brokerage.api.dto.response.BatchMatchResult;
 import com.brokerage.api.mapper.OrderMapper;
 import com.brokerage.domain.Customer;
+import com.brokerage.domain.Money;
 import com.brokerage.domain.Order;
 import com.brokerage.domain.OrderSide;
 import com.brokerage.domain.OrderStatus;
 import com.brokerage.event.OrderCancelledEvent;
 import com.brokerage.event.OrderCreatedEvent;
+import com.brokerage.event.OrderEventPublisher;
 import com.brokerage.event.OrderMatchedEvent;
-import com.brokerage.event.ResilientEventPublisher;
 import com.brokerage.exception.CustomerNotFoundException;
 import com.brokerage.exception.OrderNotFoundException;
 import com.brokerage.exception.OrderStatusException;
+import com.brokerage.journal.ReplayContext;
 import com.brokerage.repository.CustomerRepository;
 import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.matching.MatchingEngine;
+import com.brokerage.service.matching.Trade;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,10 +27,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
         import static org.mockito.ArgumentMatchers.*;
@@ -44,11 +54,17 @@ public class OrderCommandServiceTest {
     private AssetCommandService assetCommandService;
 
     @Mock
-    private ResilientEventPublisher eventPublisher;
+    private OrderEventPublisher eventPublisher;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private MatchingEngine matchingEngine;
+
     @InjectMocks
     private OrderCommandService orderCommandService;
 
@@ -74,6 +90,7 @@ public class OrderCommandServiceTest {
                 .assetName("TRY")
                 .orderSide(OrderSide.BUY)
                 .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
                 .price(BigDecimal.valueOf(100))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
@@ -95,7 +112,7 @@ public class OrderCommandServiceTest {
         when(orderMapper.toEntity(any(CreateOrderRequest.class), any(Customer.class))).thenReturn(testOrder);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         doNothing().when(assetCommandService).reserveAssetsForOrder(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
         doNothing().when(eventPublisher).publishOrderEvent(any(OrderCreatedEvent.class));
 
         // Act
@@ -106,10 +123,111 @@ public class OrderCommandServiceTest {
         assertEquals(OrderStatus.PENDING, result.getStatus());
         assertEquals(OrderSide.BUY, result.getOrderSide());
         verify(assetCommandService).reserveAssetsForOrder(
-                eq(1L), eq("TRY"), eq(OrderSide.BUY), eq(BigDecimal.valueOf(10)), eq(BigDecimal.valueOf(100)));
+                eq(1L), eq(1L), eq("TRY"), eq(OrderSide.BUY), eq(Money.of(10)), eq(Money.of(100)));
         verify(eventPublisher).publishOrderEvent(any(OrderCreatedEvent.class));
     }
 
+    @Test
+    void createOrder_WhenOrderCrossesBook_ShouldSettleBothSides() {
+        // Arrange
+        Customer seller = Customer.builder().id(2L).username("seller").build();
+        Order restingSell = Order.builder()
+                .id(2L)
+                .customer(seller)
+                .assetName("AAPL")
+                .orderSide(OrderSide.SELL)
+                .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
+                .price(BigDecimal.valueOf(90))
+                .status(OrderStatus.PENDING)
+                .build();
+        Order incomingBuy = Order.builder()
+                .id(3L)
+                .customer(testCustomer)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
+                .price(BigDecimal.valueOf(100))
+                .status(OrderStatus.PENDING)
+                .build();
+        Trade trade = Trade.builder()
+                .assetName("AAPL")
+                .buyOrderId(3L)
+                .buyCustomerId(1L)
+                .buyLimitPrice(Money.of(100))
+                .sellOrderId(2L)
+                .sellCustomerId(2L)
+                .size(Money.of(10))
+                .price(Money.of(90))
+                .build();
+
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.of(testCustomer));
+        when(orderMapper.toEntity(any(CreateOrderRequest.class), any(Customer.class))).thenReturn(incomingBuy);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(restingSell));
+        when(matchingEngine.submit(incomingBuy)).thenReturn(List.of(trade));
+
+        // Act
+        Order result = orderCommandService.createOrder(1L, createOrderRequest);
+
+        // Assert
+        assertEquals(OrderStatus.MATCHED, result.getStatus());
+        assertEquals(OrderStatus.MATCHED, restingSell.getStatus());
+        verify(assetCommandService).settleTrade(trade);
+        verify(eventPublisher, times(2)).publishOrderEvent(any(OrderMatchedEvent.class));
+    }
+
+    @Test
+    void createOrder_WhenReplaying_ShouldPublishNothing() {
+        // Arrange
+        Customer seller = Customer.builder().id(2L).username("seller").build();
+        Order restingSell = Order.builder()
+                .id(2L)
+                .customer(seller)
+                .assetName("AAPL")
+                .orderSide(OrderSide.SELL)
+                .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
+                .price(BigDecimal.valueOf(90))
+                .status(OrderStatus.PENDING)
+                .build();
+        Order incomingBuy = Order.builder()
+                .id(3L)
+                .customer(testCustomer)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
+                .price(BigDecimal.valueOf(100))
+                .status(OrderStatus.PENDING)
+                .build();
+        Trade trade = Trade.builder()
+                .assetName("AAPL")
+                .buyOrderId(3L)
+                .buyCustomerId(1L)
+                .buyLimitPrice(Money.of(100))
+                .sellOrderId(2L)
+                .sellCustomerId(2L)
+                .size(Money.of(10))
+                .price(Money.of(90))
+                .build();
+
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.of(testCustomer));
+        when(orderMapper.toEntity(any(CreateOrderRequest.class), any(Customer.class))).thenReturn(incomingBuy);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(restingSell));
+        when(matchingEngine.submit(incomingBuy)).thenReturn(List.of(trade));
+
+        // Act
+        ReplayContext.run(0L, () -> orderCommandService.createOrder(1L, createOrderRequest));
+
+        // Assert
+        assertEquals(OrderStatus.MATCHED, incomingBuy.getStatus());
+        verify(assetCommandService).settleTrade(trade);
+        verifyNoInteractions(eventPublisher, applicationEventPublisher);
+    }
+
     @Test
     void createOrder_WhenCustomerNotFound_ShouldThrowException() {
         // Arrange
@@ -122,7 +240,7 @@ public class OrderCommandServiceTest {
 
         verify(orderRepository, never()).save(any(Order.class));
         verify(assetCommandService, never()).reserveAssetsForOrder(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
     }
 
     @Test
@@ -134,6 +252,7 @@ public class OrderCommandServiceTest {
                 .assetName("TRY")
                 .orderSide(OrderSide.BUY)
                 .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
                 .price(BigDecimal.valueOf(100))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
@@ -147,6 +266,7 @@ public class OrderCommandServiceTest {
                 .assetName("TRY")
                 .orderSide(OrderSide.BUY)
                 .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
                 .price(BigDecimal.valueOf(100))
                 .status(OrderStatus.CANCELED)
                 .createDate(LocalDateTime.now())
@@ -155,7 +275,7 @@ public class OrderCommandServiceTest {
 
         when(orderRepository.save(any(Order.class))).thenReturn(cancelledOrder);
         doNothing().when(assetCommandService).releaseReservedAssets(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
         doNothing().when(eventPublisher).publishOrderEvent(any(OrderCancelledEvent.class));
 
         // Act
@@ -165,8 +285,39 @@ public class OrderCommandServiceTest {
         assertNotNull(result);
         assertEquals(OrderStatus.CANCELED, result.getStatus());
         verify(assetCommandService).releaseReservedAssets(
-                eq(1L), eq("TRY"), eq(OrderSide.BUY), eq(BigDecimal.valueOf(10)), eq(BigDecimal.valueOf(100)));
+                eq(1L), eq(1L), eq("TRY"), eq(OrderSide.BUY), eq(Money.of(10)), eq(Money.of(100)));
         verify(eventPublisher).publishOrderEvent(any(OrderCancelledEvent.class));
+        verify(applicationEventPublisher).publishEvent(any(OrderCancelledEvent.class));
+    }
+
+    @Test
+    void cancelOrder_WhenPartiallyFilled_ShouldReleaseOnlyRemainder() {
+        // Arrange
+        Order partiallyFilledOrder = Order.builder()
+                .id(1L)
+                .customer(testCustomer)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.valueOf(10))
+                .filledSize(BigDecimal.valueOf(4))
+                .remainingSize(BigDecimal.valueOf(6))
+                .price(BigDecimal.valueOf(100))
+                .status(OrderStatus.PARTIALLY_FILLED)
+                .createDate(LocalDateTime.now())
+                .build();
+
+        when(orderRepository.findByIdAndCustomerId(anyLong(), anyLong())).thenReturn(Optional.of(partiallyFilledOrder));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Order result = orderCommandService.cancelOrder(1L, 1L);
+
+        // Assert
+        assertEquals(OrderStatus.CANCELED, result.getStatus());
+        assertEquals(BigDecimal.valueOf(4), result.getFilledSize());
+        verify(matchingEngine).remove(partiallyFilledOrder);
+        verify(assetCommandService).releaseReservedAssets(
+                eq(1L), eq(1L), eq("AAPL"), eq(OrderSide.BUY), eq(Money.of(6)), eq(Money.of(100)));
     }
 
     @Test
@@ -180,7 +331,7 @@ public class OrderCommandServiceTest {
         });
 
         verify(assetCommandService, never()).releaseReservedAssets(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
     }
 
     @Test
@@ -195,7 +346,7 @@ public class OrderCommandServiceTest {
         });
 
         verify(assetCommandService, never()).releaseReservedAssets(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
     }
 
     @Test
@@ -207,6 +358,7 @@ public class OrderCommandServiceTest {
                 .assetName("TRY")
                 .orderSide(OrderSide.BUY)
                 .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
                 .price(BigDecimal.valueOf(100))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
@@ -220,6 +372,8 @@ public class OrderCommandServiceTest {
                 .assetName("TRY")
                 .orderSide(OrderSide.BUY)
                 .size(BigDecimal.valueOf(10))
+                .filledSize(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.ZERO)
                 .price(BigDecimal.valueOf(100))
                 .status(OrderStatus.MATCHED)
                 .createDate(LocalDateTime.now())
@@ -228,7 +382,7 @@ public class OrderCommandServiceTest {
 
         when(orderRepository.save(any(Order.class))).thenReturn(matchedOrder);
         doNothing().when(assetCommandService).updateAssetsForMatchedOrder(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
         doNothing().when(eventPublisher).publishOrderEvent(any(OrderMatchedEvent.class));
 
         // Act
@@ -244,7 +398,7 @@ public class OrderCommandServiceTest {
         assertEquals(OrderStatus.MATCHED, orderCaptor.getValue().getStatus());
 
         verify(assetCommandService).updateAssetsForMatchedOrder(
-                eq(1L), eq("TRY"), eq(OrderSide.BUY), eq(BigDecimal.valueOf(10)), eq(BigDecimal.valueOf(100)));
+                eq(1L), eq(1L), eq("TRY"), eq(OrderSide.BUY), eq(Money.of(10)), eq(Money.of(100)));
         verify(eventPublisher).publishOrderEvent(any(OrderMatchedEvent.class));
     }
 
@@ -259,7 +413,7 @@ public class OrderCommandServiceTest {
         });
 
         verify(assetCommandService, never()).updateAssetsForMatchedOrder(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
     }
 
     @Test
@@ -274,6 +428,48 @@ public class OrderCommandServiceTest {
         });
 
         verify(assetCommandService, never()).updateAssetsForMatchedOrder(
-                anyLong(), anyString(), any(OrderSide.class), any(BigDecimal.class), any(BigDecimal.class));
+                anyLong(), anyLong(), anyString(), any(OrderSide.class), any(Money.class), any(Money.class));
+    }
+
+    @Test
+    void matchOrders_ShouldReportSkippedOrdersAndMatchTheRest() {
+        // Arrange
+        Order cancelled = order(2L, OrderStatus.CANCELED);
+        Order unsettled = order(3L, OrderStatus.PENDING);
+        Order settled = order(4L, OrderStatus.PARTIALLY_FILLED);
+        when(orderRepository.findAllById(List.of(4L, 1L, 3L, 2L))).thenReturn(List.of(cancelled, unsettled, settled));
+        when(assetCommandService.updateAssetsForMatchedOrders(List.of(settled, unsettled)))
+                .thenReturn(Map.of(3L, "Insufficient TRY balance"));
+
+        // Act
+        List<BatchMatchResult> results = orderCommandService.matchOrders(List.of(4L, 1L, 3L, 2L));
+
+        // Assert
+        Map<Long, BatchMatchResult> byId = results.stream()
+                .collect(Collectors.toMap(BatchMatchResult::getOrderId, Function.identity()));
+        assertEquals(List.of(4L, 1L, 3L, 2L), results.stream().map(BatchMatchResult::getOrderId).toList());
+        assertEquals("Order not found", byId.get(1L).getMessage());
+        assertFalse(byId.get(2L).isSuccess());
+        assertEquals("Insufficient TRY balance", byId.get(3L).getMessage());
+        assertTrue(byId.get(4L).isSuccess());
+        assertEquals(OrderStatus.MATCHED, settled.getStatus());
+        assertEquals(OrderStatus.PENDING, unsettled.getStatus());
+        verify(matchingEngine).remove(settled);
+        verify(matchingEngine, never()).remove(unsettled);
+        verify(eventPublisher, times(1)).publishOrderEvent(any(OrderMatchedEvent.class));
+    }
+
+    private Order order(Long id, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .customer(testCustomer)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(BigDecimal.valueOf(10))
+                .remainingSize(BigDecimal.valueOf(10))
+                .price(BigDecimal.valueOf(100))
+                .status(status)
+                .createDate(LocalDateTime.now())
+                .build();
     }
-}
\ No newline at end of file
+}
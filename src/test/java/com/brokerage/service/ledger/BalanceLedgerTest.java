@@ -0,0 +1,297 @@
+package com.brokerage.service.ledger;
+
+import com.brokerage.domain.Asset;
+import com.brokerage.domain.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceLedgerTest {
+
+    private static final Long CUSTOMER_ID = 1L;
+    private static final String TRY_ASSET_NAME = "TRY";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LedgerPostingStore postingStore;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new BalanceLedger(jdbcTemplate, postingStore, transactionTemplate, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(ledger);
+    }
+
+    @Test
+    void load_WhenPostingsDisagreeWithAssetRow_ShouldTakeDerivedBalance() {
+        loadTryBalance(1000, 1000);
+        when(postingStore.deriveBalances())
+                .thenReturn(List.of(new DerivedBalance(CUSTOMER_ID, TRY_ASSET_NAME, units(1000), units(600))));
+
+        ledger.load();
+
+        Asset asset = ledger.find(CUSTOMER_ID, TRY_ASSET_NAME).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(asset.getUsableSize()));
+        assertEquals(1, ledger.pendingWrites());
+    }
+
+    @Test
+    void reserveUsableSize_OutsideTransaction_ShouldInsertUsablePostingOnly() {
+        loadTryBalance(1000, 1000);
+        ledger.load();
+
+        LedgerResult result = ledger.reserveUsableSize(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(400), 5L);
+
+        assertEquals(LedgerResult.APPLIED, result);
+        verify(postingStore).insertBatch(argThat(postings -> postings.size() == 1
+                && postings.get(0).getBucket() == LedgerBucket.USABLE
+                && postings.get(0).getDelta() == -units(400)));
+        assertEquals(1, ledger.pendingWrites());
+    }
+
+    @Test
+    void reserveUsableSize_WhenInsufficient_ShouldNotPost() {
+        loadTryBalance(1000, 300);
+        ledger.load();
+
+        LedgerResult result = ledger.reserveUsableSize(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(400), 5L);
+
+        assertEquals(LedgerResult.INSUFFICIENT, result);
+        verify(postingStore, never()).insertBatch(anyList());
+        assertEquals(0, ledger.pendingWrites());
+    }
+
+    @Test
+    void reserveUsableSize_WhenTransactionRollsBack_ShouldRefundDebit() {
+        loadTryBalance(1000, 1000);
+        ledger.load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reserveUsableSize(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(400), 5L);
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(usableSize()));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(usableSize()));
+        verify(postingStore, never()).insertBatch(anyList());
+        assertEquals(0, ledger.pendingWrites());
+    }
+
+    @Test
+    void adjustBalance_ShouldOnlyReleaseAfterCommit() {
+        loadTryBalance(1000, 600);
+        ledger.load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.adjustBalance(CUSTOMER_ID, TRY_ASSET_NAME, Money.ZERO, Money.of(400), PostingReason.RELEASE, 5L);
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(usableSize()));
+        assertEquals(LedgerResult.INSUFFICIENT,
+                ledger.reserveUsableSize(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(1000), 6L));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(postingStore).insertBatch(argThat(postings -> postings.size() == 1
+                && postings.get(0).getReason() == PostingReason.RELEASE));
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(usableSize()));
+        assertEquals(1, ledger.pendingWrites());
+    }
+
+    @Test
+    void adjustBalance_WhenDebitExceedsBalance_ShouldBeInsufficient() {
+        loadTryBalance(1000, 1000);
+        ledger.load();
+
+        LedgerResult result = ledger.adjustBalance(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(-1500), Money.ZERO,
+                PostingReason.SETTLE, 5L);
+
+        assertEquals(LedgerResult.INSUFFICIENT, result);
+    }
+
+    @Test
+    void credit_ShouldNotBeSpendableBeforeCommit() {
+        loadTryBalance(1000, 1000);
+        ledger.load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        Asset credited = ledger.credit(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(500), PostingReason.DEPOSIT, null);
+
+        assertEquals(0, BigDecimal.valueOf(1500).compareTo(credited.getUsableSize()));
+        assertEquals(LedgerResult.INSUFFICIENT,
+                ledger.reserveUsableSize(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(1200), 5L));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(LedgerResult.APPLIED,
+                ledger.reserveUsableSize(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(1200), 5L));
+    }
+
+    @Test
+    void credit_WhenCreatorRollsBack_ShouldKeepCreditOfWaitingTransaction() throws Exception {
+        AtomicLong nextId = new AtomicLong(20);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, KeyHolder.class).getKeyList().add(Map.of("id", nextId.getAndIncrement()));
+            return 1;
+        }).when(jdbcTemplate).update(any(PreparedStatementCreator.class), any(KeyHolder.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TransactionSynchronizationManager.initSynchronization();
+            ledger.credit(CUSTOMER_ID, "AAPL", Money.of(5), PostingReason.SETTLE, 5L);
+
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Asset> waiting = executor.submit(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    started.countDown();
+                    Asset asset = ledger.credit(CUSTOMER_ID, "AAPL", Money.of(3), PostingReason.SETTLE, 6L);
+                    complete(TransactionSynchronization.STATUS_COMMITTED);
+                    return asset;
+                } finally {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ledger);
+                }
+            });
+            started.await();
+            Thread.sleep(100);
+            assertFalse(waiting.isDone(), "Second credit should wait for the creating transaction");
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            Asset credited = waiting.get(5, TimeUnit.SECONDS);
+            assertEquals(21L, credited.getId());
+            Asset asset = ledger.find(CUSTOMER_ID, "AAPL").orElseThrow();
+            assertEquals(21L, asset.getId());
+            assertEquals(0, BigDecimal.valueOf(3).compareTo(asset.getUsableSize()));
+            assertTrue(ledger.findById(20L).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOnlyCommittedBalances() {
+        loadTryBalance(1000, 1000);
+        ledger.load();
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        ledger.adjustBalance(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(500), Money.of(500), PostingReason.SETTLE, 5L);
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.reserveUsableSize(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(400), 6L);
+        ledger.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 1
+                && BigDecimal.valueOf(1500).compareTo((BigDecimal) rows.get(0)[0]) == 0
+                && BigDecimal.valueOf(1500).compareTo((BigDecimal) rows.get(0)[1]) == 0));
+        assertEquals(0, ledger.pendingWrites());
+    }
+
+    @Test
+    void flush_WhenTransactionFails_ShouldKeepBalancesPending() {
+        loadTryBalance(1000, 1000);
+        ledger.load();
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("database down"));
+
+        ledger.adjustBalance(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(-500), Money.ZERO, PostingReason.SETTLE, 5L);
+        ledger.flush();
+
+        assertEquals(1, ledger.pendingWrites());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshot_ShouldFoldInPassesWhilePostingsAreInserted() throws Exception {
+        loadTryBalance(1000, 1000);
+        ledger.load();
+        when(postingStore.watermark()).thenReturn(250L);
+        when(postingStore.foldedThrough()).thenReturn(0L);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            when(postingStore.fold(0L, 250L)).thenAnswer(invocation -> {
+                // A command inserting postings is not held up by the running compaction
+                executor.submit(() -> ledger.adjustBalance(CUSTOMER_ID, TRY_ASSET_NAME, Money.of(5), Money.of(5),
+                        PostingReason.SETTLE, 5L)).get(5, TimeUnit.SECONDS);
+                return 100L;
+            });
+            when(postingStore.fold(100L, 250L)).thenReturn(250L);
+
+            ledger.snapshot();
+
+            verify(postingStore).insertBatch(anyList());
+            verify(postingStore).deleteExpired(250L);
+            assertEquals(0, BigDecimal.valueOf(1005).compareTo(usableSize()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private BigDecimal usableSize() {
+        return ledger.find(CUSTOMER_ID, TRY_ASSET_NAME).orElseThrow().getUsableSize();
+    }
+
+    /**
+     * Completes the transaction whose synchronizations were initialized by the test
+     */
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadTryBalance(long size, long usableSize) {
+        LocalDateTime now = LocalDateTime.now();
+        LedgerEntry entry = new LedgerEntry(10L, CUSTOMER_ID, TRY_ASSET_NAME, units(size), units(usableSize), now, now);
+        doReturn(List.of(entry)).when(jdbcTemplate).query(anyString(), any(RowMapper.class));
+    }
+
+    private static long units(long wholeUnits) {
+        return Money.of(wholeUnits).units();
+    }
+}
@@ -0,0 +1,49 @@
+package com.brokerage.service.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongKeyMapTest {
+
+    @Test
+    void put_ShouldReplaceExistingValue() {
+        LongKeyMap<String> map = new LongKeyMap<>(4);
+
+        assertNull(map.put(42L, "a"));
+        assertEquals("a", map.put(42L, "b"));
+
+        assertEquals("b", map.get(42L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void operations_ShouldMatchHashMapAcrossResizesAndRemovals() {
+        LongKeyMap<Long> map = new LongKeyMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    void put_WhenKeyIsZero_ShouldThrowException() {
+        LongKeyMap<String> map = new LongKeyMap<>(4);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, "a"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.brokerage.service.matching;
+
+import com.brokerage.domain.Customer;
+import com.brokerage.domain.Money;
+import com.brokerage.domain.Order;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchingEngineTest {
+
+    private static final String ASSET_NAME = "AAPL";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private MatchingEngine matchingEngine;
+
+    @BeforeEach
+    void setUp() {
+        matchingEngine = new MatchingEngine(orderRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadPendingOrders_ShouldReplaceBooksWithOpenOrders() {
+        matchingEngine.submit(order(9L, 3L, OrderSide.BUY, 100, 10, OrderStatus.PENDING));
+        when(orderRepository.findByStatusIn(OrderStatus.OPEN_STATUSES)).thenReturn(List.of(
+                order(2L, 2L, OrderSide.SELL, 100, 10, OrderStatus.PENDING),
+                order(1L, 1L, OrderSide.SELL, 100, 10, OrderStatus.PARTIALLY_FILLED)));
+
+        matchingEngine.loadPendingOrders();
+
+        OrderBook book = matchingEngine.getBook(ASSET_NAME);
+        assertFalse(book.contains(9L));
+        assertEquals(2, book.size());
+        assertEquals(1L, book.submit(entry(3L, 3L, OrderSide.BUY, 100, 5)).get(0).getSellOrderId());
+    }
+
+    @Test
+    void submit_WhenTransactionRollsBack_ShouldRevertOnlyThatOrder() {
+        matchingEngine.submit(order(1L, 1L, OrderSide.SELL, 98, 4, OrderStatus.PENDING));
+        matchingEngine.submit(order(2L, 2L, OrderSide.SELL, 99, 10, OrderStatus.PENDING));
+        matchingEngine.submit(order(3L, 4L, OrderSide.BUY, 90, 5, OrderStatus.PENDING));
+        when(orderRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(order(1L, 1L, OrderSide.SELL, 98, 4, OrderStatus.PENDING)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(2, matchingEngine.submit(order(4L, 3L, OrderSide.BUY, 100, 7, OrderStatus.PENDING)).size());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        OrderBook book = matchingEngine.getBook(ASSET_NAME);
+        assertEquals(3, book.size());
+        assertEquals(Money.of(98), book.bestAsk().orElseThrow());
+        assertEquals(Money.of(90), book.bestBid().orElseThrow());
+        List<Trade> trades = book.submit(entry(5L, 5L, OrderSide.BUY, 100, 14));
+        assertEquals(Money.of(4), trades.get(0).getSize());
+        assertEquals(Money.of(10), trades.get(1).getSize());
+    }
+
+    @Test
+    void submit_WhenTransactionCommits_ShouldKeepTrades() {
+        matchingEngine.submit(order(1L, 1L, OrderSide.SELL, 98, 4, OrderStatus.PENDING));
+
+        TransactionSynchronizationManager.initSynchronization();
+        matchingEngine.submit(order(2L, 2L, OrderSide.BUY, 100, 7, OrderStatus.PENDING));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        OrderBook book = matchingEngine.getBook(ASSET_NAME);
+        assertFalse(book.contains(1L));
+        assertTrue(book.contains(2L));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void remove_WhenTransactionRollsBack_ShouldPutOrderBack() {
+        Order order = order(1L, 1L, OrderSide.SELL, 100, 10, OrderStatus.PENDING);
+        matchingEngine.submit(order);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(matchingEngine.remove(order));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(matchingEngine.getBook(ASSET_NAME).contains(1L));
+        verify(orderRepository, never()).findAllById(anyIterable());
+    }
+
+    /**
+     * Completes the transaction whose synchronizations were initialized by the test
+     */
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private Order order(Long id, Long customerId, OrderSide side, long price, long remainingSize, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .customer(Customer.builder().id(customerId).build())
+                .assetName(ASSET_NAME)
+                .orderSide(side)
+                .size(BigDecimal.valueOf(remainingSize))
+                .price(BigDecimal.valueOf(price))
+                .remainingSize(BigDecimal.valueOf(remainingSize))
+                .status(status)
+                .build();
+    }
+
+    private BookEntry entry(Long orderId, Long customerId, OrderSide side, long price, long size) {
+        return new BookEntry(orderId, customerId, side, Money.of(price), Money.of(size));
+    }
+}
@@ -0,0 +1,152 @@
+package com.brokerage.service.matching;
+
+import com.brokerage.domain.Money;
+import com.brokerage.domain.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderBookTest {
+
+    private OrderBook orderBook;
+
+    @BeforeEach
+    void setUp() {
+        orderBook = new OrderBook("AAPL");
+    }
+
+    @Test
+    void submit_WhenBookIsEmpty_ShouldRestOrder() {
+        List<Trade> trades = orderBook.submit(entry(1L, 1L, OrderSide.BUY, 100, 10));
+
+        assertTrue(trades.isEmpty());
+        assertTrue(orderBook.contains(1L));
+        assertEquals(Money.of(100), orderBook.bestBid().orElseThrow());
+    }
+
+    @Test
+    void submit_WhenPricesCross_ShouldTradeAtRestingPrice() {
+        orderBook.submit(entry(1L, 1L, OrderSide.SELL, 95, 10));
+
+        List<Trade> trades = orderBook.submit(entry(2L, 2L, OrderSide.BUY, 100, 10));
+
+        assertEquals(1, trades.size());
+        Trade trade = trades.get(0);
+        assertEquals(2L, trade.getBuyOrderId());
+        assertEquals(1L, trade.getSellOrderId());
+        assertEquals(Money.of(95), trade.getPrice());
+        assertEquals(Money.of(100), trade.getBuyLimitPrice());
+        assertEquals(0, orderBook.size());
+    }
+
+    @Test
+    void submit_WhenPricesDoNotCross_ShouldRestBothOrders() {
+        orderBook.submit(entry(1L, 1L, OrderSide.SELL, 105, 10));
+
+        List<Trade> trades = orderBook.submit(entry(2L, 2L, OrderSide.BUY, 100, 10));
+
+        assertTrue(trades.isEmpty());
+        assertEquals(2, orderBook.size());
+    }
+
+    @Test
+    void submit_ShouldPreferBestPriceThenArrivalOrder() {
+        orderBook.submit(entry(1L, 1L, OrderSide.SELL, 99, 10));
+        orderBook.submit(entry(2L, 2L, OrderSide.SELL, 98, 10));
+        orderBook.submit(entry(3L, 3L, OrderSide.SELL, 98, 10));
+
+        List<Trade> first = orderBook.submit(entry(4L, 4L, OrderSide.BUY, 100, 10));
+        List<Trade> second = orderBook.submit(entry(5L, 4L, OrderSide.BUY, 100, 10));
+
+        assertEquals(2L, first.get(0).getSellOrderId());
+        assertEquals(3L, second.get(0).getSellOrderId());
+        assertTrue(orderBook.contains(1L));
+    }
+
+    @Test
+    void submit_ShouldNotMatchOrdersOfSameCustomer() {
+        orderBook.submit(entry(1L, 1L, OrderSide.SELL, 100, 10));
+
+        List<Trade> trades = orderBook.submit(entry(2L, 1L, OrderSide.BUY, 100, 10));
+
+        assertTrue(trades.isEmpty());
+        assertEquals(2, orderBook.size());
+    }
+
+    @Test
+    void submit_WhenIncomingIsLarger_ShouldSweepLevelsAndRestRemainder() {
+        orderBook.submit(entry(1L, 1L, OrderSide.SELL, 98, 4));
+        orderBook.submit(entry(2L, 2L, OrderSide.SELL, 99, 3));
+
+        List<Trade> trades = orderBook.submit(entry(3L, 3L, OrderSide.BUY, 100, 10));
+
+        assertEquals(2, trades.size());
+        assertEquals(Money.of(4), trades.get(0).getSize());
+        assertEquals(Money.of(98), trades.get(0).getPrice());
+        assertEquals(Money.of(3), trades.get(1).getSize());
+        assertEquals(Money.of(99), trades.get(1).getPrice());
+        assertTrue(orderBook.contains(3L));
+        assertTrue(orderBook.bestAsk().isEmpty());
+    }
+
+    @Test
+    void submit_WhenRestingIsLarger_ShouldPartiallyFillAndKeepPriority() {
+        orderBook.submit(entry(1L, 1L, OrderSide.BUY, 100, 10));
+        orderBook.submit(entry(2L, 2L, OrderSide.BUY, 100, 10));
+
+        List<Trade> trades = orderBook.submit(entry(3L, 3L, OrderSide.SELL, 100, 4));
+        List<Trade> next = orderBook.submit(entry(4L, 4L, OrderSide.SELL, 100, 6));
+
+        assertEquals(Money.of(4), trades.get(0).getSize());
+        assertEquals(1L, next.get(0).getBuyOrderId());
+        assertEquals(Money.of(6), next.get(0).getSize());
+        assertFalse(orderBook.contains(1L));
+        assertTrue(orderBook.contains(2L));
+    }
+
+    @Test
+    void remove_ShouldDropOrderAndEmptyLevel() {
+        orderBook.submit(entry(1L, 1L, OrderSide.BUY, 100, 10));
+
+        assertTrue(orderBook.remove(1L));
+        assertFalse(orderBook.remove(1L));
+        assertTrue(orderBook.bestBid().isEmpty());
+    }
+
+    @Test
+    void restore_ShouldQueueOrderByIdWithinItsLevel() {
+        orderBook.submit(entry(1L, 1L, OrderSide.SELL, 100, 10));
+        orderBook.submit(entry(2L, 2L, OrderSide.SELL, 100, 10));
+        orderBook.submit(entry(3L, 3L, OrderSide.SELL, 100, 10));
+        BookEntry taken = orderBook.take(2L);
+
+        orderBook.restore(taken);
+        orderBook.take(1L);
+        List<Trade> trades = orderBook.submit(entry(4L, 4L, OrderSide.BUY, 100, 10));
+
+        assertEquals(2L, trades.get(0).getSellOrderId());
+        assertTrue(orderBook.contains(3L));
+    }
+
+    @Test
+    void refund_ShouldGiveRestingOrdersBackTheirFills() {
+        orderBook.submit(entry(1L, 1L, OrderSide.SELL, 98, 4));
+        orderBook.submit(entry(2L, 2L, OrderSide.SELL, 99, 10));
+        List<Trade> trades = orderBook.submit(entry(3L, 3L, OrderSide.BUY, 100, 7));
+        orderBook.remove(3L);
+
+        List<Long> missing = orderBook.refund(OrderSide.BUY, trades);
+
+        assertEquals(List.of(1L), missing);
+        List<Trade> next = orderBook.submit(entry(4L, 4L, OrderSide.BUY, 100, 10));
+        assertEquals(Money.of(10), next.get(0).getSize());
+        assertEquals(0, orderBook.size());
+    }
+
+    private BookEntry entry(Long orderId, Long customerId, OrderSide side, long price, long size) {
+        return new BookEntry(orderId, customerId, side, Money.of(price), Money.of(size));
+    }
+}
@@ -0,0 +1,38 @@
+package com.brokerage.service.query;
+
+import com.brokerage.config.CacheConfig;
+import com.brokerage.event.OrderCancelledEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderCacheInvalidatorTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private OrderCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.ORDERS);
+        invalidator = new OrderCacheInvalidator(cacheManager);
+    }
+
+    @Test
+    void onOrderEvent_ShouldEvictOnlyThatOrdersEntry() {
+        Cache cache = cacheManager.getCache(CacheConfig.ORDERS);
+        cache.put(new SimpleKey(1L, 10L), "order 1");
+        cache.put(new SimpleKey(2L, 10L), "order 2");
+
+        invalidator.onOrderEvent(OrderCancelledEvent.builder()
+                .orderId(1L)
+                .customerId(10L)
+                .build());
+
+        assertNull(cache.get(new SimpleKey(1L, 10L)));
+        assertNotNull(cache.get(new SimpleKey(2L, 10L)));
+    }
+}
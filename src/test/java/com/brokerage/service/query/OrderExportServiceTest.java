@@ -0,0 +1,113 @@
+package com.brokerage.service.query;
+
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.service.archive.OrderArchiveStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OrderArchiveStore archiveStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportService(jdbcTemplate, archiveStore, transactionManager, objectMapper, 100);
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        givenRows(row(1L, "AAPL"), row(2L, "MSFT"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExportService.export(1L, null, null, null, OrderExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2L, second.get("id").asLong());
+        assertEquals("MSFT", second.get("assetName").asText());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void export_AsCsv_ShouldWriteHeaderAndEscapedRows() throws Exception {
+        givenRows(row(1L, "ODD,NAME"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        orderExportService.export(1L, OrderStatus.PENDING, null, null, OrderExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,assetName,orderSide"));
+        assertEquals("1,\"ODD,NAME\",BUY,10.0000,100.0000,0.0000,10.0000,,PENDING,2024-03-01 10:00:00,", lines[1]);
+        verify(jdbcTemplate).query(contains("AND status = ?"), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void export_AsCsv_WhenNoOrders_ShouldWriteHeaderOnly() throws Exception {
+        givenRows();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExportService.export(1L, null, null, null, OrderExportFormat.CSV, out);
+
+        assertEquals(0, exported);
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    private void givenRows(ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    private ResultSet row(Long id, String assetName) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(id);
+        when(row.getString("asset_name")).thenReturn(assetName);
+        when(row.getString("order_side")).thenReturn("BUY");
+        when(row.getBigDecimal("size")).thenReturn(new BigDecimal("10.0000"));
+        when(row.getBigDecimal("price")).thenReturn(new BigDecimal("100.0000"));
+        when(row.getBigDecimal("filled_size")).thenReturn(new BigDecimal("0.0000"));
+        when(row.getBigDecimal("remaining_size")).thenReturn(new BigDecimal("10.0000"));
+        when(row.getString("status")).thenReturn("PENDING");
+        when(row.getTimestamp("create_date")).thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 10, 0)));
+        return row;
+    }
+}
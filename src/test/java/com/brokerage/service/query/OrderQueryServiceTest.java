@@ -0,0 +1,114 @@
+package com.brokerage.service.query;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.repository.OrderRepository;
+import com.brokerage.service.archive.OrderArchiveStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderQueryServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchiveStore archiveStore;
+
+    @InjectMocks
+    private OrderQueryService orderQueryService;
+
+    @Test
+    void getOrderPage_WhenMoreOrdersThanLimit_ShouldReturnCursorOfLastOrder() {
+        when(orderRepository.findResponsePageByCustomerId(eq(1L), anyCollection(), any(), any(), any(), anyLong(), eq(Limit.of(3))))
+                .thenReturn(List.of(order(1L), order(2L), order(3L)));
+
+        OrderPage page = orderQueryService.getOrderPage(1L, null, null, null, null, 2, false);
+
+        assertEquals(2, page.getOrders().size());
+        assertEquals(new OrderCursor(CREATED, 2L), OrderCursor.decode(page.getNextCursor()));
+        assertNull(page.getTotalCount());
+        verify(orderRepository, never()).countByCustomerId(anyLong(), anyCollection(), any(), any());
+    }
+
+    @Test
+    void getOrderPage_WithCursor_ShouldContinueAfterItsPosition() {
+        String cursor = new OrderCursor(CREATED, 2L).encode();
+        when(orderRepository.findResponsePageByCustomerId(eq(1L), eq(List.of(OrderStatus.PENDING)), any(), any(),
+                eq(CREATED), eq(2L), eq(Limit.of(3))))
+                .thenReturn(List.of(order(3L)));
+        when(orderRepository.countByCustomerId(eq(1L), eq(List.of(OrderStatus.PENDING)), any(), any()))
+                .thenReturn(3L);
+
+        OrderPage page = orderQueryService.getOrderPage(1L, OrderStatus.PENDING, null, null, cursor, 2, true);
+
+        assertEquals(1, page.getOrders().size());
+        assertNull(page.getNextCursor());
+        assertEquals(3L, page.getTotalCount());
+    }
+
+    @Test
+    void getOrderPage_WhenRangeReachesArchivedMonth_ShouldUnionArchiveTables() {
+        List<String> archives = List.of("orders_archive_202403");
+        when(archiveStore.tablesBetween(any(), any())).thenReturn(archives);
+        when(archiveStore.findPage(eq(1L), anyCollection(), any(), any(), any(), anyLong(), eq(3), eq(archives)))
+                .thenReturn(List.of(order(1L)));
+        when(archiveStore.count(eq(1L), anyCollection(), any(), any(), eq(archives))).thenReturn(1L);
+
+        OrderPage page = orderQueryService.getOrderPage(1L, null, null, null, null, 2, true);
+
+        assertEquals(1, page.getOrders().size());
+        assertEquals(1L, page.getTotalCount());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void getOrderPage_ForOpenStatus_ShouldNotReadArchives() {
+        when(orderRepository.findResponsePageByCustomerId(eq(1L), eq(List.of(OrderStatus.PENDING)), any(), any(),
+                any(), anyLong(), eq(Limit.of(3))))
+                .thenReturn(List.of());
+
+        orderQueryService.getOrderPage(1L, OrderStatus.PENDING, null, null, null, 2, false);
+
+        verifyNoInteractions(archiveStore);
+    }
+
+    @Test
+    void getAllPendingOrders_ShouldSelectOpenStatusesIntoResponses() {
+        when(orderRepository.findResponsesByStatusIn(OrderStatus.OPEN_STATUSES)).thenReturn(List.of(order(1L)));
+
+        List<OrderResponse> orders = orderQueryService.getAllPendingOrders();
+
+        assertEquals(1L, orders.get(0).getId());
+        verify(orderRepository, never()).findByStatusIn(anyCollection());
+    }
+
+    @Test
+    void getOrderPage_WithInvalidCursor_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () ->
+                orderQueryService.getOrderPage(1L, null, null, null, "not-a-cursor", 2, false));
+        verifyNoInteractions(orderRepository);
+    }
+
+    private OrderResponse order(Long id) {
+        return OrderResponse.builder()
+                .id(id)
+                .status(OrderStatus.PENDING)
+                .createDate(CREATED)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.brokerage.service.query;
+
+import com.brokerage.api.dto.response.PortfolioValuationResponse;
+import com.brokerage.domain.Asset;
+import com.brokerage.domain.Money;
+import com.brokerage.service.stats.AssetStatsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PortfolioValuationServiceTest {
+
+    @Mock
+    private AssetQueryService assetQueryService;
+
+    @Mock
+    private AssetStatsService assetStatsService;
+
+    @InjectMocks
+    private PortfolioValuationService valuationService;
+
+    @Test
+    void valuePortfolio_ShouldMarkHoldingsToLastPriceAndSkipUnpriced() {
+        when(assetQueryService.getAssetsByCustomerId(1L)).thenReturn(List.of(
+                asset("TRY", 1000), asset("AAPL", 10), asset("MSFT", 5)));
+        when(assetStatsService.getLastPrice("AAPL")).thenReturn(Optional.of(Money.of(new BigDecimal("150.5"))));
+        when(assetStatsService.getLastPrice("MSFT")).thenReturn(Optional.empty());
+        when(assetStatsService.isLastPriceApproximate("AAPL")).thenReturn(true);
+
+        PortfolioValuationResponse valuation = valuationService.valuePortfolio(1L);
+
+        assertEquals(0, new BigDecimal("2505").compareTo(valuation.getTotalValue()));
+        assertEquals(1, valuation.getUnpricedAssets());
+        assertEquals(0, new BigDecimal("1505").compareTo(valuation.getAssets().get(1).getValue()));
+        assertFalse(valuation.getAssets().get(2).isPriced());
+        assertEquals(1, valuation.getApproximatelyPricedAssets());
+        assertTrue(valuation.getAssets().get(1).isApproximatePrice());
+        assertFalse(valuation.getAssets().get(0).isApproximatePrice());
+        verify(assetStatsService, never()).getLastPrice("TRY");
+    }
+
+    private Asset asset(String assetName, long size) {
+        return Asset.builder()
+                .assetName(assetName)
+                .size(BigDecimal.valueOf(size))
+                .usableSize(BigDecimal.valueOf(size))
+                .build();
+    }
+}
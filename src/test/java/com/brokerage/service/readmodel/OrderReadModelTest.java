@@ -0,0 +1,132 @@
+package com.brokerage.service.readmodel;
+
+import com.brokerage.api.dto.response.OrderResponse;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.exception.OrderNotFoundException;
+import com.brokerage.service.query.OrderPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderReadModelTest {
+
+    private static final Long CUSTOMER_ID = 1L;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private OrderReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new OrderReadModel();
+    }
+
+    @Test
+    void apply_WhenFillArrivesBeforeCreation_ShouldFoldBoth() {
+        readModel.apply(matched("fill-1", 10L, 4, 101));
+        assertThrows(OrderNotFoundException.class, () -> readModel.getOrderResponse(10L, CUSTOMER_ID));
+
+        readModel.apply(created(10L, CREATED));
+
+        OrderResponse order = readModel.getOrderResponse(10L, CUSTOMER_ID);
+        assertEquals(OrderStatus.PARTIALLY_FILLED, order.getStatus());
+        assertEquals(0, BigDecimal.valueOf(6).compareTo(order.getRemainingSize()));
+        assertEquals(0, BigDecimal.valueOf(101).compareTo(order.getAverageFillPrice()));
+    }
+
+    @Test
+    void apply_WhenFillIsRedelivered_ShouldCountItOnce() {
+        readModel.apply(created(10L, CREATED));
+        readModel.apply(matched("fill-1", 10L, 4, 100));
+        readModel.apply(matched("fill-1", 10L, 4, 100));
+        readModel.apply(matched("fill-2", 10L, 6, 110));
+
+        OrderResponse order = readModel.getOrderResponse(10L, CUSTOMER_ID);
+        assertEquals(OrderStatus.MATCHED, order.getStatus());
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(order.getFilledSize()));
+        assertEquals(0, new BigDecimal("106").compareTo(order.getAverageFillPrice()));
+    }
+
+    @Test
+    void getOrderPage_ShouldPageByCursorAndFilterStatus() {
+        readModel.apply(created(10L, CREATED));
+        readModel.apply(created(11L, CREATED.plusMinutes(1)));
+        readModel.apply(created(12L, CREATED.plusMinutes(2)));
+        readModel.apply(cancelled(11L));
+
+        OrderPage first = readModel.getOrderPage(CUSTOMER_ID, null, null, null, null, 2, true);
+        assertEquals(2, first.getOrders().size());
+        assertEquals(3L, first.getTotalCount());
+
+        OrderPage second = readModel.getOrderPage(CUSTOMER_ID, null, null, null, first.getNextCursor(), 2, false);
+        assertEquals(12L, second.getOrders().get(0).getId());
+        assertNull(second.getNextCursor());
+
+        OrderPage pending = readModel.getOrderPage(CUSTOMER_ID, OrderStatus.PENDING, null, null, null, 10, true);
+        assertEquals(2L, pending.getTotalCount());
+    }
+
+    @Test
+    void getOrderPage_ShouldSeekFromCursorWithinDateRange() {
+        readModel.apply(created(20L, CREATED.minusDays(1)));
+        readModel.apply(created(22L, CREATED));
+        readModel.apply(created(21L, CREATED));
+        readModel.apply(created(23L, CREATED.plusMinutes(5)));
+        readModel.apply(created(24L, CREATED.plusDays(1)));
+
+        OrderPage first = readModel.getOrderPage(CUSTOMER_ID, null, CREATED, CREATED.plusHours(1), null, 1, true);
+        assertEquals(21L, first.getOrders().get(0).getId());
+        assertEquals(3L, first.getTotalCount());
+
+        OrderPage second = readModel.getOrderPage(CUSTOMER_ID, null, CREATED, CREATED.plusHours(1),
+                first.getNextCursor(), 2, false);
+        assertEquals(2, second.getOrders().size());
+        assertEquals(22L, second.getOrders().get(0).getId());
+        assertEquals(23L, second.getOrders().get(1).getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void apply_WhenCreationIsRedelivered_ShouldKeepOneEntryPerOrder() {
+        readModel.apply(created(10L, CREATED));
+        readModel.apply(created(10L, CREATED));
+
+        OrderPage page = readModel.getOrderPage(CUSTOMER_ID, null, null, null, null, 10, true);
+        assertEquals(1, page.getOrders().size());
+        assertEquals(1L, page.getTotalCount());
+    }
+
+    private OrderEventMessage created(Long orderId, LocalDateTime at) {
+        OrderEventMessage event = event("created-" + orderId, "ORDER_CREATED", orderId, at);
+        event.setAssetName("AAPL");
+        event.setOrderSide(OrderSide.BUY);
+        event.setSize(BigDecimal.valueOf(10));
+        event.setPrice(BigDecimal.valueOf(120));
+        return event;
+    }
+
+    private OrderEventMessage matched(String eventId, Long orderId, long size, long price) {
+        OrderEventMessage event = event(eventId, "ORDER_MATCHED", orderId, CREATED.plusHours(1));
+        event.setSize(BigDecimal.valueOf(size));
+        event.setPrice(BigDecimal.valueOf(price));
+        return event;
+    }
+
+    private OrderEventMessage cancelled(Long orderId) {
+        return event("cancelled-" + orderId, "ORDER_CANCELLED", orderId, CREATED.plusHours(1));
+    }
+
+    private OrderEventMessage event(String eventId, String eventType, Long orderId, LocalDateTime at) {
+        OrderEventMessage event = new OrderEventMessage();
+        event.setEventId(eventId);
+        event.setEventType(eventType);
+        event.setOrderId(orderId);
+        event.setCustomerId(CUSTOMER_ID);
+        event.setTimestamp(at);
+        return event;
+    }
+}
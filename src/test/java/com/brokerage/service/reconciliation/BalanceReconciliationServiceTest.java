@@ -0,0 +1,193 @@
+package com.brokerage.service.reconciliation;
+
+import com.brokerage.api.dto.response.ReconciliationResponse;
+import com.brokerage.domain.Asset;
+import com.brokerage.domain.Money;
+import com.brokerage.service.ledger.BalanceLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BalanceReconciliationServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BalanceLedger ledger;
+
+    private BalanceReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new BalanceReconciliationService(
+                jdbcTemplate, ledger, 2, 500, 1000, new BigDecimal("0.01"), 1000);
+    }
+
+    @Test
+    void reconcile_WhenUsableMatchesReservations_ShouldReportNoDrift() throws Exception {
+        givenCustomerRange(1L, 1L);
+        givenOpenOrders(orderRow(1L, "AAPL", "BUY", 5, 100));
+        givenAssets(assetRow(1L, "TRY", 1000, 500));
+
+        ReconciliationResponse response = reconciliationService.reconcile(false);
+
+        assertEquals(1, response.getAssetsChecked());
+        assertEquals(1, response.getOpenOrders());
+        assertEquals(0, response.getDrifted());
+        verify(ledger).flush();
+    }
+
+    @Test
+    void reconcile_WithRepair_ShouldCorrectDriftedBalanceOnLedger() throws Exception {
+        givenCustomerRange(1L, 1L);
+        givenOpenOrders(orderRow(1L, "AAPL", "SELL", 20, 150));
+        givenAssets(assetRow(1L, "AAPL", 50, 45));
+        givenSettled(1L, "AAPL", 50, 45);
+        givenCustomerOpenOrders(1L, orderRow(1L, "AAPL", "SELL", 20, 150), orderRow(1L, "MSFT", "SELL", 5, 10));
+        when(ledger.correctUsableSize(1L, "AAPL", Money.of(50), Money.of(45), Money.of(30))).thenReturn(true);
+
+        ReconciliationResponse response = reconciliationService.reconcile(true);
+
+        assertEquals(1, response.getDrifted());
+        assertEquals(1, response.getRepaired());
+        assertEquals(0, new BigDecimal("30").compareTo(response.getDrifts().get(0).getExpectedUsableSize()));
+        assertTrue(response.getDrifts().get(0).isRepaired());
+    }
+
+    @Test
+    void reconcile_WhenOrderCommittedAfterScan_ShouldNotRepair() throws Exception {
+        // The scan missed an order whose reservation is already in the usable balance
+        givenCustomerRange(1L, 1L);
+        givenOpenOrders();
+        givenAssets(assetRow(1L, "TRY", 1000, 500));
+        givenSettled(1L, "TRY", 1000, 500);
+        givenCustomerOpenOrders(1L, orderRow(1L, "AAPL", "BUY", 5, 100));
+
+        ReconciliationResponse response = reconciliationService.reconcile(true);
+
+        assertEquals(1, response.getDrifted());
+        assertEquals(0, response.getRepaired());
+        verify(ledger, never()).correctUsableSize(anyLong(), anyString(), any(Money.class), any(Money.class), any(Money.class));
+    }
+
+    @Test
+    void reconcile_WhenBalanceHasUncommittedChanges_ShouldNotRepair() throws Exception {
+        givenCustomerRange(1L, 1L);
+        givenOpenOrders();
+        givenAssets(assetRow(1L, "TRY", 1000, 500));
+        when(ledger.findSettled(1L, "TRY")).thenReturn(Optional.empty());
+
+        ReconciliationResponse response = reconciliationService.reconcile(true);
+
+        assertEquals(0, response.getRepaired());
+        verify(ledger, never()).correctUsableSize(anyLong(), anyString(), any(Money.class), any(Money.class), any(Money.class));
+    }
+
+    @Test
+    void reconcile_WhenReservationHasNoAsset_ShouldReportWithoutRepair() throws Exception {
+        givenCustomerRange(1L, 1L);
+        givenOpenOrders(orderRow(1L, "MSFT", "SELL", 10, 50));
+        givenAssets();
+
+        ReconciliationResponse response = reconciliationService.reconcile(true);
+
+        assertEquals(1, response.getDrifted());
+        assertEquals(0, response.getRepaired());
+        verify(ledger, never()).correctUsableSize(anyLong(), anyString(), any(Money.class), any(Money.class), any(Money.class));
+    }
+
+    @Test
+    void reconcile_WhenNoAssets_ShouldNotScanRanges() {
+        givenCustomerRange(null, null);
+
+        ReconciliationResponse response = reconciliationService.reconcile(false);
+
+        assertEquals(0, response.getCustomerRanges());
+        verify(jdbcTemplate, never()).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCustomerRange(Long from, Long to) {
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class)))
+                .thenReturn(from == null ? null : new long[]{from, to});
+    }
+
+    private void givenOpenOrders(ResultSet... rows) {
+        givenRows("FROM orders", rows);
+    }
+
+    private void givenAssets(ResultSet... rows) {
+        givenRows("FROM assets", rows);
+    }
+
+    private void givenSettled(Long customerId, String assetName, long size, long usableSize) {
+        when(ledger.findSettled(customerId, assetName)).thenReturn(Optional.of(Asset.builder()
+                .assetName(assetName)
+                .size(BigDecimal.valueOf(size))
+                .usableSize(BigDecimal.valueOf(usableSize))
+                .build()));
+    }
+
+    private void givenCustomerOpenOrders(Long customerId, ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("customer_id = ?"), any(RowCallbackHandler.class), eq(customerId));
+    }
+
+    private void givenRows(String table, ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains(table), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    private ResultSet orderRow(Long customerId, String assetName, String side, long remainingSize, long price)
+            throws Exception {
+        return row(Map.of("customer_id", customerId, "asset_name", assetName, "order_side", side,
+                "remaining_size", BigDecimal.valueOf(remainingSize), "price", BigDecimal.valueOf(price)));
+    }
+
+    private ResultSet assetRow(Long customerId, String assetName, long size, long usableSize) throws Exception {
+        return row(Map.of("customer_id", customerId, "asset_name", assetName,
+                "size", BigDecimal.valueOf(size), "usable_size", BigDecimal.valueOf(usableSize)));
+    }
+
+    private ResultSet row(Map<String, Object> columns) throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            Object value = column.getValue();
+            if (value instanceof Long id) {
+                lenient().when(row.getLong(column.getKey())).thenReturn(id);
+            } else if (value instanceof BigDecimal decimal) {
+                lenient().when(row.getBigDecimal(column.getKey())).thenReturn(decimal);
+            } else {
+                lenient().when(row.getString(column.getKey())).thenReturn((String) value);
+            }
+        }
+        return row;
+    }
+}
@@ -0,0 +1,122 @@
+package com.brokerage.service.sequencer;
+
+import com.brokerage.exception.OrderCommandRejectedException;
+import com.brokerage.exception.OrderNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderCommandSequencerTest {
+
+    private OrderCommandSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new OrderCommandSequencer(true, 4, 1024, 5000);
+        sequencer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sequencer.stop();
+    }
+
+    @Test
+    void execute_ShouldReturnCommandResult() {
+        String result = sequencer.execute("AAPL", () -> "done");
+
+        assertEquals("done", result);
+    }
+
+    @Test
+    void execute_WhenCommandFails_ShouldRethrowOriginalException() {
+        assertThrows(OrderNotFoundException.class, () ->
+                sequencer.execute("AAPL", () -> {
+                    throw new OrderNotFoundException("Order not found");
+                }));
+    }
+
+    @Test
+    void execute_WhenCommandIsStillQueuedAtTimeout_ShouldAbandonIt() throws InterruptedException {
+        OrderCommandSequencer shortTimeout = new OrderCommandSequencer(true, 1, 16, 50);
+        shortTimeout.start();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        CompletableFuture<Boolean> blocker = shortTimeout.submit("AAPL", () -> awaitQuietly(release, 5000));
+
+        assertThrows(OrderCommandRejectedException.class, () -> shortTimeout.execute("AAPL", () -> {
+            queuedRan.set(true);
+            return "late";
+        }));
+        release.countDown();
+        blocker.join();
+        assertEquals("next", shortTimeout.execute("AAPL", () -> "next"));
+
+        assertFalse(queuedRan.get());
+        shortTimeout.stop();
+    }
+
+    @Test
+    void execute_WhenCommandIsRunningAtTimeout_ShouldWaitForItsOutcome() throws InterruptedException {
+        OrderCommandSequencer shortTimeout = new OrderCommandSequencer(true, 1, 16, 50);
+        shortTimeout.start();
+
+        String result = shortTimeout.execute("AAPL", () -> {
+            awaitQuietly(new CountDownLatch(1), 200);
+            return "committed";
+        });
+
+        assertEquals("committed", result);
+        shortTimeout.stop();
+    }
+
+    @Test
+    void submit_WithSameKey_ShouldRunOnOneThreadInSubmissionOrder() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<Integer> executionOrder = new CopyOnWriteArrayList<>();
+
+        List<CompletableFuture<Integer>> results = IntStream.range(0, 100)
+                .mapToObj(i -> sequencer.submit("AAPL", () -> {
+                    threadNames.add(Thread.currentThread().getName());
+                    executionOrder.add(i);
+                    return i;
+                }))
+                .toList();
+
+        results.forEach(CompletableFuture::join);
+        assertEquals(1, threadNames.size());
+        assertEquals(IntStream.range(0, 100).boxed().toList(), executionOrder);
+    }
+
+    @Test
+    void submit_WhenDisabled_ShouldRunOnCallingThread() throws InterruptedException {
+        OrderCommandSequencer inline = new OrderCommandSequencer(false, 4, 1024, 5000);
+        inline.start();
+
+        String threadName = inline.execute("AAPL", () -> Thread.currentThread().getName());
+
+        assertEquals(Thread.currentThread().getName(), threadName);
+        inline.stop();
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch, long timeoutMillis) {
+        try {
+            return latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
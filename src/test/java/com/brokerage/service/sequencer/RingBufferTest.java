@@ -0,0 +1,87 @@
+package com.brokerage.service.sequencer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferTest {
+
+    @Test
+    void constructor_WhenCapacityIsNotPowerOfTwo_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<String>(1000));
+    }
+
+    @Test
+    void offerAndPoll_ShouldPreserveOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+
+        assertTrue(buffer.offer(1));
+        assertTrue(buffer.offer(2));
+
+        assertEquals(1, buffer.poll());
+        assertEquals(2, buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void offer_WhenFull_ShouldReturnFalseUntilConsumed() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+        assertTrue(buffer.offer(1));
+        assertTrue(buffer.offer(2));
+        assertFalse(buffer.offer(3));
+
+        assertEquals(1, buffer.poll());
+        assertTrue(buffer.offer(3));
+        assertEquals(2, buffer.poll());
+        assertEquals(3, buffer.poll());
+    }
+
+    @Test
+    void offer_FromManyProducers_ShouldDeliverEveryElementOnce() throws InterruptedException {
+        RingBuffer<Integer> buffer = new RingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        Set<Integer> received = new HashSet<>();
+        while (received.size() < producers * perProducer) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                assertTrue(received.add(value));
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(buffer.poll());
+    }
+}
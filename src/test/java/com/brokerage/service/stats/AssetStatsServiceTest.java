@@ -0,0 +1,130 @@
+package com.brokerage.service.stats;
+
+import com.brokerage.api.dto.response.AssetStatsResponse;
+import com.brokerage.api.dto.response.CandleResponse;
+import com.brokerage.domain.Money;
+import com.brokerage.domain.OrderSide;
+import com.brokerage.domain.OrderStatus;
+import com.brokerage.event.OrderCancelledEvent;
+import com.brokerage.event.OrderCreatedEvent;
+import com.brokerage.event.OrderMatchedEvent;
+import com.brokerage.exception.AssetNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AssetStatsServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AssetStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new AssetStatsService(jdbcTemplate);
+    }
+
+    @Test
+    void onTradeExecuted_ShouldAccumulateVolumeVwapAndCandle() {
+        statsService.onTradeExecuted(new TradeExecutedEvent("AAPL", Money.of(10), Money.of(100)));
+        statsService.onTradeExecuted(new TradeExecutedEvent("AAPL", Money.of(30), Money.of(120)));
+        statsService.onTradeExecuted(new TradeExecutedEvent("AAPL", Money.of(10), Money.of(90)));
+
+        AssetStatsResponse stats = statsService.getStats("AAPL", CandleInterval.DAY);
+
+        assertEquals(3, stats.getTradeCount());
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(stats.getVolume()));
+        assertEquals(0, new BigDecimal("110").compareTo(stats.getVwap()));
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(stats.getLastPrice()));
+
+        CandleResponse candle = stats.getCandles().get(stats.getCandles().size() - 1);
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(candle.getOpen()));
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(candle.getHigh()));
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(candle.getLow()));
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(candle.getClose()));
+    }
+
+    @Test
+    void loadLastPrices_ShouldReportSeedAsApproximateUntilFirstTrade() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("asset_name")).thenReturn("AAPL");
+        when(rs.getBigDecimal("average_fill_price")).thenReturn(BigDecimal.valueOf(95));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        statsService.loadLastPrices();
+
+        AssetStatsResponse seeded = statsService.getStats("AAPL", CandleInterval.DAY);
+        assertEquals(0, BigDecimal.valueOf(95).compareTo(seeded.getLastPrice()));
+        assertTrue(seeded.isLastPriceApproximate());
+        assertTrue(statsService.isLastPriceApproximate("AAPL"));
+
+        statsService.onTradeExecuted(new TradeExecutedEvent("AAPL", Money.of(1), Money.of(101)));
+
+        AssetStatsResponse traded = statsService.getStats("AAPL", CandleInterval.DAY);
+        assertEquals(0, BigDecimal.valueOf(101).compareTo(traded.getLastPrice()));
+        assertFalse(traded.isLastPriceApproximate());
+        assertFalse(statsService.isLastPriceApproximate("AAPL"));
+    }
+
+    @Test
+    void onOrderEvent_ShouldTrackOpenOrdersPerSide() {
+        statsService.onOrderEvent(created(1L, OrderSide.BUY));
+        statsService.onOrderEvent(created(2L, OrderSide.BUY));
+        statsService.onOrderEvent(created(3L, OrderSide.SELL));
+        statsService.onOrderEvent(OrderCancelledEvent.builder()
+                .orderId(1L).customerId(1L).assetName("AAPL").orderSide(OrderSide.BUY).build());
+        statsService.onOrderEvent(matched(3L, OrderSide.SELL, OrderStatus.PARTIALLY_FILLED));
+
+        AssetStatsResponse stats = statsService.getStats("AAPL", CandleInterval.HOUR);
+        assertEquals(1, stats.getPendingBuyOrders());
+        assertEquals(1, stats.getPendingSellOrders());
+
+        statsService.onOrderEvent(matched(3L, OrderSide.SELL, OrderStatus.MATCHED));
+        assertEquals(0, statsService.getStats("AAPL", CandleInterval.HOUR).getPendingSellOrders());
+    }
+
+    @Test
+    void getStats_WhenAssetUnknown_ShouldThrowException() {
+        assertThrows(AssetNotFoundException.class, () -> statsService.getStats("MSFT", CandleInterval.DAY));
+    }
+
+    private OrderCreatedEvent created(Long orderId, OrderSide side) {
+        return OrderCreatedEvent.builder()
+                .orderId(orderId)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(side)
+                .size(BigDecimal.TEN)
+                .price(BigDecimal.valueOf(100))
+                .build();
+    }
+
+    private OrderMatchedEvent matched(Long orderId, OrderSide side, OrderStatus status) {
+        return OrderMatchedEvent.builder()
+                .orderId(orderId)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(side)
+                .size(BigDecimal.ONE)
+                .price(BigDecimal.valueOf(100))
+                .status(status)
+                .build();
+    }
+}